@@ -0,0 +1,106 @@
+package com.github.nickrm.jflux;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import com.github.nickrm.jflux.domain.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading and writing annotated members through {@link MemberAccessor} with plain
+ * reflection, and measures whole conversions of annotated objects.
+ * <p>
+ * Run with {@code mvn -P benchmark verify}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemberAccessBenchmark {
+
+    private final AnnotationBasedPointConverter converter =
+            new AnnotationBasedPointConverter(new NamingStrategy());
+
+    private Sample sample;
+    private Point point;
+    private Field reflectedMember;
+    private MemberAccessor accessor;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        sample = new Sample();
+        sample.value = 42.5;
+        sample.count = 7;
+        sample.host = "server_1";
+        point = converter.toPoint(sample);
+
+        reflectedMember = Sample.class.getDeclaredField("count");
+        reflectedMember.setAccessible(true);
+        accessor = new MemberAccessor(Sample.class.getDeclaredField("count"));
+    }
+
+    @Benchmark
+    public Object getWithReflection() throws IllegalAccessException {
+        return reflectedMember.get(sample);
+    }
+
+    @Benchmark
+    public Object getWithAccessor() {
+        return accessor.get(sample);
+    }
+
+    @Benchmark
+    public long getLongWithReflection() throws IllegalAccessException {
+        return reflectedMember.getLong(sample);
+    }
+
+    @Benchmark
+    public long getLongWithAccessor() {
+        return accessor.getLong(sample);
+    }
+
+    @Benchmark
+    public Sample setWithReflection() throws IllegalAccessException {
+        reflectedMember.set(sample, 8L);
+        return sample;
+    }
+
+    @Benchmark
+    public Sample setWithAccessor() throws IllegalAccessException {
+        accessor.set(sample, 8L);
+        return sample;
+    }
+
+    @Benchmark
+    public Point toPoint() {
+        return converter.toPoint(sample);
+    }
+
+    @Benchmark
+    public Sample fromPoint() {
+        return converter.fromPoint(point, Sample.class);
+    }
+
+    static class Sample {
+
+        @com.github.nickrm.jflux.annotation.Field
+        private double value;
+
+        @com.github.nickrm.jflux.annotation.Field
+        private long count;
+
+        @com.github.nickrm.jflux.annotation.Tag
+        private String host;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.nickrm.jflux;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.Precision;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares encoding annotated objects to line protocol through {@link Point Points} with encoding
+ * them directly, for a write of 1,000 objects.
+ * <p>
+ * Run with {@code mvn -P benchmark verify}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WriteEncodingBenchmark {
+
+    private static final String MEASUREMENT_NAME = "sample";
+
+    private final AnnotationBasedPointConverter converter =
+            new AnnotationBasedPointConverter(new NamingStrategy());
+    private final LineProtocolConverter lineProtocolConverter = new LineProtocolConverter();
+
+    private List<Sample> samples;
+
+    @Setup
+    public void setUp() {
+        samples = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < 1_000; i++) {
+            Sample sample = new Sample();
+            sample.timestamp = now.plusMillis(i);
+            sample.value = i / 3.0;
+            sample.count = i;
+            sample.host = "server_" + (i % 10);
+            sample.region = "eu";
+            samples.add(sample);
+        }
+    }
+
+    @Benchmark
+    public Buffer encodeThroughPoints() throws IOException {
+        List<Point> points = samples.stream()
+                .map(converter::toPoint)
+                .collect(Collectors.toList());
+        return writeAll(lineProtocolConverter.toRequestBodies(MEASUREMENT_NAME, points,
+                Integer.MAX_VALUE, Precision.MILLISECONDS));
+    }
+
+    @Benchmark
+    public Buffer encodeDirectly() throws IOException {
+        return writeAll(lineProtocolConverter.toRequestBodies(MEASUREMENT_NAME, samples,
+                converter::encode, Integer.MAX_VALUE, Precision.MILLISECONDS));
+    }
+
+    private static Buffer writeAll(List<RequestBody> bodies) throws IOException {
+        Buffer buffer = new Buffer();
+        for (RequestBody body : bodies) {
+            body.writeTo(buffer);
+        }
+        return buffer;
+    }
+
+    static class Sample {
+
+        @com.github.nickrm.jflux.annotation.Timestamp
+        private Instant timestamp;
+
+        @com.github.nickrm.jflux.annotation.Field
+        private double value;
+
+        @com.github.nickrm.jflux.annotation.Field
+        private long count;
+
+        @com.github.nickrm.jflux.annotation.Tag
+        private String host;
+
+        @com.github.nickrm.jflux.annotation.Tag
+        private String region;
+    }
+}
@@ -3,9 +3,9 @@ package com.github.nickrm.jflux;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 import com.github.nickrm.jflux.annotation.Field;
 import com.github.nickrm.jflux.annotation.Tag;
@@ -14,14 +14,36 @@ import com.github.nickrm.jflux.annotation.exception.AnnotationProcessingExceptio
 import com.github.nickrm.jflux.annotation.exception.DuplicateAnnotatedMembersException;
 import com.github.nickrm.jflux.annotation.exception.InvalidAnnotatedType;
 import com.github.nickrm.jflux.annotation.exception.MissingAnnotatedMemberException;
+import com.github.nickrm.jflux.codec.PointCodec;
+import com.github.nickrm.jflux.codec.PointWriter;
 import com.github.nickrm.jflux.domain.Point;
 
 /**
- * Handles conversions between annotated classes and {@link Point} instances.
+ * Handles conversions between annotated classes and {@link Point} instances, and the encoding of
+ * annotated objects through a {@link PointWriter}.
+ * <p>
+ * Classes which have a {@link PointCodec} generated at build time are converted by their codec.
+ * For any other class the annotated members are looked up once, the first time the class is
+ * converted, and reused for all of its instances.
  */
 final class AnnotationBasedPointConverter {
 
     private final NamingStrategy namingStrategy;
+    private final ClassValue<ClassMetadata> classMetadata = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type, namingStrategy);
+        }
+    };
+    private final ClassValue<String> measurementNames = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            PointCodec<?> codec = PointCodecs.forClass(type);
+            return codec != null
+                    ? codec.getMeasurementName()
+                    : namingStrategy.getMeasurementName(type);
+        }
+    };
 
     /**
      * Constructs a new converter with the specified naming strategy.
@@ -38,6 +60,25 @@ final class AnnotationBasedPointConverter {
         this.namingStrategy = namingStrategy;
     }
 
+    /**
+     * Gets the name of the measurement that objects of the specified class are written to. The
+     * name is resolved once per class.
+     *
+     * @param type the class to get the measurement name for, not {@code null}
+     *
+     * @return the measurement name
+     *
+     * @throws IllegalArgumentException if {@code type} is {@code null}
+     * @see NamingStrategy#getMeasurementName(Class)
+     */
+    String getMeasurementName(Class<?> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Class cannot be null");
+        }
+
+        return measurementNames.get(type);
+    }
+
     /**
      * Converts the specified object into a {@link Point} for writing to InfluxDB.
      *
@@ -49,76 +90,108 @@ final class AnnotationBasedPointConverter {
      * @throws AnnotationProcessingException if {@code annotatedObject} is not correctly annotated
      */
     Point toPoint(Object annotatedObject) {
+        PointBuildingWriter writer = new PointBuildingWriter();
+        encode(annotatedObject, writer);
+        if (!writer.hasFields()) {
+            throw new MissingAnnotatedMemberException(annotatedObject, Field.class);
+        }
+
+        return writer.toPoint();
+    }
+
+    /**
+     * Writes the tags, fields and timestamp of the specified object to a {@link PointWriter}.
+     * <p>
+     * Members with a {@code null} value are not written. Fields of primitive types other than
+     * {@code float} and {@code char} are written without boxing their values.
+     * <p>
+     * Objects encoded by a generated codec are not checked for having any fields, so callers need
+     * to check that at least one field has been written.
+     *
+     * @param annotatedObject the object to encode, not {@code null}
+     * @param writer          the writer to write the values to
+     *
+     * @throws IllegalArgumentException      if {@code annotatedObject} is {@code null}
+     * @throws AnnotationProcessingException if {@code annotatedObject} is not correctly annotated
+     */
+    void encode(Object annotatedObject, PointWriter writer) {
         if (annotatedObject == null) {
             throw new IllegalArgumentException("Annotated object cannot be null");
         }
 
-        Map<String, Object> fields = new HashMap<>();
-        Map<String, String> tags = new HashMap<>();
-        for (java.lang.reflect.Field field : annotatedObject.getClass().getDeclaredFields()) {
-            Object fieldValue = getInstanceFieldValue(annotatedObject, field, Object.class);
+        @SuppressWarnings("unchecked")
+        PointCodec<Object> codec =
+                (PointCodec<Object>) PointCodecs.forClass(annotatedObject.getClass());
+        if (codec != null) {
+            codec.encode(annotatedObject, writer);
+            return;
+        }
 
-            if (fieldValue == null || (!field.isAnnotationPresent(Field.class)
-                    && !field.isAnnotationPresent(Tag.class))) {
-                continue;
-            }
+        ClassMetadata metadata = classMetadata.get(annotatedObject.getClass());
+        boolean hasFields = false;
+        for (int i = 0; i < metadata.fieldMembers.length; i++) {
+            hasFields |= writeField(annotatedObject, metadata.fieldMembers[i],
+                    metadata.fieldTypes[i], metadata.fieldNames[i], writer);
+        }
 
-            if (field.isAnnotationPresent(Field.class)) {
-                if (!(fieldValue instanceof Number || fieldValue instanceof Boolean)) {
-                    throw new InvalidAnnotatedType(field,
-                            Arrays.asList(Number.class, Boolean.class));
-                }
-                fields.put(namingStrategy.getFieldName(field), fieldValue);
-            }
-            else {
-                tags.put(namingStrategy.getTagName(field), fieldValue.toString());
+        for (int i = 0; i < metadata.tagMembers.length; i++) {
+            Object tagValue = metadata.tagMembers[i].get(annotatedObject);
+            if (tagValue != null) {
+                writer.tag(metadata.tagNames[i], tagValue.toString());
             }
         }
 
-        if (fields.isEmpty()) {
+        if (!hasFields) {
             throw new MissingAnnotatedMemberException(annotatedObject, Field.class);
         }
 
-        Instant timestamp = getTimestamp(annotatedObject);
-
-        return new Point.Builder().timestamp(timestamp).fields(fields).tags(tags).build();
+        writer.timestamp(getTimestamp(annotatedObject, metadata));
     }
 
-    private Instant getTimestamp(Object o) {
-        java.lang.reflect.Field timestampField = Arrays.stream(o.getClass().getDeclaredFields())
-                .filter(member -> member.isAnnotationPresent(Timestamp.class))
-                .reduce((a, b) -> {
-                    throw new DuplicateAnnotatedMembersException(o, Timestamp.class);
-                })
-                .orElse(null);
+    private boolean writeField(Object o, MemberAccessor member, FieldType fieldType,
+            String fieldName, PointWriter writer) {
+        switch (fieldType) {
+            case LONG:
+                writer.field(fieldName, member.getLong(o));
+                return true;
+            case DOUBLE:
+                writer.field(fieldName, member.getDouble(o));
+                return true;
+            case BOOLEAN:
+                writer.field(fieldName, member.getBoolean(o));
+                return true;
+            default:
+                Object fieldValue = member.get(o);
+                if (fieldValue == null) {
+                    return false;
+                }
 
-        if (timestampField == null) {
-            return null;
+                if (!(fieldValue instanceof Number || fieldValue instanceof Boolean
+                        || fieldValue instanceof String)) {
+                    throw new InvalidAnnotatedType(member.getMember(),
+                            Arrays.asList(Number.class, Boolean.class, String.class));
+                }
+                writer.field(fieldName, fieldValue);
+                return true;
         }
-
-        return getInstanceFieldValue(o, timestampField, Instant.class);
     }
 
-    private <T> T getInstanceFieldValue(Object o, java.lang.reflect.Field field, Class<T> type) {
-        Object value;
-        try {
-            field.setAccessible(true);
-            value = field.get(o);
-        } catch (IllegalAccessException e) {
-            throw new AnnotationProcessingException("Could not get field value", e);
-        } finally {
-            field.setAccessible(false);
+    private Instant getTimestamp(Object o, ClassMetadata metadata) {
+        if (metadata.timestampMembers.length > 1) {
+            throw new DuplicateAnnotatedMembersException(o, Timestamp.class);
         }
 
-        if (value == null) {
+        if (metadata.timestampMembers.length == 0) {
             return null;
         }
 
-        if (type.isAssignableFrom(value.getClass())) {
-            return type.cast(value);
+        MemberAccessor timestampMember = metadata.timestampMembers[0];
+        Object value = timestampMember.get(o);
+        if (value == null || value instanceof Instant) {
+            return (Instant) value;
         }
         else {
-            throw new InvalidAnnotatedType(field, type);
+            throw new InvalidAnnotatedType(timestampMember.getMember(), Instant.class);
         }
     }
 
@@ -126,7 +199,9 @@ final class AnnotationBasedPointConverter {
      * Converts a point to an instance of the specified type.
      * <p>
      * This method sets values for fields annotated with any of {@link Timestamp}, {@link Field},
-     * or {@link Tag}. Class fields which are not annotated are not altered.
+     * or {@link Tag}. Class fields which are not annotated are not altered. Since points read from
+     * InfluxDB hold string values as tags, a {@link Field} which can hold a string is set from the
+     * tag of the same name if the point has no such field.
      *
      * @param point      the point to convert, not {@code null}
      * @param targetType the type to convert to, not {@code null}
@@ -148,59 +223,152 @@ final class AnnotationBasedPointConverter {
             throw new IllegalArgumentException("Target type cannot be null");
         }
 
-        T targetInstance = createInstance(targetType);
+        PointCodec<T> codec = PointCodecs.forClass(targetType);
+        if (codec != null) {
+            try {
+                return codec.decode(point);
+            } catch (ClassCastException e) {
+                throw new AnnotationProcessingException(
+                        "Could not convert point to " + targetType.getName(), e);
+            }
+        }
+
+        ClassMetadata metadata = classMetadata.get(targetType);
+        T targetInstance = createInstance(targetType, metadata);
 
-        for (java.lang.reflect.Field field : targetType.getDeclaredFields()) {
-            setFieldValue(point, targetInstance, field);
+        for (MemberAccessor member : metadata.timestampMembers) {
+            setFieldValue(targetInstance, member, point.getTimestamp());
+        }
+        for (int i = 0; i < metadata.fieldMembers.length; i++) {
+            Object value = point.getField(metadata.fieldNames[i]);
+            if (value == null && metadata.stringFields[i]) {
+                // Query results are untyped, so string fields are read back as tags.
+                value = point.getTag(metadata.fieldNames[i]);
+            }
+            setFieldValue(targetInstance, metadata.fieldMembers[i], value);
+        }
+        for (int i = 0; i < metadata.tagMembers.length; i++) {
+            setFieldValue(targetInstance, metadata.tagMembers[i],
+                    point.getTag(metadata.tagNames[i]));
         }
 
         return targetInstance;
     }
 
-    private <T> T createInstance(Class<T> targetType) {
+    private <T> T createInstance(Class<T> targetType, ClassMetadata metadata) {
         try {
-            Constructor<T> ctor = targetType.getDeclaredConstructor();
-            ctor.setAccessible(true);
-            try {
-                return ctor.newInstance();
-            } finally {
-                ctor.setAccessible(false);
+            if (metadata.constructor == null) {
+                // Look the constructor up again to report why it is missing.
+                targetType.getDeclaredConstructor();
             }
+            return targetType.cast(metadata.constructor.newInstance());
         } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
                 | InvocationTargetException e) {
             throw new AnnotationProcessingException("Could not instantiate target class", e);
         }
     }
 
-    private <T> void setFieldValue(Point point, T targetInstance, java.lang.reflect.Field field) {
+    private void setFieldValue(Object targetInstance, MemberAccessor member, Object value) {
         try {
-            Object value;
-            if (field.isAnnotationPresent(Timestamp.class)) {
-                value = point.getTimestamp();
-            }
-            else if (field.isAnnotationPresent(Field.class)) {
-                String fieldName = namingStrategy.getFieldName(field);
-                value = point.getFields().get(fieldName);
-            }
-            else if (field.isAnnotationPresent(Tag.class)) {
-                String tagName = namingStrategy.getTagName(field);
-                value = point.getTags().get(tagName);
+            member.set(targetInstance, value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAnnotatedType(member.getMember(), value.getClass());
+        } catch (IllegalAccessException e) {
+            throw new AnnotationProcessingException("Could not set field value", e);
+        }
+    }
+
+    /**
+     * The annotated members of a class and the InfluxDB names they map to, resolved once per class.
+     * <p>
+     * Accessors for the members are created along with the metadata, so that converting an object
+     * only needs to read or write their values.
+     */
+    private static final class ClassMetadata {
+
+        private final MemberAccessor[] timestampMembers;
+        private final MemberAccessor[] fieldMembers;
+        private final FieldType[] fieldTypes;
+        private final String[] fieldNames;
+
+        /**
+         * Whether each field member can hold a string, and so can be set from a tag.
+         */
+        private final boolean[] stringFields;
+        private final MemberAccessor[] tagMembers;
+        private final String[] tagNames;
+        private final Constructor<?> constructor;
+
+        ClassMetadata(Class<?> type, NamingStrategy namingStrategy) {
+            List<java.lang.reflect.Field> timestamps = new ArrayList<>();
+            List<java.lang.reflect.Field> fields = new ArrayList<>();
+            List<java.lang.reflect.Field> tags = new ArrayList<>();
+            for (java.lang.reflect.Field member : type.getDeclaredFields()) {
+                if (member.isAnnotationPresent(Timestamp.class)) {
+                    timestamps.add(member);
+                }
+                else if (member.isAnnotationPresent(Field.class)) {
+                    fields.add(member);
+                }
+                else if (member.isAnnotationPresent(Tag.class)) {
+                    tags.add(member);
+                }
             }
-            else {
-                // Do not touch non-annotated fields.
-                return;
+
+            timestampMembers = toAccessors(timestamps);
+            fieldMembers = toAccessors(fields);
+            fieldTypes = fields.stream().map(member -> FieldType.of(member.getType()))
+                    .toArray(FieldType[]::new);
+            fieldNames = fields.stream().map(namingStrategy::getFieldName).toArray(String[]::new);
+            stringFields = new boolean[fields.size()];
+            for (int i = 0; i < stringFields.length; i++) {
+                stringFields[i] = fields.get(i).getType().isAssignableFrom(String.class);
             }
+            tagMembers = toAccessors(tags);
+            tagNames = tags.stream().map(namingStrategy::getTagName).toArray(String[]::new);
+            constructor = findConstructor(type);
+        }
+
+        private static MemberAccessor[] toAccessors(List<java.lang.reflect.Field> members) {
+            return members.stream().map(MemberAccessor::new).toArray(MemberAccessor[]::new);
+        }
 
-            field.setAccessible(true);
+        private static Constructor<?> findConstructor(Class<?> type) {
             try {
-                field.set(targetInstance, value);
-            } catch (IllegalArgumentException e) {
-                throw new InvalidAnnotatedType(field, value.getClass());
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * How the value of an annotated field is read and written.
+     */
+    private enum FieldType {
+
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        OBJECT;
+
+        static FieldType of(Class<?> type) {
+            if (type == long.class || type == int.class || type == short.class
+                    || type == byte.class) {
+                return LONG;
+            }
+            else if (type == double.class) {
+                return DOUBLE;
+            }
+            else if (type == boolean.class) {
+                return BOOLEAN;
+            }
+            else {
+                // Floats are boxed to keep their shorter string representation.
+                return OBJECT;
             }
-        } catch (IllegalAccessException e) {
-            throw new AnnotationProcessingException("Could not set field value", e);
-        } finally {
-            field.setAccessible(false);
         }
     }
 }
@@ -0,0 +1,679 @@
+package com.github.nickrm.jflux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.nickrm.jflux.api.JFluxHttpClient;
+import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.exception.BatchWriteException;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers points and writes them to InfluxDB in batches, on a background thread.
+ * <p>
+ * Points are buffered separately for each combination of database and retention policy. A buffer
+ * is flushed as soon as it reaches the configured number of points or size in bytes, or once the
+ * configured linger time has passed since the first point was added to it, whichever comes first.
+ * <p>
+ * At most the configured number of full batches wait to be written at any time. Once that many are
+ * pending, e.g. because InfluxDB is slow to respond, adding points blocks until a batch has been
+ * written, so that a stalled server cannot exhaust the memory of the application.
+ * <p>
+ * Since points are written asynchronously, this class does not check whether the target database
+ * or retention policy exists. A batch which cannot be written is discarded, and reported to the
+ * configured failure handler as a {@link BatchWriteException}, which by default logs it. The first
+ * such failure since the last flush is also thrown by the next call to {@link #flush()} or
+ * {@link #close()}. Instances of this class are thread safe and should be closed when no longer
+ * needed, so that any buffered points are written.
+ *
+ * @see JFluxClient#batchingWriter()
+ * @since 1.1.0
+ */
+public final class BatchingWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingWriter.class);
+
+    private static final int DEFAULT_MAX_POINTS = 5000;
+    private static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+    private static final Duration DEFAULT_LINGER_TIME = Duration.ofSeconds(1);
+    private static final int DEFAULT_MAX_PENDING_BATCHES = 10;
+
+    private final JFluxHttpClient httpClient;
+    private final LineProtocolConverter lineProtocolConverter;
+    private final ApiCaller apiCaller;
+    private final int maxPoints;
+    private final long maxBytes;
+    private final Duration lingerTime;
+    private final Precision precision;
+    private final Consumer<? super BatchWriteException> failureHandler;
+
+    /**
+     * The writers of the client that created this writer which have not been closed yet, which
+     * this writer belongs to until it is closed.
+     */
+    private final Set<BatchingWriter> openWriters;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Permits for the full batches handed to the background thread but not yet written.
+     */
+    private final Semaphore pendingBatches;
+
+    /**
+     * The batches currently being filled, guarded by this instance's monitor.
+     */
+    private final Map<BatchKey, Batch> batches;
+
+    /**
+     * The number of threads handing batches to the background thread, which must finish before it
+     * can be shut down. Guarded by this instance's monitor.
+     */
+    private int dispatchingThreads;
+
+    /**
+     * The first failure since the last flush, guarded by this instance's monitor.
+     */
+    private BatchWriteException failure;
+
+    private boolean closed;
+
+    /**
+     * Instances of this class can only be created using {@link Builder}.
+     *
+     * @param builder the builder used to construct this instance
+     *
+     * @throws IllegalStateException if any of the values set in the builder are illegal
+     */
+    private BatchingWriter(Builder builder) {
+        if (builder.maxPoints < 1) {
+            throw new IllegalStateException("Max points must be positive");
+        }
+
+        if (builder.maxBytes < 1) {
+            throw new IllegalStateException("Max bytes must be positive");
+        }
+
+        if (builder.lingerTime == null || builder.lingerTime.isNegative()) {
+            throw new IllegalStateException("Linger time cannot be null or negative");
+        }
+
+        if (builder.precision == null) {
+            throw new IllegalStateException("Precision cannot be null");
+        }
+
+        if (builder.maxPendingBatches < 1) {
+            throw new IllegalStateException("Max pending batches must be positive");
+        }
+
+        if (builder.failureHandler == null) {
+            throw new IllegalStateException("Failure handler cannot be null");
+        }
+
+        httpClient = builder.httpClient;
+        lineProtocolConverter = builder.lineProtocolConverter;
+        apiCaller = new ApiCaller();
+        maxPoints = builder.maxPoints;
+        maxBytes = builder.maxBytes;
+        lingerTime = builder.lingerTime;
+        precision = builder.precision;
+        failureHandler = builder.failureHandler;
+        pendingBatches = new Semaphore(builder.maxPendingBatches);
+        batches = new HashMap<>();
+
+        ScheduledThreadPoolExecutor threadPoolExecutor = new ScheduledThreadPoolExecutor(1,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "jflux-batching-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        threadPoolExecutor.setRemoveOnCancelPolicy(true);
+        executor = threadPoolExecutor;
+
+        openWriters = builder.openWriters;
+        openWriters.add(this);
+    }
+
+    /**
+     * Buffers a point for writing into the default retention policy of the specified database.
+     *
+     * @param databaseName    the database to write to, not {@code null}
+     * @param measurementName the measurement to write to, not {@code null}
+     * @param point           the point to write, not {@code null}
+     *
+     * @throws IllegalArgumentException if any of the arguments is {@code null}
+     * @throws IllegalStateException    if this writer has been closed
+     */
+    public void writePoint(String databaseName, String measurementName, Point point) {
+        writePoints(databaseName, measurementName, Collections.singleton(point));
+    }
+
+    /**
+     * Buffers a point for writing into the specified retention policy.
+     *
+     * @param databaseName        the database to write to, not {@code null}
+     * @param measurementName     the measurement to write to, not {@code null}
+     * @param point               the point to write, not {@code null}
+     * @param retentionPolicyName the retention policy to write to, not {@code null}
+     *
+     * @throws IllegalArgumentException if any of the arguments is {@code null}
+     * @throws IllegalStateException    if this writer has been closed
+     */
+    public void writePoint(String databaseName, String measurementName, Point point,
+            String retentionPolicyName) {
+        writePoints(databaseName, measurementName, Collections.singleton(point),
+                retentionPolicyName);
+    }
+
+    /**
+     * Buffers points for writing into the default retention policy of the specified database.
+     *
+     * @param databaseName    the database to write to, not {@code null}
+     * @param measurementName the measurement to write to, not {@code null}
+     * @param points          the points to write, not {@code null}
+     *
+     * @throws IllegalArgumentException if any of the arguments is {@code null}
+     * @throws IllegalStateException    if this writer has been closed
+     */
+    public void writePoints(String databaseName, String measurementName,
+            Collection<Point> points) {
+        if (databaseName == null) {
+            throw new IllegalArgumentException("Database name cannot be null");
+        }
+
+        add(new BatchKey(databaseName, null), measurementName, points);
+    }
+
+    /**
+     * Buffers points for writing into the specified retention policy.
+     *
+     * @param databaseName        the database to write to, not {@code null}
+     * @param measurementName     the measurement to write to, not {@code null}
+     * @param points              the points to write, not {@code null}
+     * @param retentionPolicyName the retention policy to write to, not {@code null}
+     *
+     * @throws IllegalArgumentException if any of the arguments is {@code null}
+     * @throws IllegalStateException    if this writer has been closed
+     */
+    public void writePoints(String databaseName, String measurementName, Collection<Point> points,
+            String retentionPolicyName) {
+        if (databaseName == null) {
+            throw new IllegalArgumentException("Database name cannot be null");
+        }
+
+        if (retentionPolicyName == null) {
+            throw new IllegalArgumentException("Retention policy name cannot be null");
+        }
+
+        add(new BatchKey(databaseName, retentionPolicyName), measurementName, points);
+    }
+
+    /**
+     * Writes all currently buffered points and waits until they have been written.
+     * <p>
+     * This method has no effect if this writer has been closed.
+     *
+     * @throws BatchWriteException if any batch could not be written since the last flush
+     */
+    public void flush() {
+        List<Batch> fullBatches;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            fullBatches = removeAll();
+            dispatchingThreads++;
+        }
+
+        Future<?> flushed;
+        try {
+            fullBatches.forEach(this::dispatch);
+            flushed = executor.submit(() -> {
+            });
+        } finally {
+            dispatchFinished();
+        }
+        awaitQuietly(flushed);
+        throwFailure();
+    }
+
+    /**
+     * Writes all currently buffered points and stops the background thread.
+     * <p>
+     * This method blocks until all buffered points have been written. Calling this method more than
+     * once has no effect.
+     *
+     * @throws BatchWriteException if any batch could not be written since the last flush
+     */
+    @Override
+    public void close() {
+        List<Batch> fullBatches;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            fullBatches = removeAll();
+
+            // Let threads blocked on pending batches hand theirs over before shutting down.
+            boolean interrupted = false;
+            while (dispatchingThreads > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        fullBatches.forEach(this::dispatch);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        openWriters.remove(this);
+        throwFailure();
+    }
+
+    private void add(BatchKey key, String measurementName, Collection<Point> points) {
+        if (measurementName == null) {
+            throw new IllegalArgumentException("Measurement name cannot be null");
+        }
+
+        if (points == null) {
+            throw new IllegalArgumentException("Points cannot be null");
+        }
+
+        // Points are converted one by one, so that batches can be split between any two points.
+        List<Buffer> lines = new ArrayList<>(points.size());
+        for (Point point : points) {
+            if (point == null) {
+                throw new IllegalArgumentException("Point cannot be null");
+            }
+
+            Buffer line = new Buffer();
+            try {
+                lineProtocolConverter.writeLine(measurementName, point, precision, line);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write to buffer", e);
+            }
+            lines.add(line);
+        }
+
+        List<Batch> fullBatches = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Batching writer has been closed");
+            }
+
+            for (Buffer line : lines) {
+                Batch batch = batches.computeIfAbsent(key, Batch::new);
+                batch.add(line);
+                if (batch.points >= maxPoints || batch.lineProtocol.size() >= maxBytes) {
+                    fullBatches.add(remove(batch));
+                }
+                else if (batch.lingerTask == null) {
+                    batch.lingerTask = executor.schedule(() -> flushLingering(batch),
+                            lingerTime.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+
+            if (fullBatches.isEmpty()) {
+                return;
+            }
+            dispatchingThreads++;
+        }
+
+        // Hand over the batches without holding the monitor, since this can block.
+        try {
+            fullBatches.forEach(this::dispatch);
+        } finally {
+            dispatchFinished();
+        }
+    }
+
+    /**
+     * Writes the specified batch, unless it has already been written in the meantime.
+     * <p>
+     * This is called from the background thread once the linger time of a batch has passed.
+     *
+     * @param batch the batch to write
+     */
+    private void flushLingering(Batch batch) {
+        synchronized (this) {
+            if (!batches.remove(batch.key, batch)) {
+                return;
+            }
+        }
+        send(batch);
+    }
+
+    /**
+     * Removes all batches being filled, must hold this instance's monitor.
+     */
+    private List<Batch> removeAll() {
+        List<Batch> removed = new ArrayList<>(batches.size());
+        new ArrayList<>(batches.values()).forEach(batch -> removed.add(remove(batch)));
+        return removed;
+    }
+
+    /**
+     * Removes a batch being filled, must hold this instance's monitor.
+     */
+    private Batch remove(Batch batch) {
+        batches.remove(batch.key, batch);
+        if (batch.lingerTask != null) {
+            batch.lingerTask.cancel(false);
+        }
+        return batch;
+    }
+
+    /**
+     * Schedules a removed batch for writing, blocking while the maximum number of batches are
+     * pending. Must not hold this instance's monitor, so that the background thread can proceed.
+     *
+     * @param batch the batch to write
+     */
+    private void dispatch(Batch batch) {
+        pendingBatches.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    send(batch);
+                } finally {
+                    pendingBatches.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingBatches.release();
+            fail(batch, e);
+        }
+    }
+
+    private synchronized void dispatchFinished() {
+        dispatchingThreads--;
+        notifyAll();
+    }
+
+    private void send(Batch batch) {
+        RequestBody requestBody = LineProtocolRequestBody.fromBuffer(batch.lineProtocol);
+        BatchKey key = batch.key;
+        try {
+            if (key.retentionPolicyName == null) {
+                apiCaller.callApi(() -> httpClient.write(key.databaseName, requestBody,
+                        precision));
+            }
+            else {
+                apiCaller.callApi(() -> httpClient.write(key.databaseName,
+                        key.retentionPolicyName, requestBody, precision));
+            }
+            LOGGER.debug("Wrote {} points to {}", batch.points, key);
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    /**
+     * Reports a batch which could not be written to the failure handler, and keeps the failure to
+     * be thrown by the next flush if it is the first one since the last flush.
+     */
+    private void fail(Batch batch, Exception cause) {
+        BatchWriteException exception = new BatchWriteException(batch.key.databaseName,
+                batch.key.retentionPolicyName, batch.points, cause);
+        synchronized (this) {
+            if (failure == null) {
+                failure = exception;
+            }
+        }
+
+        try {
+            failureHandler.accept(exception);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failure handler threw exception", e);
+        }
+    }
+
+    private void throwFailure() {
+        BatchWriteException exception;
+        synchronized (this) {
+            exception = failure;
+            failure = null;
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void awaitQuietly(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.error("Could not flush batches", e.getCause());
+        }
+    }
+
+    /**
+     * Identifies the destination of a batch.
+     */
+    private static final class BatchKey {
+
+        private final String databaseName;
+
+        /**
+         * The retention policy to write to, or {@code null} for the default one.
+         */
+        private final String retentionPolicyName;
+
+        private BatchKey(String databaseName, String retentionPolicyName) {
+            this.databaseName = databaseName;
+            this.retentionPolicyName = retentionPolicyName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey batchKey = (BatchKey) o;
+            return databaseName.equals(batchKey.databaseName) && Objects.equals(
+                    retentionPolicyName, batchKey.retentionPolicyName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(databaseName, retentionPolicyName);
+        }
+
+        @Override
+        public String toString() {
+            return retentionPolicyName == null ?
+                    '\'' + databaseName + '\'' :
+                    '\'' + databaseName + "'.'" + retentionPolicyName + '\'';
+        }
+    }
+
+    /**
+     * The line protocol buffered for a single destination.
+     */
+    private static final class Batch {
+
+        private final BatchKey key;
+        private final Buffer lineProtocol = new Buffer();
+        private int points;
+        private ScheduledFuture<?> lingerTask;
+
+        private Batch(BatchKey key) {
+            this.key = key;
+        }
+
+        private void add(Buffer line) {
+            lineProtocol.write(line, line.size());
+            points++;
+        }
+    }
+
+    /**
+     * Used to create instances of {@link BatchingWriter}.
+     *
+     * @see JFluxClient#batchingWriter()
+     */
+    public static final class Builder {
+
+        private final JFluxHttpClient httpClient;
+        private final LineProtocolConverter lineProtocolConverter;
+        private final Set<BatchingWriter> openWriters;
+
+        private int maxPoints = DEFAULT_MAX_POINTS;
+        private long maxBytes = DEFAULT_MAX_BYTES;
+        private Duration lingerTime = DEFAULT_LINGER_TIME;
+        private Precision precision = Precision.MILLISECONDS;
+        private int maxPendingBatches = DEFAULT_MAX_PENDING_BATCHES;
+        private Consumer<? super BatchWriteException> failureHandler =
+                exception -> LOGGER.error(exception.getMessage(), exception.getCause());
+
+        /**
+         * Initializes a new builder setting the dependencies of the writer.
+         *
+         * @param httpClient            used to write the batches
+         * @param lineProtocolConverter used to convert the points to line protocol
+         * @param openWriters           the open writers of the client, which the writer is added
+         *                              to until it is closed
+         */
+        Builder(JFluxHttpClient httpClient, LineProtocolConverter lineProtocolConverter,
+                Set<BatchingWriter> openWriters) {
+            this.httpClient = httpClient;
+            this.lineProtocolConverter = lineProtocolConverter;
+            this.openWriters = openWriters;
+        }
+
+        /**
+         * Sets the number of points after which a batch is written.
+         * <p>
+         * If not set, this value defaults to 5000.
+         *
+         * @param maxPoints the maximum number of points in a batch, must be positive
+         *
+         * @return this builder
+         */
+        public Builder maxPoints(int maxPoints) {
+            this.maxPoints = maxPoints;
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes after which a batch is written.
+         * <p>
+         * If not set, this value defaults to 1 MiB.
+         *
+         * @param maxBytes the maximum size of a batch, must be positive
+         *
+         * @return this builder
+         */
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Sets how long points can be buffered before being written, regardless of the size of the
+         * batch they are in.
+         * <p>
+         * If not set, this value defaults to one second.
+         *
+         * @param lingerTime the maximum time points are buffered, must not be {@code null} or
+         *                   negative
+         *
+         * @return this builder
+         */
+        public Builder lingerTime(Duration lingerTime) {
+            this.lingerTime = lingerTime;
+            return this;
+        }
+
+        /**
+         * Sets the precision that the timestamps of points are written in.
+         * <p>
+         * If not set, this value defaults to the precision of the client that created this
+         * builder.
+         *
+         * @param precision the timestamp precision, not {@code null}
+         *
+         * @return this builder
+         */
+        public Builder precision(Precision precision) {
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Sets how many full batches can wait to be written before adding points blocks.
+         * <p>
+         * If not set, this value defaults to 10.
+         *
+         * @param maxPendingBatches the maximum number of pending batches, must be positive
+         *
+         * @return this builder
+         */
+        public Builder maxPendingBatches(int maxPendingBatches) {
+            this.maxPendingBatches = maxPendingBatches;
+            return this;
+        }
+
+        /**
+         * Sets the handler notified of every batch which could not be written.
+         * <p>
+         * The handler is called on the background thread, so it should return quickly. If not set,
+         * failures are logged.
+         *
+         * @param failureHandler the failure handler, not {@code null}
+         *
+         * @return this builder
+         */
+        public Builder failureHandler(Consumer<? super BatchWriteException> failureHandler) {
+            this.failureHandler = failureHandler;
+            return this;
+        }
+
+        /**
+         * Creates a new {@link BatchingWriter} using the values in this builder.
+         *
+         * @return the new writer instance
+         *
+         * @throws IllegalStateException if any of the values set in this builder are illegal
+         */
+        public BatchingWriter build() {
+            return new BatchingWriter(this);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.nickrm.jflux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import okhttp3.RequestBody;
+
+/**
+ * Converts collections of objects into request bodies, and writes the bodies, either on the
+ * calling thread or split into chunks on an executor.
+ * <p>
+ * Collections smaller than the parallel conversion threshold, and all collections if no executor
+ * is set, are converted on the calling thread. Larger collections are split into as many chunks as
+ * the configured parallelism, which are converted on the executor. If concurrent writes are
+ * enabled the request bodies are also written on the executor, otherwise they are written on the
+ * calling thread in order.
+ */
+final class ConversionExecutor implements AutoCloseable {
+
+    private final Executor executor;
+    private final int parallelism;
+    private final int parallelThreshold;
+    private final boolean concurrentWrites;
+    private final boolean ownsExecutor;
+
+    /**
+     * Initializes a new instance which converts and writes everything on the calling thread.
+     */
+    ConversionExecutor() {
+        this(null, 1, Integer.MAX_VALUE, false, false);
+    }
+
+    private ConversionExecutor(Executor executor, int parallelism, int parallelThreshold,
+            boolean concurrentWrites, boolean ownsExecutor) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.parallelThreshold = parallelThreshold;
+        this.concurrentWrites = concurrentWrites;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Creates an instance which runs on the specified executor. The executor is not shut down when
+     * the instance is closed.
+     *
+     * @param executor          the executor to convert and write on
+     * @param parallelism       the number of chunks to split large collections into
+     * @param parallelThreshold the minimum size of collections to convert on the executor
+     * @param concurrentWrites  whether to write request bodies on the executor
+     *
+     * @return the new instance
+     */
+    static ConversionExecutor using(Executor executor, int parallelism, int parallelThreshold,
+            boolean concurrentWrites) {
+        return new ConversionExecutor(executor, parallelism, parallelThreshold, concurrentWrites,
+                false);
+    }
+
+    /**
+     * Creates an instance which runs on its own pool of daemon threads, which is shut down when the
+     * instance is closed.
+     *
+     * @param parallelism       the number of threads, and of chunks to split large collections
+     *                          into
+     * @param parallelThreshold the minimum size of collections to convert on the threads
+     * @param concurrentWrites  whether to write request bodies on the threads
+     *
+     * @return the new instance
+     */
+    static ConversionExecutor withThreads(int parallelism, int parallelThreshold,
+            boolean concurrentWrites) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread =
+                    new Thread(runnable, "jflux-conversion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new ConversionExecutor(executor, parallelism, parallelThreshold, concurrentWrites,
+                true);
+    }
+
+    /**
+     * Converts the specified objects into request bodies.
+     * <p>
+     * When the objects are split into chunks, each chunk is converted separately, so it results in
+     * bodies of its own. The bodies are returned in the order of the chunks.
+     *
+     * @param objects   the objects to convert
+     * @param converter converts a collection of objects into request bodies
+     * @param <T>       the type of the objects
+     *
+     * @return the request bodies of all objects
+     */
+    <T> List<RequestBody> convert(Collection<T> objects,
+            Function<Collection<T>, List<RequestBody>> converter) {
+        if (executor == null || objects.size() < parallelThreshold || parallelism < 2) {
+            return converter.apply(objects);
+        }
+
+        List<CompletableFuture<List<RequestBody>>> futures = new ArrayList<>();
+        for (List<T> chunk : split(objects)) {
+            futures.add(CompletableFuture.supplyAsync(() -> converter.apply(chunk), executor));
+        }
+
+        List<RequestBody> requestBodies = new ArrayList<>();
+        for (CompletableFuture<List<RequestBody>> future : futures) {
+            requestBodies.addAll(join(future));
+        }
+        return requestBodies;
+    }
+
+    private <T> List<List<T>> split(Collection<T> objects) {
+        List<T> list = objects instanceof List ? (List<T>) objects : new ArrayList<>(objects);
+        int chunkSize = (list.size() + parallelism - 1) / parallelism;
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < list.size(); start += chunkSize) {
+            chunks.add(list.subList(start, Math.min(start + chunkSize, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Writes the specified request bodies, returning once all of them have been written.
+     * <p>
+     * If bodies are written concurrently and any of them fails, the remaining ones are still
+     * written before the failure is rethrown.
+     *
+     * @param requestBodies the bodies to write
+     * @param writer        writes a single body
+     */
+    void write(List<RequestBody> requestBodies, Consumer<RequestBody> writer) {
+        if (executor == null || !concurrentWrites || requestBodies.size() < 2) {
+            requestBodies.forEach(writer);
+            return;
+        }
+
+        join(CompletableFuture.allOf(requestBodies.stream()
+                .map(requestBody -> CompletableFuture.runAsync(
+                        () -> writer.accept(requestBody), executor))
+                .toArray(CompletableFuture[]::new)));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the exception of the task, as if it had run on the calling thread.
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Shuts down the executor if it was created by this instance.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
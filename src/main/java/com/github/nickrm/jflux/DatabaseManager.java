@@ -1,6 +1,8 @@
 package com.github.nickrm.jflux;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.github.nickrm.jflux.api.JFluxHttpClient;
@@ -11,6 +13,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Handles database management functionality.
+ * <p>
+ * The existing databases can optionally be cached, in which case the cache is discarded whenever a
+ * database is created or dropped through this instance.
  */
 final class DatabaseManager {
 
@@ -18,12 +23,35 @@ final class DatabaseManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseManager.class);
 
+    private static final String DATABASES_KEY = "databases";
+
     private final JFluxHttpClient httpClient;
     private final ApiCaller apiCaller;
+    private final MetadataCache<String, List<String>> databaseCache;
 
+    /**
+     * Initializes a new instance which queries the existing databases every time.
+     *
+     * @param httpClient the InfluxDB HTTP API client
+     */
     DatabaseManager(JFluxHttpClient httpClient) {
+        this(httpClient, Duration.ZERO);
+    }
+
+    /**
+     * Initializes a new instance which caches the existing databases for the specified time.
+     * <p>
+     * Databases which are not found in the cache are looked up again, so that databases created
+     * by other clients are found regardless of the cache, while databases dropped by other clients
+     * may still be reported as existing until the cache expires.
+     *
+     * @param httpClient the InfluxDB HTTP API client
+     * @param cacheTtl   how long to cache the existing databases for
+     */
+    DatabaseManager(JFluxHttpClient httpClient, Duration cacheTtl) {
         this.httpClient = httpClient;
         apiCaller = new ApiCaller();
+        databaseCache = new MetadataCache<>(cacheTtl);
     }
 
     /**
@@ -32,13 +60,8 @@ final class DatabaseManager {
      * @return the existing databases, should always contain at least the internal one
      */
     List<String> getDatabases() {
-        Measurement queryResult = apiCaller.callApi(() -> httpClient.query("SHOW DATABASES"));
-        List<String> databases = new ArrayList<>();
-        for (Point point : queryResult.getPoints()) {
-            databases.addAll(point.getTags().values());
-        }
-        LOGGER.debug("Found databases: {}", databases);
-        return databases;
+        List<String> databases = databaseCache.getIfPresent(DATABASES_KEY);
+        return new ArrayList<>(databases != null ? databases : queryDatabases());
     }
 
     /**
@@ -54,7 +77,30 @@ final class DatabaseManager {
         if (databaseName == null) {
             throw new IllegalArgumentException("Database name cannot be null");
         }
-        return getDatabases().contains(databaseName);
+
+        List<String> databases = databaseCache.getIfPresent(DATABASES_KEY);
+        if (databases != null && databases.contains(databaseName)) {
+            return true;
+        }
+        return queryDatabases().contains(databaseName);
+    }
+
+    /**
+     * Discards the cached databases, so that they are queried again on the next lookup.
+     */
+    void invalidateCache() {
+        databaseCache.invalidateAll();
+    }
+
+    private List<String> queryDatabases() {
+        Measurement queryResult =
+                apiCaller.callApi(() -> httpClient.queryMetadata("SHOW DATABASES"));
+        List<String> databases = new ArrayList<>();
+        for (Point point : queryResult.getPoints()) {
+            databases.addAll(point.getTags().values());
+        }
+        LOGGER.debug("Found databases: {}", databases);
+        return databaseCache.put(DATABASES_KEY, Collections.unmodifiableList(databases));
     }
 
     /**
@@ -69,7 +115,12 @@ final class DatabaseManager {
             throw new IllegalArgumentException("Database name cannot be null");
         }
 
-        apiCaller.callApi(() -> httpClient.execute("CREATE DATABASE \"" + databaseName + "\""));
+        try {
+            apiCaller.callApi(
+                    () -> httpClient.execute("CREATE DATABASE \"" + databaseName + "\""));
+        } finally {
+            invalidateCache();
+        }
         LOGGER.info("Created database '{}'", databaseName);
     }
 
@@ -90,7 +141,12 @@ final class DatabaseManager {
             throw new IllegalArgumentException("Cannot drop internal database");
         }
 
-        apiCaller.callApi(() -> httpClient.execute("DROP DATABASE \"" + databaseName + "\""));
+        try {
+            apiCaller.callApi(
+                    () -> httpClient.execute("DROP DATABASE \"" + databaseName + "\""));
+        } finally {
+            invalidateCache();
+        }
         LOGGER.info("Dropped database '{}'", databaseName);
     }
 }
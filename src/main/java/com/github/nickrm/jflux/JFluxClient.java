@@ -1,25 +1,46 @@
 package com.github.nickrm.jflux;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.github.nickrm.jflux.annotation.Field;
 import com.github.nickrm.jflux.annotation.Tag;
 import com.github.nickrm.jflux.annotation.Timestamp;
 import com.github.nickrm.jflux.annotation.exception.AnnotationProcessingException;
 import com.github.nickrm.jflux.api.JFluxHttpClient;
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
 import com.github.nickrm.jflux.api.response.ResponseMetadata;
 import com.github.nickrm.jflux.domain.Measurement;
 import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.PointBatch;
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.domain.ResponseFormat;
 import com.github.nickrm.jflux.domain.RetentionPolicy;
+import com.github.nickrm.jflux.exception.BatchWriteException;
 import com.github.nickrm.jflux.exception.DatabaseAlreadyExistsException;
 import com.github.nickrm.jflux.exception.NoDatabaseSelectedException;
 import com.github.nickrm.jflux.exception.RetentionPolicyAlreadyExistsException;
 import com.github.nickrm.jflux.exception.UnknownDatabaseException;
 import com.github.nickrm.jflux.exception.UnknownRetentionPolicyException;
+import okhttp3.RequestBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,13 +56,16 @@ public final class JFluxClient implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JFluxClient.class);
 
+    private static final String DATABASE_NOT_FOUND_ERROR = "database not found";
+    private static final String RETENTION_POLICY_NOT_FOUND_ERROR = "retention policy not found";
+
     private final JFluxHttpClient httpClient;
     private final DatabaseManager databaseManager;
     private final RetentionPolicyManager retentionPolicyManager;
     private final ApiCaller apiCaller;
     private final LineProtocolConverter lineProtocolConverter;
-    private final NamingStrategy namingStrategy;
     private final AnnotationBasedPointConverter annotationBasedPointConverter;
+    private final Set<BatchingWriter> batchingWriters = ConcurrentHashMap.newKeySet();
 
     /**
      * The database to be used when calling methods without specifying the database. This needs to
@@ -49,6 +73,16 @@ public final class JFluxClient implements AutoCloseable {
      */
     private String currentDatabase;
 
+    /**
+     * The maximum number of bytes in the body of a single write request. Points written in a single
+     * call are sent in as few requests as this limit allows.
+     */
+    private int maxWriteBodySize = Integer.MAX_VALUE;
+    private Precision precision = Precision.MILLISECONDS;
+    private ConversionExecutor conversionExecutor = new ConversionExecutor();
+    private boolean optimisticWrites;
+    private int queryChunkSize = Builder.DEFAULT_QUERY_CHUNK_SIZE;
+
     /**
      * Initializes a new instance, setting the required dependencies.
      *
@@ -76,8 +110,7 @@ public final class JFluxClient implements AutoCloseable {
 
         apiCaller = new ApiCaller();
         lineProtocolConverter = new LineProtocolConverter();
-        namingStrategy = new NamingStrategy();
-        annotationBasedPointConverter = new AnnotationBasedPointConverter(namingStrategy);
+        annotationBasedPointConverter = new AnnotationBasedPointConverter(new NamingStrategy());
     }
 
     /**
@@ -115,6 +148,7 @@ public final class JFluxClient implements AutoCloseable {
             throw new DatabaseAlreadyExistsException(databaseName);
         }
         databaseManager.createDatabase(databaseName);
+        retentionPolicyManager.invalidateCache(databaseName);
     }
 
     /**
@@ -131,6 +165,22 @@ public final class JFluxClient implements AutoCloseable {
             throw new UnknownDatabaseException(databaseName);
         }
         databaseManager.dropDatabase(databaseName);
+        retentionPolicyManager.invalidateCache(databaseName);
+    }
+
+    /**
+     * Discards any cached databases and retention policies, so that they are queried from InfluxDB
+     * on their next lookup.
+     * <p>
+     * Changes made through this client are taken into account automatically, so this is only
+     * needed to see databases or retention policies dropped or altered by other clients before the
+     * {@link Builder#metadataCacheTtl(Duration) cache} expires.
+     *
+     * @since 1.1.0
+     */
+    public void refreshMetadata() {
+        databaseManager.invalidateCache();
+        retentionPolicyManager.invalidateCache();
     }
 
     /**
@@ -441,12 +491,17 @@ public final class JFluxClient implements AutoCloseable {
     /**
      * Writes the specified data to the specified database, using the default retention policy.
      * <p>
-     * The data object must be annotated in order to be converted to points and written to InfluxDB.
+     * The data objects must be annotated in order to be written to InfluxDB. They are encoded
+     * straight into line protocol, without being converted to {@link Point Points} first. Objects
+     * of different classes can be written together, each to the measurement of its class, and are
+     * sent in the same requests.
      *
      * @param databaseName the database to write to, not {@code null}
      * @param data         the data to write
      *
      * @throws AnnotationProcessingException if the data objects are not correctly annotated
+     * @throws IllegalArgumentException      if a floating point field of an object is NaN or
+     *                                       infinite, in which case nothing is written
      * @throws UnknownDatabaseException      if the database does not exist
      * @see #writePoints(String, String, Collection)
      */
@@ -455,12 +510,10 @@ public final class JFluxClient implements AutoCloseable {
             return;
         }
 
-        Class<?> dataClass = data.iterator().next().getClass();
-        String measurementName = namingStrategy.getMeasurementName(dataClass);
-        List<Point> points = data.parallelStream()
-                .map(annotationBasedPointConverter::toPoint)
-                .collect(Collectors.toList());
-        writePoints(databaseName, measurementName, points);
+        assertWriteTargetExists(databaseName, null);
+
+        conversionExecutor.write(toRequestBodies(data),
+                requestBody -> sendWrite(databaseName, null, requestBody, precision));
     }
 
     /**
@@ -520,7 +573,10 @@ public final class JFluxClient implements AutoCloseable {
     /**
      * Writes the specified data to the specified database, using the specified retention policy.
      * <p>
-     * The data object must be annotated in order to be converted to points and written to InfluxDB.
+     * The data objects must be annotated in order to be written to InfluxDB. They are encoded
+     * straight into line protocol, without being converted to {@link Point Points} first. Objects
+     * of different classes can be written together, each to the measurement of its class, and are
+     * sent in the same requests.
      *
      * @param databaseName        the database to write to, not {@code null}
      * @param data                the data to write
@@ -528,7 +584,9 @@ public final class JFluxClient implements AutoCloseable {
      *
      * @throws AnnotationProcessingException if the data objects are not correctly annotated
      * @throws UnknownDatabaseException      if the database does not exist
-     * @throws IllegalArgumentException      if the retention policy does not exist
+     * @throws IllegalArgumentException      if the retention policy does not exist, or a floating
+     *                                       point field of an object is NaN or infinite, in which
+     *                                       case nothing is written
      * @see #writePoints(String, String, Collection, String)
      */
     public void write(String databaseName, Collection<?> data, String retentionPolicyName) {
@@ -536,12 +594,10 @@ public final class JFluxClient implements AutoCloseable {
             return;
         }
 
-        Class<?> dataClass = data.iterator().next().getClass();
-        String measurementName = namingStrategy.getMeasurementName(dataClass);
-        List<Point> points = data.parallelStream()
-                .map(annotationBasedPointConverter::toPoint)
-                .collect(Collectors.toList());
-        writePoints(databaseName, measurementName, points, retentionPolicyName);
+        assertWriteTargetExists(databaseName, retentionPolicyName);
+
+        conversionExecutor.write(toRequestBodies(data), requestBody -> sendWrite(databaseName,
+                retentionPolicyName, requestBody, precision));
     }
 
     /**
@@ -631,6 +687,31 @@ public final class JFluxClient implements AutoCloseable {
      * @throws UnknownDatabaseException if the database does not exist
      */
     public void writePoints(String databaseName, String measurementName, Collection<Point> points) {
+        writePoints(databaseName, measurementName, points, precision);
+    }
+
+    /**
+     * Writes the specified points to InfluxDB with timestamps of the specified precision, using
+     * the default retention policy.
+     * <p>
+     * Timestamps are truncated to the precision, e.g. a timestamp of 1.5 seconds is written as 1
+     * second with a precision of {@link Precision#SECONDS}.
+     *
+     * @param databaseName    the database to write to, not {@code null}
+     * @param measurementName the measurement to write to, not {@code null}
+     * @param points          the points to write
+     * @param precision       the precision to write timestamps in, not {@code null}
+     *
+     * @throws IllegalArgumentException if any of the arguments is {@code null}
+     * @throws UnknownDatabaseException if the database does not exist
+     * @since 1.1.0
+     */
+    public void writePoints(String databaseName, String measurementName, Collection<Point> points,
+            Precision precision) {
+        if (precision == null) {
+            throw new IllegalArgumentException("Precision cannot be null");
+        }
+
         if (databaseName == null) {
             throw new IllegalArgumentException("Database name cannot be null");
         }
@@ -639,13 +720,10 @@ public final class JFluxClient implements AutoCloseable {
             throw new IllegalArgumentException("Measurement name cannot be null");
         }
 
-        if (!databaseExists(databaseName)) {
-            throw new UnknownDatabaseException(databaseName);
-        }
+        assertWriteTargetExists(databaseName, null);
 
-        lineProtocolConverter.toLineProtocol(measurementName, points)
-                .forEach(lineProtocol -> apiCaller.callApi(
-                        () -> httpClient.write(databaseName, lineProtocol)));
+        lineProtocolConverter.toRequestBodies(measurementName, points, maxWriteBodySize, precision)
+                .forEach(requestBody -> sendWrite(databaseName, null, requestBody, precision));
     }
 
     /**
@@ -681,17 +759,149 @@ public final class JFluxClient implements AutoCloseable {
      */
     public void writePoints(String databaseName, String measurementName, Collection<Point> points,
             String retentionPolicyName) {
-        if (!databaseExists(databaseName)) {
-            throw new UnknownDatabaseException(databaseName);
+        writePoints(databaseName, measurementName, points, retentionPolicyName, precision);
+    }
+
+    /**
+     * Writes the specified points to InfluxDB with timestamps of the specified precision.
+     * <p>
+     * Timestamps are truncated to the precision, e.g. a timestamp of 1.5 seconds is written as 1
+     * second with a precision of {@link Precision#SECONDS}.
+     *
+     * @param databaseName        the database to write to, not {@code null}
+     * @param measurementName     the measurement to write to, not {@code null}
+     * @param points              the points to write
+     * @param retentionPolicyName the retention policy to write to, not {@code null}
+     * @param precision           the precision to write timestamps in, not {@code null}
+     *
+     * @throws IllegalArgumentException        if the precision is {@code null}
+     * @throws UnknownDatabaseException        if the database does not exist
+     * @throws UnknownRetentionPolicyException if the retention policy does not exist
+     * @since 1.1.0
+     */
+    public void writePoints(String databaseName, String measurementName, Collection<Point> points,
+            String retentionPolicyName, Precision precision) {
+        if (precision == null) {
+            throw new IllegalArgumentException("Precision cannot be null");
         }
 
-        if (!retentionPolicyExists(retentionPolicyName, databaseName)) {
-            throw new UnknownRetentionPolicyException(retentionPolicyName, databaseName);
+        assertWriteTargetExists(databaseName, retentionPolicyName);
+
+        lineProtocolConverter.toRequestBodies(measurementName, points, maxWriteBodySize, precision)
+                .forEach(requestBody -> sendWrite(databaseName, retentionPolicyName, requestBody,
+                        precision));
+    }
+
+    /**
+     * Writes the specified batch of points to InfluxDB, using the default retention policy.
+     * <p>
+     * Note that a database must have been already selected with {@link #useDatabase(String)} before
+     * calling this method.
+     *
+     * @param batch the points to write, not {@code null}
+     *
+     * @throws NoDatabaseSelectedException if no database has been selected
+     * @throws IllegalArgumentException    if the batch is {@code null}
+     * @since 1.1.0
+     */
+    public void writeBatch(PointBatch batch) {
+        assertDatabaseHasBeenSelected();
+        writeBatch(currentDatabase, batch);
+    }
+
+    /**
+     * Writes the specified batch of points to InfluxDB, using the default retention policy.
+     *
+     * @param databaseName the database to write to, not {@code null}
+     * @param batch        the points to write, not {@code null}
+     *
+     * @throws IllegalArgumentException if any of the arguments is {@code null}
+     * @throws UnknownDatabaseException if the database does not exist
+     * @since 1.1.0
+     */
+    public void writeBatch(String databaseName, PointBatch batch) {
+        writeBatch(databaseName, batch, precision);
+    }
+
+    /**
+     * Writes the specified batch of points to InfluxDB with timestamps of the specified precision,
+     * using the default retention policy.
+     *
+     * @param databaseName the database to write to, not {@code null}
+     * @param batch        the points to write, not {@code null}
+     * @param precision    the precision to write timestamps in, not {@code null}
+     *
+     * @throws IllegalArgumentException if any of the arguments is {@code null}
+     * @throws UnknownDatabaseException if the database does not exist
+     * @since 1.1.0
+     */
+    public void writeBatch(String databaseName, PointBatch batch, Precision precision) {
+        if (databaseName == null) {
+            throw new IllegalArgumentException("Database name cannot be null");
         }
 
-        lineProtocolConverter.toLineProtocol(measurementName, points)
-                .forEach(lineProtocol -> apiCaller.callApi(
-                        () -> httpClient.write(databaseName, retentionPolicyName, lineProtocol)));
+        assertBatchCanBeWritten(batch, precision);
+
+        assertWriteTargetExists(databaseName, null);
+
+        lineProtocolConverter.toRequestBodies(batch, maxWriteBodySize, precision)
+                .forEach(requestBody -> sendWrite(databaseName, null, requestBody, precision));
+    }
+
+    /**
+     * Writes the specified batch of points to InfluxDB.
+     *
+     * @param databaseName        the database to write to, not {@code null}
+     * @param batch               the points to write, not {@code null}
+     * @param retentionPolicyName the retention policy to write to, not {@code null}
+     *
+     * @throws IllegalArgumentException        if the batch is {@code null}
+     * @throws UnknownDatabaseException        if the database does not exist
+     * @throws UnknownRetentionPolicyException if the retention policy does not exist
+     * @since 1.1.0
+     */
+    public void writeBatch(String databaseName, PointBatch batch, String retentionPolicyName) {
+        writeBatch(databaseName, batch, retentionPolicyName, precision);
+    }
+
+    /**
+     * Writes the specified batch of points to InfluxDB with timestamps of the specified precision.
+     *
+     * @param databaseName        the database to write to, not {@code null}
+     * @param batch               the points to write, not {@code null}
+     * @param retentionPolicyName the retention policy to write to, not {@code null}
+     * @param precision           the precision to write timestamps in, not {@code null}
+     *
+     * @throws IllegalArgumentException        if the batch or precision is {@code null}
+     * @throws UnknownDatabaseException        if the database does not exist
+     * @throws UnknownRetentionPolicyException if the retention policy does not exist
+     * @since 1.1.0
+     */
+    public void writeBatch(String databaseName, PointBatch batch, String retentionPolicyName,
+            Precision precision) {
+        assertBatchCanBeWritten(batch, precision);
+
+        assertWriteTargetExists(databaseName, retentionPolicyName);
+
+        lineProtocolConverter.toRequestBodies(batch, maxWriteBodySize, precision)
+                .forEach(requestBody -> sendWrite(databaseName, retentionPolicyName, requestBody,
+                        precision));
+    }
+
+    /**
+     * Creates a builder for a {@link BatchingWriter} which writes through this client's connection.
+     * <p>
+     * Unlike the write methods of this class, the writer buffers points and writes them
+     * asynchronously in batches, which is better suited to frequent writes of few points. Writers
+     * which are still open when this client is closed are closed along with it.
+     *
+     * @return a new batching writer builder
+     *
+     * @since 1.1.0
+     */
+    public BatchingWriter.Builder batchingWriter() {
+        return new BatchingWriter.Builder(httpClient, lineProtocolConverter, batchingWriters)
+                .precision(precision);
     }
 
     /**
@@ -734,7 +944,7 @@ public final class JFluxClient implements AutoCloseable {
      * @see AnnotationBasedPointConverter
      */
     public <T> List<T> getAllPoints(String databaseName, Class<T> targetType) {
-        String measurementName = namingStrategy.getMeasurementName(targetType);
+        String measurementName = annotationBasedPointConverter.getMeasurementName(targetType);
         return getAllPoints(databaseName, measurementName).stream()
                 .map(point -> annotationBasedPointConverter.fromPoint(point, targetType))
                 .collect(Collectors.toList());
@@ -770,6 +980,179 @@ public final class JFluxClient implements AutoCloseable {
      * @throws UnknownDatabaseException if the database does not exist
      */
     public List<Point> getAllPoints(String databaseName, String measurementName) {
+        String query = allPointsQuery(databaseName, measurementName);
+        Measurement callResult = apiCaller.callApi(() -> httpClient.query(query));
+        return callResult == null ? Collections.emptyList() : callResult.getPoints();
+    }
+
+    /**
+     * Alias for {@link #streamAllPoints(String, Class)} using a preselected database.
+     * <p>
+     * Note that a database must have been already selected with {@link #useDatabase(String)} before
+     * calling this method.
+     *
+     * @param targetType the class to convert to, not {@code null}
+     * @param <T>        type of the results
+     *
+     * @return the points converted to instances of {@code targetType}, which must be closed
+     *
+     * @throws NoDatabaseSelectedException if no database selected
+     * @since 1.1.0
+     */
+    public <T> Stream<T> streamAllPoints(Class<T> targetType) {
+        assertDatabaseHasBeenSelected();
+        return streamAllPoints(currentDatabase, targetType);
+    }
+
+    /**
+     * Streams all points for the specified class, as {@link #getAllPoints(String, Class)} but
+     * without holding all of them in memory.
+     * <p>
+     * The points are read from InfluxDB in chunks while the stream is consumed, and converted to
+     * instances of the class one at a time.
+     *
+     * @param databaseName the database where the measurement is found, not {@code null}
+     * @param targetType   the class to convert the results to, not {@code null}
+     * @param <T>          type of the results
+     *
+     * @return the points converted to instances of {@code targetType}, which must be closed
+     *
+     * @throws IllegalArgumentException if {@code databaseName} or {@code targetType} is {@code
+     *                                  null}
+     * @throws UnknownDatabaseException if the database cannot be found
+     * @see #streamAllPoints(String, String)
+     * @since 1.1.0
+     */
+    public <T> Stream<T> streamAllPoints(String databaseName, Class<T> targetType) {
+        String measurementName = annotationBasedPointConverter.getMeasurementName(targetType);
+        return streamAllPoints(databaseName, measurementName)
+                .map(point -> annotationBasedPointConverter.fromPoint(point, targetType));
+    }
+
+    /**
+     * Alias for {@link #streamAllPoints(String, String)} using a preselected database.
+     * <p>
+     * Note that a database must have been already selected with {@link #useDatabase(String)} before
+     * calling this method.
+     *
+     * @param measurementName the measurement to query, not {@code null}
+     *
+     * @return the retrieved points, which must be closed
+     *
+     * @throws NoDatabaseSelectedException if no database has been selected
+     * @throws IllegalArgumentException    if the measurement name is {@code null}
+     * @since 1.1.0
+     */
+    public Stream<Point> streamAllPoints(String measurementName) {
+        assertDatabaseHasBeenSelected();
+        return streamAllPoints(currentDatabase, measurementName);
+    }
+
+    /**
+     * Streams all points for the specified measurement, as {@link #getAllPoints(String, String)}
+     * but without holding all of them in memory.
+     * <p>
+     * The points are read from InfluxDB in chunks of the {@link Builder#queryChunkSize(int)
+     * configured size} while the stream is consumed, so measurements of any size can be processed
+     * with constant memory. The stream keeps the connection open until it is closed, so it should
+     * be used in a try-with-resources statement. Consuming the stream throws an
+     * {@link IllegalStateException} if the connection to InfluxDB is lost, and an
+     * {@link InfluxClientException} if InfluxDB reports an error.
+     *
+     * @param databaseName    the database where the measurement is found, not {@code null}
+     * @param measurementName the measurement to query, not {@code null}
+     *
+     * @return the retrieved points, which must be closed
+     *
+     * @throws IllegalArgumentException if the database or measurement name is {@code null}
+     * @throws UnknownDatabaseException if the database does not exist
+     * @since 1.1.0
+     */
+    public Stream<Point> streamAllPoints(String databaseName, String measurementName) {
+        String query = allPointsQuery(databaseName, measurementName);
+        Stream<Point> points = apiCaller.callApi(() -> httpClient.queryStream(query,
+                queryChunkSize));
+        return withConnectionErrorsTranslated(points);
+    }
+
+    /**
+     * Alias for {@link #exportAllPoints(String, String, Writer)} using a preselected database.
+     * <p>
+     * Note that a database must have been already selected with {@link #useDatabase(String)} before
+     * calling this method.
+     *
+     * @param measurementName the measurement to export, not {@code null}
+     * @param writer          the writer to export to, not {@code null}
+     *
+     * @throws NoDatabaseSelectedException if no database has been selected
+     * @throws IllegalArgumentException    if the measurement name or writer is {@code null}
+     * @throws IOException                 if the points cannot be read from InfluxDB or written
+     * @since 1.1.0
+     */
+    public void exportAllPoints(String measurementName, Writer writer) throws IOException {
+        assertDatabaseHasBeenSelected();
+        exportAllPoints(currentDatabase, measurementName, writer);
+    }
+
+    /**
+     * Exports all points of the specified measurement as CSV, copying them to the writer as
+     * InfluxDB returns them, without decoding them.
+     * <p>
+     * The points are read from InfluxDB in chunks of the {@link Builder#queryChunkSize(int)
+     * configured size} while they are written, so measurements of any size can be exported with
+     * constant memory. The format is that of
+     * {@link JFluxHttpClient#exportCsv(String, int, Writer)}.
+     *
+     * @param databaseName    the database where the measurement is found, not {@code null}
+     * @param measurementName the measurement to export, not {@code null}
+     * @param writer          the writer to export to, which is not closed, not {@code null}
+     *
+     * @throws IllegalArgumentException if the database or measurement name, or the writer, is
+     *                                  {@code null}
+     * @throws UnknownDatabaseException if the database does not exist
+     * @throws IOException              if the points cannot be read from InfluxDB or written
+     * @since 1.1.0
+     */
+    public void exportAllPoints(String databaseName, String measurementName, Writer writer)
+            throws IOException {
+        httpClient.exportCsv(allPointsQuery(databaseName, measurementName), queryChunkSize,
+                writer);
+    }
+
+    /**
+     * Wraps a stream read from InfluxDB, rethrowing an {@link UncheckedIOException} while it is
+     * consumed as the {@link IllegalStateException} thrown by {@link ApiCaller}.
+     */
+    private static <T> Stream<T> withConnectionErrorsTranslated(Stream<T> stream) {
+        Iterator<T> iterator = stream.iterator();
+        Iterator<T> translatingIterator = new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return iterator.hasNext();
+                } catch (UncheckedIOException e) {
+                    throw new IllegalStateException("Connection to InfluxDB lost", e.getCause());
+                }
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return iterator.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(translatingIterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(stream::close);
+    }
+
+    /**
+     * Builds the query for all points of a measurement, checking that its database exists.
+     */
+    private String allPointsQuery(String databaseName, String measurementName) {
         if (measurementName == null) {
             throw new IllegalArgumentException("Measurement name cannot be blank");
         }
@@ -782,9 +1165,42 @@ public final class JFluxClient implements AutoCloseable {
             throw new UnknownDatabaseException(databaseName);
         }
 
-        String query = "SELECT * FROM \"" + databaseName + "\"..\"" + measurementName + '"';
-        Measurement callResult = apiCaller.callApi(() -> httpClient.query(query));
-        return callResult == null ? Collections.emptyList() : callResult.getPoints();
+        return "SELECT * FROM \"" + databaseName + "\"..\"" + measurementName + '"';
+    }
+
+    /**
+     * Encodes annotated objects straight into line protocol, without converting them to points.
+     * Large collections are encoded in chunks on the conversion executor.
+     */
+    private List<RequestBody> toRequestBodies(Collection<?> data) {
+        return conversionExecutor.convert(data, chunk -> lineProtocolConverter.toRequestBodies(
+                groupByMeasurement(chunk), annotationBasedPointConverter::encode,
+                maxWriteBodySize, precision));
+    }
+
+    /**
+     * Groups annotated objects by the measurement of their class, keeping the order in which each
+     * measurement first appears.
+     */
+    private Map<String, List<Object>> groupByMeasurement(Collection<?> data) {
+        Map<String, List<Object>> objectsByMeasurement = new LinkedHashMap<>();
+        Class<?> previousClass = null;
+        List<Object> objects = null;
+        for (Object o : data) {
+            if (o == null) {
+                throw new IllegalArgumentException("Input cannot contain null elements");
+            }
+
+            // Collections usually contain runs of objects of the same class.
+            if (o.getClass() != previousClass) {
+                previousClass = o.getClass();
+                objects = objectsByMeasurement.computeIfAbsent(
+                        annotationBasedPointConverter.getMeasurementName(previousClass),
+                        measurementName -> new ArrayList<>());
+            }
+            objects.add(o);
+        }
+        return objectsByMeasurement;
     }
 
     /**
@@ -800,9 +1216,102 @@ public final class JFluxClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Checks that the database and, if specified, the retention policy to write to exist. With
+     * optimistic writes only the arguments are checked, and a missing database or retention
+     * policy is instead reported by InfluxDB when writing.
+     */
+    private void assertWriteTargetExists(String databaseName, String retentionPolicyName) {
+        if (databaseName == null) {
+            throw new IllegalArgumentException("Database name cannot be null");
+        }
+
+        if (!optimisticWrites && !databaseExists(databaseName)) {
+            throw new UnknownDatabaseException(databaseName);
+        }
+
+        if (retentionPolicyName == null) {
+            return;
+        }
+
+        if (!optimisticWrites && !retentionPolicyManager.retentionPolicyExists(
+                retentionPolicyName, databaseName)) {
+            throw new UnknownRetentionPolicyException(retentionPolicyName, databaseName);
+        }
+    }
+
+    /**
+     * Sends a write request, translating errors about a missing database or retention policy into
+     * the exceptions thrown for them by the existence checks.
+     */
+    private void sendWrite(String databaseName, String retentionPolicyName,
+            RequestBody requestBody, Precision precision) {
+        try {
+            if (retentionPolicyName == null) {
+                apiCaller.callApi(() -> httpClient.write(databaseName, requestBody, precision));
+            }
+            else {
+                apiCaller.callApi(() -> httpClient.write(databaseName, retentionPolicyName,
+                        requestBody, precision));
+            }
+        } catch (InfluxClientException e) {
+            RuntimeException translated;
+            String errorMessage = String.valueOf(e.getMessage());
+            if (errorMessage.startsWith(DATABASE_NOT_FOUND_ERROR)) {
+                translated = new UnknownDatabaseException(databaseName);
+            }
+            else if (errorMessage.startsWith(RETENTION_POLICY_NOT_FOUND_ERROR)) {
+                translated = new UnknownRetentionPolicyException(retentionPolicyName,
+                        databaseName);
+            }
+            else {
+                throw e;
+            }
+            translated.initCause(e);
+            throw translated;
+        }
+    }
+
+    private void assertBatchCanBeWritten(PointBatch batch, Precision precision) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+
+        if (precision == null) {
+            throw new IllegalArgumentException("Precision cannot be null");
+        }
+    }
+
+    /**
+     * Closes this client, after closing any {@link BatchingWriter BatchingWriters} created by it
+     * which are still open, so that the points they buffer are written.
+     *
+     * @throws BatchWriteException if a batching writer could not write all of its points, in which
+     *                             case the client is closed nonetheless
+     * @throws Exception           if the connection cannot be closed
+     */
     @Override
     public void close() throws Exception {
+        BatchWriteException failure = null;
+        // Writers remove themselves from the set when closed.
+        for (BatchingWriter batchingWriter : new ArrayList<>(batchingWriters)) {
+            try {
+                batchingWriter.close();
+            } catch (BatchWriteException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        conversionExecutor.close();
         httpClient.close();
+        if (failure != null) {
+            throw failure;
+        }
     }
 
     /**
@@ -810,7 +1319,21 @@ public final class JFluxClient implements AutoCloseable {
      */
     public static final class Builder {
 
+        private static final int DEFAULT_PARALLEL_CONVERSION_THRESHOLD = 10_000;
+        private static final int DEFAULT_QUERY_CHUNK_SIZE = 10_000;
+
         private String host;
+        private int maxWriteBodySize = Integer.MAX_VALUE;
+        private Long gzipThreshold;
+        private Precision precision = Precision.MILLISECONDS;
+        private ResponseFormat responseFormat = ResponseFormat.JSON;
+        private Executor conversionExecutor;
+        private int conversionParallelism = 1;
+        private int parallelConversionThreshold = DEFAULT_PARALLEL_CONVERSION_THRESHOLD;
+        private boolean concurrentWrites;
+        private Duration metadataCacheTtl = Duration.ZERO;
+        private boolean optimisticWrites;
+        private int queryChunkSize = DEFAULT_QUERY_CHUNK_SIZE;
 
         /**
          * Initializes a new builder instance, setting the InfluxDB host URL.
@@ -821,18 +1344,283 @@ public final class JFluxClient implements AutoCloseable {
             this.host = host;
         }
 
+        /**
+         * Sets the maximum size of a single write request body, in bytes.
+         * <p>
+         * All points written with a single call, regardless of their series, are sent in as few
+         * requests as this limit allows. If not set, there is no limit and every write call results
+         * in a single request, with the points being encoded straight into the request as it is
+         * sent. Note that setting a limit requires the points to be encoded in advance.
+         *
+         * @param maxWriteBodySize the maximum body size, must be positive
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder maxWriteBodySize(int maxWriteBodySize) {
+            this.maxWriteBodySize = maxWriteBodySize;
+            return this;
+        }
+
+        /**
+         * Sets the precision that timestamps are written in, unless a precision is specified when
+         * writing.
+         * <p>
+         * Timestamps are truncated to the precision. A coarser precision results in smaller
+         * requests and better compression of timestamps in InfluxDB. If not set, timestamps are
+         * written in milliseconds.
+         *
+         * @param precision the default write precision, not {@code null}
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder precision(Precision precision) {
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Enables gzip compression of write request bodies of at least the specified size, in
+         * bytes.
+         * <p>
+         * Bodies which are encoded in advance, i.e. writes of objects, writes of batching writers
+         * and writes of points if a {@link #maxWriteBodySize(int) maximum body size} is set, are
+         * sent uncompressed and with their content length if they are smaller than the threshold.
+         * Writes of points without a maximum body size are encoded while being sent, so their size
+         * is unknown in advance and they are always compressed. If not set, request bodies are not
+         * compressed.
+         *
+         * @param gzipThreshold the minimum size of bodies to compress, must not be negative
+         *
+         * @return this builder
+         *
+         * @see JFluxHttpClient.Builder#gzipThreshold(long)
+         * @since 1.1.0
+         */
+        public Builder gzipThreshold(long gzipThreshold) {
+            this.gzipThreshold = gzipThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the format in which query results are requested, e.g. MessagePack, which is more
+         * compact than JSON and cheaper to decode. If not set, results are requested as JSON.
+         *
+         * @param responseFormat the format of query results, not {@code null}
+         *
+         * @return this builder
+         *
+         * @see JFluxHttpClient.Builder#responseFormat(ResponseFormat)
+         * @since 1.1.0
+         */
+        public Builder responseFormat(ResponseFormat responseFormat) {
+            this.responseFormat = responseFormat;
+            return this;
+        }
+
+        /**
+         * Sets an executor on which large collections of annotated objects are converted to line
+         * protocol.
+         * <p>
+         * Collections of at least the {@link #parallelConversionThreshold(int) parallel conversion
+         * threshold} are split into {@code parallelism} chunks, which are converted on the
+         * executor, each into request bodies of its own. The executor is not shut down when the
+         * client is closed. If neither an executor nor a {@link #conversionParallelism(int)
+         * parallelism} is set, objects are converted on the calling thread.
+         *
+         * @param executor    the executor to convert objects on, not {@code null}
+         * @param parallelism the number of chunks to split large collections into, must be
+         *                    positive
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if {@code executor} is {@code null}
+         * @since 1.1.0
+         */
+        public Builder conversionExecutor(Executor executor, int parallelism) {
+            if (executor == null) {
+                throw new IllegalArgumentException("Executor cannot be null");
+            }
+
+            conversionExecutor = executor;
+            conversionParallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads on which large collections of annotated objects are
+         * converted to line protocol.
+         * <p>
+         * The client creates its own pool of threads, which is shut down when the client is
+         * closed, and splits collections of at least the {@link #parallelConversionThreshold(int)
+         * parallel conversion threshold} into one chunk per thread. Each chunk is converted into
+         * request bodies of its own.
+         *
+         * @param parallelism the number of conversion threads, must be positive
+         *
+         * @return this builder
+         *
+         * @see #conversionExecutor(Executor, int)
+         * @since 1.1.0
+         */
+        public Builder conversionParallelism(int parallelism) {
+            conversionExecutor = null;
+            conversionParallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of annotated objects in a single write for them to be converted
+         * in parallel. Smaller collections are converted on the calling thread. If not set, the
+         * threshold is 10,000 objects.
+         *
+         * @param threshold the minimum number of objects to convert in parallel, must be positive
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder parallelConversionThreshold(int threshold) {
+            parallelConversionThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets whether the request bodies of annotated objects converted in parallel are also
+         * written concurrently, on the conversion threads.
+         * <p>
+         * Concurrent writes do not preserve the order of the requests, so if several objects of
+         * the same series have the same timestamp it is undefined which one InfluxDB keeps. If
+         * not set, requests are written one after the other on the calling thread.
+         *
+         * @param concurrentWrites {@code true} to write requests concurrently
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder concurrentWrites(boolean concurrentWrites) {
+            this.concurrentWrites = concurrentWrites;
+            return this;
+        }
+
+        /**
+         * Sets how long the existing databases and retention policies are cached for.
+         * <p>
+         * Writes check that the database and retention policy they write to exist, which
+         * otherwise takes one or two queries per write. Databases and retention policies which are
+         * not found in the cache are always queried again, and the cache is discarded whenever
+         * they are changed through the client, so only changes made by other clients may be seen
+         * late. If not set, nothing is cached.
+         *
+         * @param metadataCacheTtl how long to cache metadata for, not negative
+         *
+         * @return this builder
+         *
+         * @see JFluxClient#refreshMetadata()
+         * @since 1.1.0
+         */
+        public Builder metadataCacheTtl(Duration metadataCacheTtl) {
+            this.metadataCacheTtl = metadataCacheTtl;
+            return this;
+        }
+
+        /**
+         * Sets whether writes are sent without first checking that their database and retention
+         * policy exist.
+         * <p>
+         * Optimistic writes take a single request, since a missing database or retention policy is
+         * only reported by InfluxDB when the points are written. The same exceptions are thrown
+         * either way, but with optimistic writes the requests of a write split into several
+         * requests are sent until one of them fails. If not set, writes are checked first.
+         *
+         * @param optimisticWrites {@code true} to skip the checks before writing
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder optimisticWrites(boolean optimisticWrites) {
+            this.optimisticWrites = optimisticWrites;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of points InfluxDB returns per chunk when streaming query
+         * results.
+         * <p>
+         * Larger chunks take fewer round trips through the parser, smaller ones less memory. If not
+         * set, chunks contain up to 10,000 points.
+         *
+         * @param queryChunkSize the maximum number of points per chunk, must be positive
+         *
+         * @return this builder
+         *
+         * @see JFluxClient#streamAllPoints(String, String)
+         * @since 1.1.0
+         */
+        public Builder queryChunkSize(int queryChunkSize) {
+            this.queryChunkSize = queryChunkSize;
+            return this;
+        }
+
         /**
          * Constructs a new {@link JFluxClient} instance from this builder's configuration.
          *
          * @return the new client instance
          *
-         * @throws IOException if the InfluxDB instance is unreachable
+         * @throws IOException           if the InfluxDB instance is unreachable
+         * @throws IllegalStateException if any of the values set in this builder are illegal
          */
         public JFluxClient build() throws IOException {
-            JFluxHttpClient httpClient = new JFluxHttpClient.Builder(host).build();
-            DatabaseManager databaseManager = new DatabaseManager(httpClient);
-            RetentionPolicyManager retentionPolicyManager = new RetentionPolicyManager(httpClient);
-            return new JFluxClient(httpClient, databaseManager, retentionPolicyManager);
+            if (maxWriteBodySize < 1) {
+                throw new IllegalStateException("Max write body size must be positive");
+            }
+
+            if (conversionParallelism < 1) {
+                throw new IllegalStateException("Conversion parallelism must be positive");
+            }
+
+            if (parallelConversionThreshold < 1) {
+                throw new IllegalStateException("Parallel conversion threshold must be positive");
+            }
+
+            if (metadataCacheTtl == null || metadataCacheTtl.isNegative()) {
+                throw new IllegalStateException("Metadata cache TTL cannot be null or negative");
+            }
+
+            if (queryChunkSize < 1) {
+                throw new IllegalStateException("Query chunk size must be positive");
+            }
+
+            JFluxHttpClient.Builder httpClientBuilder = new JFluxHttpClient.Builder(host)
+                    .precision(precision)
+                    .responseFormat(responseFormat);
+            if (gzipThreshold != null) {
+                httpClientBuilder.gzipThreshold(gzipThreshold);
+            }
+            JFluxHttpClient httpClient = httpClientBuilder.build();
+            DatabaseManager databaseManager = new DatabaseManager(httpClient, metadataCacheTtl);
+            RetentionPolicyManager retentionPolicyManager =
+                    new RetentionPolicyManager(httpClient, metadataCacheTtl);
+            JFluxClient client =
+                    new JFluxClient(httpClient, databaseManager, retentionPolicyManager);
+            client.maxWriteBodySize = maxWriteBodySize;
+            client.precision = precision;
+            client.optimisticWrites = optimisticWrites;
+            client.queryChunkSize = queryChunkSize;
+            if (conversionExecutor != null) {
+                client.conversionExecutor = ConversionExecutor.using(conversionExecutor,
+                        conversionParallelism, parallelConversionThreshold, concurrentWrites);
+            }
+            else if (conversionParallelism > 1) {
+                client.conversionExecutor = ConversionExecutor.withThreads(conversionParallelism,
+                        parallelConversionThreshold, concurrentWrites);
+            }
+            return client;
         }
     }
 }
@@ -1,20 +1,37 @@
 package com.github.nickrm.jflux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.StringJoiner;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
+import com.github.nickrm.jflux.annotation.Field;
+import com.github.nickrm.jflux.annotation.exception.MissingAnnotatedMemberException;
+import com.github.nickrm.jflux.codec.PointWriter;
 import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.PointBatch;
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.domain.UnsignedLong;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Handles conversions of {@link Point Points} to InfluxDB line protocol.
+ * Handles conversions of {@link Point Points}, {@link PointBatch PointBatches} and annotated objects
+ * to InfluxDB line protocol.
  *
  * @see <a href="https://docs.influxdata.com/influxdb/v1.7/write_protocols/line_protocol_tutorial/">
  * InfluxDB line protocol</a>
@@ -23,92 +40,596 @@ final class LineProtocolConverter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LineProtocolConverter.class);
 
+    private static final int DEFAULT_SERIES_KEY_CACHE_SIZE = 10_000;
+
+    private final SeriesKeyCache seriesKeyCache;
+
+    /**
+     * Initializes a new instance caching the keys of up to 10,000 series.
+     */
+    LineProtocolConverter() {
+        this(DEFAULT_SERIES_KEY_CACHE_SIZE);
+    }
+
+    /**
+     * Initializes a new instance setting the maximum number of series keys to cache.
+     *
+     * @param seriesKeyCacheSize the maximum number of cached series keys
+     */
+    LineProtocolConverter(int seriesKeyCacheSize) {
+        seriesKeyCache = new SeriesKeyCache(seriesKeyCacheSize);
+    }
+
+    /**
+     * Constructs line protocols from the specified points and measurement name, with timestamps in
+     * milliseconds.
+     *
+     * @param measurementName the measurement to write to
+     * @param points          the points to write
+     *
+     * @return the line protocols
+     *
+     * @throws IllegalArgumentException if the measurement name is blank
+     * @see #toLineProtocol(String, Collection, Precision)
+     */
+    List<String> toLineProtocol(String measurementName, Collection<Point> points) {
+        return toLineProtocol(measurementName, points, Precision.MILLISECONDS);
+    }
+
     /**
      * Constructs line protocols from the specified points and measurement name.
      * <p>
      * Since the points can have different tag sets, the results of this method are grouped by tag
-     * set. Points belonging to the same tag set are contained within a single line, while points
-     * belonging to different tag sets are on different lines.
+     * set. Points belonging to the same tag set are contained within a single entry, one line per
+     * point, while points belonging to different tag sets are in different entries.
      *
      * @param measurementName the measurement to write to
      * @param points          the points to write
+     * @param precision       the precision to write timestamps in
      *
      * @return the line protocols
      *
      * @throws IllegalArgumentException if the measurement name is blank
      */
-    List<String> toLineProtocol(String measurementName, Collection<Point> points) {
+    List<String> toLineProtocol(String measurementName, Collection<Point> points,
+            Precision precision) {
+        List<String> lineProtocols = new ArrayList<>();
+        Buffer buffer = new Buffer();
+        try {
+            for (Map.Entry<ByteString, List<Point>> series : groupBySeries(measurementName,
+                    points).entrySet()) {
+                writeSeries(series.getKey(), series.getValue(), precision, buffer);
+
+                // Drop the line separator after the last line.
+                String lineProtocol = buffer.readUtf8();
+                lineProtocols.add(lineProtocol.substring(0, lineProtocol.length() - 1));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to buffer", e);
+        }
+
+        return lineProtocols;
+    }
+
+    /**
+     * Writes the line protocol of the specified points into a sink.
+     * <p>
+     * Every point is written on its own line, and every line, including the last one, is
+     * terminated by a line separator.
+     *
+     * @param measurementName the measurement to write to
+     * @param points          the points to write
+     * @param precision       the precision to write timestamps in
+     * @param sink            the sink to write to
+     *
+     * @throws IllegalArgumentException if the measurement name is blank
+     * @throws IOException              if writing to the sink fails
+     */
+    void writeLineProtocol(String measurementName, Collection<Point> points, Precision precision,
+            BufferedSink sink) throws IOException {
+        for (Map.Entry<ByteString, List<Point>> series : groupBySeries(measurementName,
+                points).entrySet()) {
+            writeSeries(series.getKey(), series.getValue(), precision, sink);
+        }
+    }
+
+    /**
+     * Writes the line protocol of a single point into a sink, including the line separator.
+     * <p>
+     * Unlike {@link #writeLineProtocol(String, Collection, Precision, BufferedSink)}, the point is
+     * not grouped by series with any others, which makes this cheaper for points written one at a
+     * time.
+     *
+     * @param measurementName the measurement to write to
+     * @param point           the point to write
+     * @param precision       the precision to write the timestamp in
+     * @param sink            the sink to write to
+     *
+     * @throws IllegalArgumentException if the measurement name is blank
+     * @throws IOException              if writing to the sink fails
+     */
+    void writeLine(String measurementName, Point point, Precision precision, BufferedSink sink)
+            throws IOException {
         if (StringUtils.isBlank(measurementName)) {
             throw new IllegalArgumentException("Measurement name cannot be blank");
         }
 
-        Map<String, Collection<Point>> series = new HashMap<>();
-        points.forEach(point -> {
-            Map<String, String> escapedTags = new HashMap<>();
-            point.getTags().forEach((tagName, tagValue) -> {
-                String escapedValue = tagValue.replaceAll("\\s", "\\\\ ");
-                escapedTags.put(tagName, escapedValue);
-            });
-            String tagSet = collectKeyValuePairs(escapedTags);
-            series.computeIfAbsent(tagSet, key -> new ArrayList<>()).add(point);
-        });
+        writeLine(seriesKeyCache.get(measurementName, point.getTags()), point, precision, sink);
+    }
+
+    /**
+     * Constructs request bodies containing the line protocol of the specified points.
+     * <p>
+     * All points are written into as few bodies as possible, regardless of their tag sets, with
+     * each body being at most {@code maxBodySize} bytes long. A single line longer than the limit
+     * is put into a body of its own.
+     * <p>
+     * If {@code maxBodySize} is {@link Integer#MAX_VALUE} the bodies are not limited, in which case
+     * a single body is returned which encodes the points straight into the request as it is sent.
+     * Otherwise the points need to be encoded in advance in order to measure them.
+     *
+     * @param measurementName the measurement to write to
+     * @param points          the points to write
+     * @param maxBodySize     the maximum number of bytes in a body
+     * @param precision       the precision to write timestamps in
+     *
+     * @return the request bodies, or an empty list if there are no points
+     *
+     * @throws IllegalArgumentException if the measurement name is blank
+     */
+    List<RequestBody> toRequestBodies(String measurementName, Collection<Point> points,
+            int maxBodySize, Precision precision) {
+        if (StringUtils.isBlank(measurementName)) {
+            throw new IllegalArgumentException("Measurement name cannot be blank");
+        }
 
-        LOGGER.debug("Found {} tag sets: {}", series.size(), series.keySet());
+        if (points.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        List<String> lineProtocols = new ArrayList<>();
-        series.forEach((tagSet, seriesPoints) -> {
-            String lineProtocol = toLineProtocol(measurementName, tagSet, seriesPoints);
-            lineProtocols.add(lineProtocol);
-        });
+        if (maxBodySize == Integer.MAX_VALUE) {
+            return Collections.singletonList(new LineProtocolRequestBody(
+                    sink -> writeLineProtocol(measurementName, points, precision, sink)));
+        }
 
-        return lineProtocols;
+        List<RequestBody> bodies = new ArrayList<>();
+        Buffer body = new Buffer();
+        Buffer line = new Buffer();
+        try {
+            for (Map.Entry<ByteString, List<Point>> series : groupBySeries(measurementName,
+                    points).entrySet()) {
+                for (Point point : series.getValue()) {
+                    writeLine(series.getKey(), point, precision, line);
+                    if (body.size() > 0 && body.size() + line.size() > maxBodySize) {
+                        bodies.add(toRequestBody(body));
+                        body = new Buffer();
+                    }
+                    body.write(line, line.size());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to buffer", e);
+        }
+        bodies.add(toRequestBody(body));
+
+        return bodies;
+    }
+
+    /**
+     * Writes the line protocol of a batch of points to the specified sink.
+     *
+     * @param batch     the points to write
+     * @param precision the precision to write timestamps in
+     * @param sink      the sink to write to
+     *
+     * @throws IOException if writing to the sink fails
+     */
+    void writeLineProtocol(PointBatch batch, Precision precision, BufferedSink sink)
+            throws IOException {
+        BatchLineWriter lineWriter = new BatchLineWriter(batch, precision);
+        for (int row = 0; row < batch.size(); row++) {
+            lineWriter.writeLine(row, sink);
+        }
     }
 
     /**
-     * Converts points with a specific tag set into line protocol.
+     * Constructs request bodies containing the line protocol of a batch of points.
      * <p>
-     * Points will be collected into a single line for batch entry, separated by a new line as
-     * specified by the InfluxDB line protocol format.
+     * The points are split into bodies the same way as by
+     * {@link #toRequestBodies(String, Collection, int, Precision)}.
      *
-     * @param measurementName the measurement that the points are to be written to
-     * @param tagSet          the common tag set for the points
-     * @param points          the points to convert
+     * @param batch       the points to write
+     * @param maxBodySize the maximum number of bytes in a body
+     * @param precision   the precision to write timestamps in
      *
-     * @return the line protocol for the points
+     * @return the request bodies, or an empty list if the batch is empty or, when the bodies are
+     * limited, if no row has any field values
      */
-    private String toLineProtocol(String measurementName, String tagSet, Collection<Point> points) {
-        StringBuilder lineProtocol = new StringBuilder();
-        lineProtocol.append(measurementName);
+    List<RequestBody> toRequestBodies(PointBatch batch, int maxBodySize, Precision precision) {
+        if (batch.size() == 0) {
+            return Collections.emptyList();
+        }
 
-        if (!tagSet.isEmpty()) {
-            lineProtocol.append(',').append(tagSet);
+        if (maxBodySize == Integer.MAX_VALUE) {
+            return Collections.singletonList(new LineProtocolRequestBody(
+                    sink -> writeLineProtocol(batch, precision, sink)));
         }
 
-        StringJoiner pointStringJoiner = new StringJoiner("\n");
-        points.forEach(point -> {
-            String fieldSet = collectKeyValuePairs(point.getFields());
-            if (point.getTimestamp() != null) {
-                fieldSet += " " + point.getTimestamp().toEpochMilli();
+        List<RequestBody> bodies = new ArrayList<>();
+        Buffer body = new Buffer();
+        Buffer line = new Buffer();
+        BatchLineWriter lineWriter = new BatchLineWriter(batch, precision);
+        try {
+            for (int row = 0; row < batch.size(); row++) {
+                lineWriter.writeLine(row, line);
+                if (body.size() > 0 && body.size() + line.size() > maxBodySize) {
+                    bodies.add(toRequestBody(body));
+                    body = new Buffer();
+                }
+                body.write(line, line.size());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to buffer", e);
+        }
+
+        // Every row may have been left out for having no field values.
+        if (body.size() > 0) {
+            bodies.add(toRequestBody(body));
+        }
+        return bodies;
+    }
+
+    /**
+     * Constructs request bodies containing the line protocol of the specified objects.
+     *
+     * @param measurementName the measurement to write to
+     * @param objects         the objects to write
+     * @param encoder         writes the tags, fields and timestamp of an object
+     * @param maxBodySize     the maximum number of bytes in a body
+     * @param precision       the precision to write timestamps in
+     * @param <T>             the type of the objects
+     *
+     * @return the request bodies, or an empty list if there are no objects
+     *
+     * @throws IllegalArgumentException        if the measurement name is blank, or an object has a
+     *                                         NaN or infinite floating point field
+     * @throws MissingAnnotatedMemberException if the encoder writes no fields for an object
+     * @see #toRequestBodies(Map, BiConsumer, int, Precision)
+     */
+    <T> List<RequestBody> toRequestBodies(String measurementName, Collection<T> objects,
+            BiConsumer<? super T, PointWriter> encoder, int maxBodySize, Precision precision) {
+        return toRequestBodies(Collections.singletonMap(measurementName, objects), encoder,
+                maxBodySize, precision);
+    }
+
+    /**
+     * Constructs request bodies containing the line protocol of objects of any number of
+     * measurements.
+     * <p>
+     * Each object is passed to the encoder along with a {@link PointWriter} which writes its
+     * values straight into the line protocol, so no {@link Point} is created for it. Lines are
+     * written in the order of the measurements and of the objects of each measurement, and split
+     * into bodies the same way as by {@link #toRequestBodies(String, Collection, int, Precision)},
+     * so objects of different measurements share bodies. Unlike points, objects are always encoded
+     * in advance, so that an object which cannot be encoded fails the write before anything is
+     * sent.
+     *
+     * @param objectsByMeasurement the objects to write, mapped by the measurement to write them to
+     * @param encoder              writes the tags, fields and timestamp of an object
+     * @param maxBodySize          the maximum number of bytes in a body
+     * @param precision            the precision to write timestamps in
+     * @param <T>                  the type of the objects
+     *
+     * @return the request bodies, or an empty list if there are no objects
+     *
+     * @throws IllegalArgumentException        if any measurement name is blank, or an object has a
+     *                                         NaN or infinite floating point field
+     * @throws MissingAnnotatedMemberException if the encoder writes no fields for an object
+     */
+    <T> List<RequestBody> toRequestBodies(
+            Map<String, ? extends Collection<? extends T>> objectsByMeasurement,
+            BiConsumer<? super T, PointWriter> encoder, int maxBodySize, Precision precision) {
+        for (String measurementName : objectsByMeasurement.keySet()) {
+            if (StringUtils.isBlank(measurementName)) {
+                throw new IllegalArgumentException("Measurement name cannot be blank");
+            }
+        }
+
+        List<RequestBody> bodies = new ArrayList<>();
+        Buffer body = new Buffer();
+        Buffer line = new Buffer();
+        try {
+            for (Map.Entry<String, ? extends Collection<? extends T>> measurement
+                    : objectsByMeasurement.entrySet()) {
+                LineProtocolWriter lineWriter =
+                        new LineProtocolWriter(measurement.getKey(), precision);
+                for (T object : measurement.getValue()) {
+                    encoder.accept(object, lineWriter);
+                    if (!lineWriter.hasFields()) {
+                        throw new MissingAnnotatedMemberException(object, Field.class);
+                    }
+
+                    lineWriter.writeLine(line);
+                    if (body.size() > 0 && body.size() + line.size() > maxBodySize) {
+                        bodies.add(toRequestBody(body));
+                        body = new Buffer();
+                    }
+                    body.write(line, line.size());
+                }
             }
-            pointStringJoiner.add(fieldSet);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to buffer", e);
+        }
+
+        if (body.size() > 0) {
+            bodies.add(toRequestBody(body));
+        }
+        return bodies;
+    }
+
+    private static RequestBody toRequestBody(Buffer lineProtocol) {
+        return LineProtocolRequestBody.fromBuffer(lineProtocol);
+    }
+
+    /**
+     * Groups the points by series, i.e. by measurement name and tag set.
+     * <p>
+     * The series are ordered by their first point, and the tags in each series key are sorted by
+     * key.
+     *
+     * @param measurementName the measurement that the points are to be written to
+     * @param points          the points to group
+     *
+     * @return the points mapped by the encoded series key, i.e. the start of each point's line
+     *
+     * @throws IllegalArgumentException if the measurement name is blank
+     */
+    private Map<ByteString, List<Point>> groupBySeries(String measurementName,
+            Collection<Point> points) {
+        if (StringUtils.isBlank(measurementName)) {
+            throw new IllegalArgumentException("Measurement name cannot be blank");
+        }
+
+        Map<ByteString, List<Point>> series = new LinkedHashMap<>();
+        points.forEach(point -> {
+            ByteString seriesKey = seriesKeyCache.get(measurementName, point.getTags());
+            series.computeIfAbsent(seriesKey, key -> new ArrayList<>()).add(point);
         });
 
-        lineProtocol.append(' ').append(pointStringJoiner.toString());
-        return lineProtocol.toString();
+        LOGGER.debug("Found {} series", series.size());
+        return series;
+    }
+
+    private void writeSeries(ByteString seriesKey, List<Point> points, Precision precision,
+            BufferedSink sink) throws IOException {
+        for (Point point : points) {
+            writeLine(seriesKey, point, precision, sink);
+        }
+    }
+
+    /**
+     * Writes a single point as a line of line protocol, including the line separator.
+     *
+     * @param seriesKey the encoded measurement name and tag set of the point
+     * @param point     the point to write
+     * @param precision the precision to write the timestamp in
+     * @param sink      the sink to write to
+     *
+     * @throws IOException if writing to the sink fails
+     */
+    private void writeLine(ByteString seriesKey, Point point, Precision precision,
+            BufferedSink sink) throws IOException {
+        sink.write(seriesKey).writeByte(' ');
+
+        try {
+            point.forEachField(new FieldWriter(sink));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (point.hasTimestamp()) {
+            sink.writeByte(' ').writeDecimalLong(point.getTimestamp(precision.getTimeUnit()));
+        }
+        sink.writeByte('\n');
     }
 
     /**
-     * Collects key value pairs from a map into a string in the format
-     * {@code "key1"=value1,"key2"=value2}.
+     * Writes a field value in the line protocol format of its type.
+     * <p>
+     * Integers are written with an {@code i} suffix and {@link UnsignedLong unsigned integers} with
+     * a {@code u} suffix, so that InfluxDB does not store them as floats. Strings are written
+     * quoted and escaped. Any other numbers are written as floats, except for NaN and infinite
+     * values, which InfluxDB rejects.
      *
-     * @param map the map to collect
+     * @param fieldKey   the key of the field, used in error messages
+     * @param fieldValue the value to write
+     * @param sink       the sink to write to
      *
-     * @return the constructed string
+     * @throws IllegalArgumentException if the value is not of a type supported by InfluxDB, or is
+     *                                  a NaN or infinite floating point number
+     * @throws IOException              if writing to the sink fails
+     */
+    static void writeFieldValue(String fieldKey, Object fieldValue, BufferedSink sink)
+            throws IOException {
+        if (fieldValue instanceof Long || fieldValue instanceof Integer
+                || fieldValue instanceof Short || fieldValue instanceof Byte
+                || fieldValue instanceof AtomicLong || fieldValue instanceof AtomicInteger) {
+            sink.writeDecimalLong(((Number) fieldValue).longValue()).writeByte('i');
+        }
+        else if (fieldValue instanceof BigInteger) {
+            sink.writeUtf8(fieldValue.toString()).writeByte('i');
+        }
+        else if (fieldValue instanceof UnsignedLong) {
+            sink.writeUtf8(fieldValue.toString()).writeByte('u');
+        }
+        else if ((fieldValue instanceof Double || fieldValue instanceof Float)
+                && !Double.isFinite(((Number) fieldValue).doubleValue())) {
+            throw new IllegalArgumentException("Field '" + fieldKey + "' has non-finite value "
+                    + fieldValue);
+        }
+        else if (fieldValue instanceof Number || fieldValue instanceof Boolean) {
+            sink.writeUtf8(fieldValue.toString());
+        }
+        else if (fieldValue instanceof String) {
+            sink.writeByte('"')
+                    .writeUtf8(LineProtocolEscaper.escapeStringFieldValue((String) fieldValue))
+                    .writeByte('"');
+        }
+        else {
+            throw new IllegalArgumentException("Field '" + fieldKey + "' has unsupported type "
+                    + (fieldValue == null ? null : fieldValue.getClass().getName()));
+        }
+    }
+
+    /**
+     * Writes the fields of a point, separated by commas, rethrowing write failures unchecked.
+     */
+    private final class FieldWriter implements BiConsumer<String, Object> {
+
+        private final BufferedSink sink;
+        private boolean firstField = true;
+
+        FieldWriter(BufferedSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(String fieldKey, Object fieldValue) {
+            try {
+                if (!firstField) {
+                    sink.writeByte(',');
+                }
+                sink.writeUtf8(LineProtocolEscaper.escapeFieldKey(fieldKey)).writeByte('=');
+                writeFieldValue(fieldKey, fieldValue, sink);
+                firstField = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the rows of a {@link PointBatch} as lines of line protocol.
+     * <p>
+     * The measurement name, the tag and field keys, and the values of constant tags are escaped
+     * once per batch, and field values are read straight from their primitive columns. Since
+     * InfluxDB rejects NaN and infinite floats, and would reject the whole request along with
+     * them, such values are left out, and a row with no other field values is not written at all.
      */
-    private String collectKeyValuePairs(Map<String, ?> map) {
-        return map.entrySet()
-                .stream()
-                .map(entry -> entry.getKey() + "=" + entry.getValue())
-                .collect(Collectors.joining(","));
+    private static final class BatchLineWriter {
+
+        private final PointBatch batch;
+        private final TimeUnit timestampUnit;
+
+        /**
+         * The encoded measurement name and constant tags which precede each varying tag, followed
+         * by the constant tags after the last varying tag.
+         */
+        private final ByteString[] constantParts;
+
+        /**
+         * The indices of the tags whose values vary between points.
+         */
+        private final int[] varyingTags;
+
+        /**
+         * The escaped key of each varying tag, between the separators of its value.
+         */
+        private final String[] varyingTagPrefixes;
+        private final String[] fieldKeys;
+
+        BatchLineWriter(PointBatch batch, Precision precision) {
+            this.batch = batch;
+            timestampUnit = precision.getTimeUnit();
+
+            List<ByteString> parts = new ArrayList<>();
+            List<Integer> varying = new ArrayList<>();
+            Buffer part = new Buffer().writeUtf8(
+                    LineProtocolEscaper.escapeMeasurementName(batch.getMeasurementName()));
+            for (int tag = 0; tag < batch.getTagCount(); tag++) {
+                if (batch.isConstantTag(tag)) {
+                    part.writeByte(',')
+                            .writeUtf8(LineProtocolEscaper.escapeTagKey(batch.getTagKey(tag)))
+                            .writeByte('=')
+                            .writeUtf8(LineProtocolEscaper.escapeTagValue(
+                                    batch.getTagValue(tag, 0)));
+                }
+                else {
+                    parts.add(part.readByteString());
+                    varying.add(tag);
+                }
+            }
+            parts.add(part.readByteString());
+            constantParts = parts.toArray(new ByteString[0]);
+
+            varyingTags = new int[varying.size()];
+            varyingTagPrefixes = new String[varyingTags.length];
+            for (int i = 0; i < varyingTags.length; i++) {
+                varyingTags[i] = varying.get(i);
+                String tagKey = batch.getTagKey(varyingTags[i]);
+                varyingTagPrefixes[i] = ',' + LineProtocolEscaper.escapeTagKey(tagKey) + '=';
+            }
+
+            fieldKeys = new String[batch.getFieldCount()];
+            for (int field = 0; field < fieldKeys.length; field++) {
+                fieldKeys[field] = LineProtocolEscaper.escapeFieldKey(batch.getFieldKey(field));
+            }
+        }
+
+        void writeLine(int row, BufferedSink sink) throws IOException {
+            if (!hasFieldValues(row)) {
+                return;
+            }
+
+            sink.write(constantParts[0]);
+            for (int i = 0; i < varyingTags.length; i++) {
+                String tagValue = batch.getTagValue(varyingTags[i], row);
+                if (tagValue != null) {
+                    sink.writeUtf8(varyingTagPrefixes[i])
+                            .writeUtf8(LineProtocolEscaper.escapeTagValue(tagValue));
+                }
+                sink.write(constantParts[i + 1]);
+            }
+
+            boolean firstField = true;
+            for (int field = 0; field < fieldKeys.length; field++) {
+                if (!hasValue(field, row)) {
+                    continue;
+                }
+
+                sink.writeByte(firstField ? ' ' : ',').writeUtf8(fieldKeys[field]).writeByte('=');
+                firstField = false;
+                switch (batch.getFieldType(field)) {
+                    case DOUBLE:
+                        sink.writeUtf8(Double.toString(batch.getDoubleValue(field, row)));
+                        break;
+                    case LONG:
+                        sink.writeDecimalLong(batch.getLongValue(field, row)).writeByte('i');
+                        break;
+                    default:
+                        sink.writeUtf8(batch.getBooleanValue(field, row) ? "true" : "false");
+                        break;
+                }
+            }
+
+            if (batch.hasTimestamps()) {
+                sink.writeByte(' ').writeDecimalLong(batch.getTimestamp(row, timestampUnit));
+            }
+            sink.writeByte('\n');
+        }
+
+        private boolean hasFieldValues(int row) {
+            for (int field = 0; field < fieldKeys.length; field++) {
+                if (hasValue(field, row)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasValue(int field, int row) {
+            return batch.getFieldType(field) != PointBatch.FieldType.DOUBLE
+                    || Double.isFinite(batch.getDoubleValue(field, row));
+        }
     }
 }
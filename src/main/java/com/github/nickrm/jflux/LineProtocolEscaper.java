@@ -0,0 +1,135 @@
+package com.github.nickrm.jflux;
+
+/**
+ * Escapes special characters in the elements of InfluxDB line protocol.
+ * <p>
+ * Each element is escaped in a single pass without the use of regular expressions. If an element
+ * does not contain any special characters, which is by far the most common case, it is returned as
+ * is without allocating a new string.
+ * <p>
+ * Whitespace characters other than the space character, e.g. tabs and line separators, cannot be
+ * part of a measurement name, tag or field key, or tag value, and are replaced by an escaped space.
+ *
+ * @see <a href="https://docs.influxdata.com/influxdb/v1.7/write_protocols/line_protocol_tutorial/">
+ * InfluxDB line protocol</a>
+ */
+final class LineProtocolEscaper {
+
+    private LineProtocolEscaper() {
+    }
+
+    /**
+     * Escapes commas and spaces in a measurement name.
+     *
+     * @param measurementName the measurement name to escape
+     *
+     * @return the escaped measurement name
+     */
+    static String escapeMeasurementName(String measurementName) {
+        return escape(measurementName, false);
+    }
+
+    /**
+     * Escapes commas, equals signs and spaces in a tag key.
+     *
+     * @param tagKey the tag key to escape
+     *
+     * @return the escaped tag key
+     */
+    static String escapeTagKey(String tagKey) {
+        return escape(tagKey, true);
+    }
+
+    /**
+     * Escapes commas, equals signs and spaces in a tag value.
+     *
+     * @param tagValue the tag value to escape
+     *
+     * @return the escaped tag value
+     */
+    static String escapeTagValue(String tagValue) {
+        return escape(tagValue, true);
+    }
+
+    /**
+     * Escapes commas, equals signs and spaces in a field key.
+     *
+     * @param fieldKey the field key to escape
+     *
+     * @return the escaped field key
+     */
+    static String escapeFieldKey(String fieldKey) {
+        return escape(fieldKey, true);
+    }
+
+    /**
+     * Escapes double quotes and backslashes in a string field value.
+     * <p>
+     * The surrounding double quotes of the value are not included in the result.
+     *
+     * @param fieldValue the string field value to escape
+     *
+     * @return the escaped string field value
+     */
+    static String escapeStringFieldValue(String fieldValue) {
+        int length = fieldValue.length();
+        int i = 0;
+        while (i < length && !isQuoteOrBackslash(fieldValue.charAt(i))) {
+            i++;
+        }
+
+        if (i == length) {
+            return fieldValue;
+        }
+
+        StringBuilder escaped = new StringBuilder(length + 8).append(fieldValue, 0, i);
+        for (; i < length; i++) {
+            char c = fieldValue.charAt(i);
+            if (isQuoteOrBackslash(c)) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static String escape(String value, boolean escapeEqualsSign) {
+        int length = value.length();
+        int i = 0;
+        while (i < length && !isSpecial(value.charAt(i), escapeEqualsSign)) {
+            i++;
+        }
+
+        if (i == length) {
+            return value;
+        }
+
+        StringBuilder escaped = new StringBuilder(length + 8).append(value, 0, i);
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (isWhitespace(c)) {
+                escaped.append("\\ ");
+            }
+            else if (isSpecial(c, escapeEqualsSign)) {
+                escaped.append('\\').append(c);
+            }
+            else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static boolean isSpecial(char c, boolean escapeEqualsSign) {
+        return c == ',' || (escapeEqualsSign && c == '=') || isWhitespace(c);
+    }
+
+    private static boolean isWhitespace(char c) {
+        // Same as the \s character class of regular expressions.
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isQuoteOrBackslash(char c) {
+        return c == '"' || c == '\\';
+    }
+}
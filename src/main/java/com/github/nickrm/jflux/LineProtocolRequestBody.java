@@ -0,0 +1,82 @@
+package com.github.nickrm.jflux;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+/**
+ * A request body which encodes line protocol straight into the request as it is being sent.
+ * <p>
+ * Since the content is only produced when the request is sent, the complete body never has to be
+ * held in memory. The content is produced anew every time the body is written, which makes the body
+ * safe to use with retried requests. Bodies created {@link #fromBuffer(Buffer) from line protocol
+ * which has already been encoded} report their size, so that it can be sent as the content length.
+ */
+final class LineProtocolRequestBody extends RequestBody {
+
+    private static final MediaType LINE_PROTOCOL_MEDIA_TYPE =
+            MediaType.get("application/octet-stream");
+
+    private final Content content;
+    private final long contentLength;
+
+    /**
+     * Initializes a new instance setting the content to be written, whose size is not known until
+     * it has been written.
+     *
+     * @param content writes the line protocol into the request
+     */
+    LineProtocolRequestBody(Content content) {
+        this(content, -1);
+    }
+
+    private LineProtocolRequestBody(Content content, long contentLength) {
+        this.content = content;
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Creates a body sending line protocol which has already been encoded, without copying it into
+     * a contiguous array.
+     * <p>
+     * The segments of the buffer are shared with the request every time it is written, rather
+     * than consumed, so the body can still be sent again if the request is retried. The buffer
+     * must not be modified afterwards.
+     *
+     * @param lineProtocol the encoded line protocol
+     *
+     * @return the request body
+     */
+    static LineProtocolRequestBody fromBuffer(Buffer lineProtocol) {
+        return new LineProtocolRequestBody(sink -> {
+            lineProtocol.copyTo(sink.buffer(), 0, lineProtocol.size());
+            sink.emitCompleteSegments();
+        }, lineProtocol.size());
+    }
+
+    @Override
+    public MediaType contentType() {
+        return LINE_PROTOCOL_MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        content.writeTo(sink);
+    }
+
+    /**
+     * Writes the line protocol of a request body.
+     */
+    interface Content {
+
+        void writeTo(BufferedSink sink) throws IOException;
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.nickrm.jflux;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import com.github.nickrm.jflux.codec.PointWriter;
+import com.github.nickrm.jflux.domain.Precision;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+
+/**
+ * A {@link PointWriter} which encodes the values written to it as a line of line protocol.
+ * <p>
+ * Fields are encoded as they are written, while tags are held until the line is complete so that
+ * they can be sorted by key. The writer is reset after every line, so a single instance can encode
+ * any number of objects of the same measurement without creating a {@link
+ * com.github.nickrm.jflux.domain.Point Point} for each of them.
+ */
+final class LineProtocolWriter implements PointWriter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ByteString measurementName;
+    private final TimeUnit timestampUnit;
+    private final Buffer fields = new Buffer();
+    private String[] tagKeys = new String[8];
+    private String[] tagValues = new String[8];
+    private int tagCount;
+    private boolean hasTimestamp;
+    private long timestamp;
+
+    /**
+     * Initializes a new writer for lines of the specified measurement.
+     *
+     * @param measurementName the measurement to write to
+     * @param precision       the precision to write timestamps in
+     */
+    LineProtocolWriter(String measurementName, Precision precision) {
+        this.measurementName =
+                ByteString.encodeUtf8(LineProtocolEscaper.escapeMeasurementName(measurementName));
+        timestampUnit = precision.getTimeUnit();
+    }
+
+    @Override
+    public void tag(String tagKey, String tagValue) {
+        if (tagCount == tagKeys.length) {
+            tagKeys = Arrays.copyOf(tagKeys, tagCount * 2);
+            tagValues = Arrays.copyOf(tagValues, tagCount * 2);
+        }
+
+        tagKeys[tagCount] = tagKey;
+        tagValues[tagCount] = tagValue;
+        tagCount++;
+    }
+
+    @Override
+    public void field(String fieldKey, long fieldValue) {
+        writeFieldKey(fieldKey).writeDecimalLong(fieldValue).writeByte('i');
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the value is NaN or infinite, which InfluxDB rejects
+     */
+    @Override
+    public void field(String fieldKey, double fieldValue) {
+        if (!Double.isFinite(fieldValue)) {
+            throw new IllegalArgumentException("Field '" + fieldKey + "' has non-finite value "
+                    + fieldValue);
+        }
+
+        writeFieldKey(fieldKey).writeUtf8(Double.toString(fieldValue));
+    }
+
+    @Override
+    public void field(String fieldKey, boolean fieldValue) {
+        writeFieldKey(fieldKey).writeUtf8(fieldValue ? "true" : "false");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the value is not of a type supported by InfluxDB, or is
+     *                                  a NaN or infinite floating point number
+     */
+    @Override
+    public void field(String fieldKey, Object fieldValue) {
+        try {
+            LineProtocolConverter.writeFieldValue(fieldKey, fieldValue, writeFieldKey(fieldKey));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write to buffer", e);
+        }
+    }
+
+    private Buffer writeFieldKey(String fieldKey) {
+        if (fields.size() > 0) {
+            fields.writeByte(',');
+        }
+        return fields.writeUtf8(LineProtocolEscaper.escapeFieldKey(fieldKey)).writeByte('=');
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the timestamp cannot be represented in nanoseconds
+     */
+    @Override
+    public void timestamp(Instant timestamp) {
+        if (timestamp == null) {
+            hasTimestamp = false;
+            return;
+        }
+
+        try {
+            long nanos = Math.addExact(
+                    Math.multiplyExact(timestamp.getEpochSecond(), NANOS_PER_SECOND),
+                    timestamp.getNano());
+            this.timestamp = timestampUnit.convert(nanos, TimeUnit.NANOSECONDS);
+            hasTimestamp = true;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Timestamp out of range: " + timestamp, e);
+        }
+    }
+
+    /**
+     * Checks whether any fields have been written since the last line.
+     *
+     * @return {@code true} if at least one field has been written, {@code false} otherwise
+     */
+    boolean hasFields() {
+        return fields.size() > 0;
+    }
+
+    /**
+     * Writes the line of the values written so far, including the line separator, and resets the
+     * writer for the next line.
+     *
+     * @param sink the sink to write to
+     *
+     * @throws IOException if writing to the sink fails
+     */
+    void writeLine(BufferedSink sink) throws IOException {
+        sortTags();
+
+        sink.write(measurementName);
+        for (int i = 0; i < tagCount; i++) {
+            sink.writeByte(',')
+                    .writeUtf8(LineProtocolEscaper.escapeTagKey(tagKeys[i]))
+                    .writeByte('=')
+                    .writeUtf8(LineProtocolEscaper.escapeTagValue(tagValues[i]));
+        }
+        sink.writeByte(' ').write(fields, fields.size());
+        if (hasTimestamp) {
+            sink.writeByte(' ').writeDecimalLong(timestamp);
+        }
+        sink.writeByte('\n');
+
+        reset();
+    }
+
+    /**
+     * Discards the values written since the last line.
+     */
+    void reset() {
+        fields.clear();
+        Arrays.fill(tagKeys, 0, tagCount, null);
+        Arrays.fill(tagValues, 0, tagCount, null);
+        tagCount = 0;
+        hasTimestamp = false;
+    }
+
+    private void sortTags() {
+        // Objects have only a few tags, which are usually written in the same order, so an
+        // insertion sort is cheaper than sorting through a collection.
+        for (int i = 1; i < tagCount; i++) {
+            String key = tagKeys[i];
+            String value = tagValues[i];
+            int j = i - 1;
+            while (j >= 0 && tagKeys[j].compareTo(key) > 0) {
+                tagKeys[j + 1] = tagKeys[j];
+                tagValues[j + 1] = tagValues[j];
+                j--;
+            }
+            tagKeys[j + 1] = key;
+            tagValues[j + 1] = value;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.nickrm.jflux;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import com.github.nickrm.jflux.annotation.exception.AnnotationProcessingException;
+
+/**
+ * Reads and writes the value of a class member through method handles.
+ * <p>
+ * The handles are created once from the member, so unlike {@link Field#get(Object)} and
+ * {@link Field#set(Object, Object)} no access checks are done on every call. Members of type
+ * {@code int}, {@code long}, {@code double} or {@code boolean} can also be read without boxing
+ * their values.
+ */
+final class MemberAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field member;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle primitiveGetter;
+
+    /**
+     * Initializes a new accessor for the specified member, making the member accessible.
+     *
+     * @param member the member to access
+     *
+     * @throws AnnotationProcessingException if the member cannot be read
+     */
+    MemberAccessor(Field member) {
+        this.member = member;
+        member.setAccessible(true);
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            getter = adapt(member, lookup.unreflectGetter(member), GETTER_TYPE);
+            primitiveGetter = member.getType().isPrimitive()
+                    ? adapt(member, lookup.unreflectGetter(member),
+                            MethodType.methodType(widen(member.getType()), Object.class))
+                    : null;
+        } catch (IllegalAccessException e) {
+            throw new AnnotationProcessingException("Could not access " + member, e);
+        }
+        setter = findSetter(lookup, member);
+    }
+
+    private static MethodHandle findSetter(MethodHandles.Lookup lookup, Field member) {
+        try {
+            return adapt(member, lookup.unreflectSetter(member), SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            // Final members can only be set through reflection.
+            return null;
+        }
+    }
+
+    private static MethodHandle adapt(Field member, MethodHandle handle, MethodType type) {
+        if (Modifier.isStatic(member.getModifiers())) {
+            // Static members take no target, so accept and ignore one.
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    private static Class<?> widen(Class<?> primitiveType) {
+        if (primitiveType == boolean.class) {
+            return boolean.class;
+        }
+        else if (primitiveType == double.class || primitiveType == float.class) {
+            return double.class;
+        }
+        else {
+            return long.class;
+        }
+    }
+
+    /**
+     * Gets the member this accessor was created for.
+     *
+     * @return the accessed member
+     */
+    Field getMember() {
+        return member;
+    }
+
+    /**
+     * Gets the value of the member.
+     *
+     * @param target the object to read the member of, ignored for static members
+     *
+     * @return the value of the member, boxed if it is of a primitive type
+     */
+    Object get(Object target) {
+        try {
+            return getter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Gets the value of a member of an integer type, e.g. {@code int} or {@code long}, without
+     * boxing it.
+     *
+     * @param target the object to read the member of, ignored for static members
+     *
+     * @return the value of the member
+     *
+     * @throws ClassCastException if the member is not of an integer type
+     */
+    long getLong(Object target) {
+        try {
+            return (long) primitiveGetter(long.class).invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Gets the value of a member of type {@code float} or {@code double} without boxing it.
+     *
+     * @param target the object to read the member of, ignored for static members
+     *
+     * @return the value of the member
+     *
+     * @throws ClassCastException if the member is not of a floating point type
+     */
+    double getDouble(Object target) {
+        try {
+            return (double) primitiveGetter(double.class).invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Gets the value of a member of type {@code boolean} without boxing it.
+     *
+     * @param target the object to read the member of, ignored for static members
+     *
+     * @return the value of the member
+     *
+     * @throws ClassCastException if the member is not of type {@code boolean}
+     */
+    boolean getBoolean(Object target) {
+        try {
+            return (boolean) primitiveGetter(boolean.class).invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private MethodHandle primitiveGetter(Class<?> type) {
+        if (primitiveGetter == null || primitiveGetter.type().returnType() != type) {
+            throw new ClassCastException(member + " cannot be read as " + type);
+        }
+        return primitiveGetter;
+    }
+
+    /**
+     * Sets the value of the member.
+     * <p>
+     * Values which the method handle cannot convert to the member's type, e.g. an {@code Integer}
+     * for a {@code long} member, are set through reflection instead, which also applies widening
+     * conversions.
+     *
+     * @param target the object to set the member of, ignored for static members
+     * @param value  the value to set
+     *
+     * @throws IllegalArgumentException if the value cannot be converted to the member's type
+     * @throws IllegalAccessException   if the member is final and static
+     */
+    void set(Object target, Object value) throws IllegalAccessException {
+        if (setter != null && (value != null || !member.getType().isPrimitive())) {
+            try {
+                setter.invokeExact(target, value);
+                return;
+            } catch (ClassCastException e) {
+                // Fall back to reflection below.
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+        member.set(target, value);
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new AnnotationProcessingException("Could not access member", e);
+    }
+}
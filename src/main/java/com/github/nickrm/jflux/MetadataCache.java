@@ -0,0 +1,104 @@
+package com.github.nickrm.jflux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches metadata queried from InfluxDB, e.g. the existing databases, for a fixed time.
+ * <p>
+ * Values expire once the time to live has passed since they were cached. With a time to live of
+ * zero nothing is cached, so every lookup misses.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values, which should be immutable
+ */
+final class MetadataCache<K, V> {
+
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes a new cache with the specified time to live.
+     *
+     * @param ttl how long values are cached for
+     */
+    MetadataCache(Duration ttl) {
+        this(ttl, System::nanoTime);
+    }
+
+    /**
+     * Initializes a new cache with the specified time to live and time source.
+     *
+     * @param ttl      how long values are cached for
+     * @param nanoTime the time source, as for {@link System#nanoTime()}
+     */
+    MetadataCache(Duration ttl, LongSupplier nanoTime) {
+        ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Gets the value cached for the specified key, unless it has expired.
+     *
+     * @param key the key to look up
+     *
+     * @return the cached value, or {@code null} if there is none
+     */
+    V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (nanoTime.getAsLong() - entry.cachedAt >= ttlNanos) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Caches a value for the specified key, replacing any value already cached.
+     *
+     * @param key   the key to cache the value for
+     * @param value the value to cache
+     *
+     * @return the value
+     */
+    V put(K key, V value) {
+        if (ttlNanos > 0) {
+            entries.put(key, new Entry<>(value, nanoTime.getAsLong()));
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value cached for the specified key, if any.
+     *
+     * @param key the key to remove
+     */
+    void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long cachedAt;
+
+        Entry(V value, long cachedAt) {
+            this.value = value;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
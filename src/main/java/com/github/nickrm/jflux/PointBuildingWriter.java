@@ -0,0 +1,64 @@
+package com.github.nickrm.jflux;
+
+import java.time.Instant;
+
+import com.github.nickrm.jflux.codec.PointWriter;
+import com.github.nickrm.jflux.domain.Point;
+
+/**
+ * A {@link PointWriter} which builds a {@link Point} from the values written to it.
+ */
+final class PointBuildingWriter implements PointWriter {
+
+    private final Point.Builder builder = new Point.Builder();
+    private boolean hasFields;
+
+    @Override
+    public void tag(String tagKey, String tagValue) {
+        builder.tag(tagKey, tagValue);
+    }
+
+    @Override
+    public void field(String fieldKey, long fieldValue) {
+        field(fieldKey, (Object) fieldValue);
+    }
+
+    @Override
+    public void field(String fieldKey, double fieldValue) {
+        field(fieldKey, (Object) fieldValue);
+    }
+
+    @Override
+    public void field(String fieldKey, boolean fieldValue) {
+        field(fieldKey, (Object) fieldValue);
+    }
+
+    @Override
+    public void field(String fieldKey, Object fieldValue) {
+        builder.field(fieldKey, fieldValue);
+        hasFields = true;
+    }
+
+    @Override
+    public void timestamp(Instant timestamp) {
+        builder.timestamp(timestamp);
+    }
+
+    /**
+     * Checks whether any fields have been written.
+     *
+     * @return {@code true} if at least one field has been written, {@code false} otherwise
+     */
+    boolean hasFields() {
+        return hasFields;
+    }
+
+    /**
+     * Builds a point from the values written so far.
+     *
+     * @return the point
+     */
+    Point toPoint() {
+        return builder.build();
+    }
+}
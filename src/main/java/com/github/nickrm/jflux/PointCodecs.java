@@ -0,0 +1,64 @@
+package com.github.nickrm.jflux;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+
+import com.github.nickrm.jflux.annotation.exception.AnnotationProcessingException;
+import com.github.nickrm.jflux.codec.PointCodec;
+
+/**
+ * Finds the {@link PointCodec PointCodecs} generated for annotated classes.
+ * <p>
+ * Each class is looked up once, and the codec found, if any, is reused for all of its instances.
+ */
+final class PointCodecs {
+
+    private static final String CODEC_SUFFIX = "_PointCodec";
+
+    private static final ClassValue<Optional<PointCodec<?>>> CODECS =
+            new ClassValue<Optional<PointCodec<?>>>() {
+                @Override
+                protected Optional<PointCodec<?>> computeValue(Class<?> type) {
+                    return Optional.ofNullable(loadCodec(type));
+                }
+            };
+
+    private PointCodecs() {
+    }
+
+    /**
+     * Gets the codec generated for the specified class.
+     *
+     * @param type the class to get the codec for
+     * @param <T>  the type of the class
+     *
+     * @return the codec, or {@code null} if none was generated for the class
+     *
+     * @throws AnnotationProcessingException if the generated codec cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    static <T> PointCodec<T> forClass(Class<T> type) {
+        return (PointCodec<T>) CODECS.get(type).orElse(null);
+    }
+
+    private static PointCodec<?> loadCodec(Class<?> type) {
+        Class<?> codecClass;
+        try {
+            codecClass = Class.forName(type.getName() + CODEC_SUFFIX, true,
+                    type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+
+        if (!PointCodec.class.isAssignableFrom(codecClass)) {
+            return null;
+        }
+
+        try {
+            return (PointCodec<?>) codecClass.getConstructor().newInstance();
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new AnnotationProcessingException("Could not instantiate " + codecClass, e);
+        }
+    }
+}
@@ -33,13 +33,13 @@ final class RetentionPolicyConverter {
             throw new IllegalArgumentException("Point cannot be null");
         }
 
-        String retentionPolicyName = point.getTags().get("name");
-        Duration duration = durationConverter.parseDuration(point.getTags().get("duration"));
-        int replication = Integer.parseInt(String.valueOf(point.getFields().get("replicaN")));
+        String retentionPolicyName = point.getTag("name");
+        Duration duration = durationConverter.parseDuration(point.getTag("duration"));
+        int replication = Integer.parseInt(String.valueOf(point.getField("replicaN")));
         Duration shardDuration =
-                durationConverter.parseDuration(point.getTags().get("shardGroupDuration"));
+                durationConverter.parseDuration(point.getTag("shardGroupDuration"));
         boolean isDefault =
-                Boolean.parseBoolean(String.valueOf(point.getFields().get("default")));
+                Boolean.parseBoolean(String.valueOf(point.getField("default")));
 
         return new RetentionPolicy.Builder(retentionPolicyName, duration).replication(replication)
                 .shardDuration(shardDuration)
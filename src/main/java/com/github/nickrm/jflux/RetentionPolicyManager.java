@@ -1,5 +1,8 @@
 package com.github.nickrm.jflux;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,6 +14,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Handles retention policy management functionality.
+ * <p>
+ * The retention policies of each database can optionally be cached, in which case the cache of a
+ * database is discarded whenever one of its retention policies is created, altered or dropped
+ * through this instance.
  */
 final class RetentionPolicyManager {
 
@@ -18,10 +25,32 @@ final class RetentionPolicyManager {
 
     private final JFluxHttpClient httpClient;
     private final ApiCaller apiCaller;
+    private final MetadataCache<String, List<RetentionPolicy>> retentionPolicyCache;
 
+    /**
+     * Initializes a new instance which queries the retention policies every time.
+     *
+     * @param httpClient the InfluxDB HTTP API client
+     */
     RetentionPolicyManager(JFluxHttpClient httpClient) {
+        this(httpClient, Duration.ZERO);
+    }
+
+    /**
+     * Initializes a new instance which caches the retention policies of each database for the
+     * specified time.
+     * <p>
+     * Retention policies which are not found in the cache are looked up again, so that retention
+     * policies created by other clients are found regardless of the cache. Changes made by other
+     * clients to existing retention policies may not be seen until the cache expires.
+     *
+     * @param httpClient the InfluxDB HTTP API client
+     * @param cacheTtl   how long to cache the retention policies for
+     */
+    RetentionPolicyManager(JFluxHttpClient httpClient, Duration cacheTtl) {
         this.httpClient = httpClient;
         apiCaller = new ApiCaller();
+        retentionPolicyCache = new MetadataCache<>(cacheTtl);
     }
 
     /**
@@ -38,16 +67,10 @@ final class RetentionPolicyManager {
             throw new IllegalArgumentException("Database name cannot be null");
         }
 
-        String query = "SHOW RETENTION POLICIES ON \"" + databaseName + "\"";
-        Measurement queryResult = apiCaller.callApi(() -> httpClient.query(query));
-
-        RetentionPolicyConverter converter = new RetentionPolicyConverter();
-        List<RetentionPolicy> retentionPolicies = queryResult.getPoints()
-                .stream()
-                .map(converter::parsePoint)
-                .collect(Collectors.toList());
-        LOGGER.debug("Found retention policies {} on '{}'", retentionPolicies, databaseName);
-        return retentionPolicies;
+        List<RetentionPolicy> retentionPolicies = retentionPolicyCache.getIfPresent(databaseName);
+        return new ArrayList<>(retentionPolicies != null
+                ? retentionPolicies
+                : queryRetentionPolicies(databaseName));
     }
 
     /**
@@ -66,10 +89,15 @@ final class RetentionPolicyManager {
             throw new IllegalArgumentException("Retention policy cannot be null");
         }
 
-        return getRetentionPolicies(databaseName).stream()
-                .filter(rp -> rp.getName().equals(retentionPolicyName))
-                .findFirst()
-                .orElse(null);
+        if (databaseName == null) {
+            throw new IllegalArgumentException("Database name cannot be null");
+        }
+
+        RetentionPolicy retentionPolicy = find(retentionPolicyName,
+                retentionPolicyCache.getIfPresent(databaseName));
+        return retentionPolicy != null
+                ? retentionPolicy
+                : find(retentionPolicyName, queryRetentionPolicies(databaseName));
     }
 
     /**
@@ -81,12 +109,55 @@ final class RetentionPolicyManager {
      *
      * @return {@code true} if the retention policy exists, {@code false} otherwise
      *
-     * @throws NullPointerException if the retention policy or database names are null
+     * @throws IllegalArgumentException if the retention policy or database names are null
      */
     boolean retentionPolicyExists(String retentionPolicyName, String databaseName) {
         return getRetentionPolicy(retentionPolicyName, databaseName) != null;
     }
 
+    /**
+     * Discards the cached retention policies of the specified database, so that they are queried
+     * again on the next lookup.
+     *
+     * @param databaseName the database to discard the retention policies of
+     */
+    void invalidateCache(String databaseName) {
+        retentionPolicyCache.invalidate(databaseName);
+    }
+
+    /**
+     * Discards the cached retention policies of all databases.
+     */
+    void invalidateCache() {
+        retentionPolicyCache.invalidateAll();
+    }
+
+    private List<RetentionPolicy> queryRetentionPolicies(String databaseName) {
+        String query = "SHOW RETENTION POLICIES ON \"" + databaseName + "\"";
+        Measurement queryResult = apiCaller.callApi(() -> httpClient.queryMetadata(query));
+
+        RetentionPolicyConverter converter = new RetentionPolicyConverter();
+        List<RetentionPolicy> retentionPolicies = queryResult.getPoints()
+                .stream()
+                .map(converter::parsePoint)
+                .collect(Collectors.toList());
+        LOGGER.debug("Found retention policies {} on '{}'", retentionPolicies, databaseName);
+        return retentionPolicyCache.put(databaseName,
+                Collections.unmodifiableList(retentionPolicies));
+    }
+
+    private static RetentionPolicy find(String retentionPolicyName,
+            List<RetentionPolicy> retentionPolicies) {
+        if (retentionPolicies == null) {
+            return null;
+        }
+
+        return retentionPolicies.stream()
+                .filter(rp -> rp.getName().equals(retentionPolicyName))
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * Creates a new retention policy on the specified database.
      *
@@ -113,7 +184,11 @@ final class RetentionPolicyManager {
                 + " SHARD DURATION " + durationConverter.toLiteral(
                 retentionPolicy.getShardDuration())
                 + (retentionPolicy.isDefault() ? " DEFAULT" : "");
-        apiCaller.callApi(() -> httpClient.execute(statement));
+        try {
+            apiCaller.callApi(() -> httpClient.execute(statement));
+        } finally {
+            invalidateCache(databaseName);
+        }
         LOGGER.info("Created retention policy {} on '{}'", retentionPolicy, databaseName);
     }
 
@@ -156,7 +231,11 @@ final class RetentionPolicyManager {
                 + " SHARD DURATION " + durationConverter.toLiteral(
                 newDefinition.getShardDuration())
                 + (newDefinition.isDefault() ? " DEFAULT" : "");
-        apiCaller.callApi(() -> httpClient.execute(statement));
+        try {
+            apiCaller.callApi(() -> httpClient.execute(statement));
+        } finally {
+            invalidateCache(databaseName);
+        }
         LOGGER.info("Updated '{}'.'{}' to {}", databaseName, retentionPolicyName, newDefinition);
     }
 
@@ -180,7 +259,11 @@ final class RetentionPolicyManager {
 
         String statement =
                 "DROP RETENTION POLICY \"" + retentionPolicyName + "\" ON \"" + databaseName + '"';
-        apiCaller.callApi(() -> httpClient.execute(statement));
+        try {
+            apiCaller.callApi(() -> httpClient.execute(statement));
+        } finally {
+            invalidateCache(databaseName);
+        }
         LOGGER.info("Dropped retention policy '{}' on '{}'", retentionPolicyName, databaseName);
     }
 }
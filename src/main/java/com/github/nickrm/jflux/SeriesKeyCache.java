@@ -0,0 +1,132 @@
+package com.github.nickrm.jflux;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import okio.ByteString;
+
+/**
+ * Caches the encoded series keys, i.e. the escaped measurement name and tag set, of points.
+ * <p>
+ * The tags of a series key are always sorted by key, so that a series has a single canonical key
+ * regardless of the order of the tags in the points.
+ * <p>
+ * Points are typically written to a limited number of series over and over again, so caching
+ * their series keys saves escaping and joining the same measurement names and tags for every
+ * point. The cache is bounded, evicting the least recently used series key once full.
+ * <p>
+ * This class is thread safe.
+ */
+final class SeriesKeyCache {
+
+    private final Map<SeriesId, ByteString> seriesKeys;
+
+    /**
+     * Initializes a new instance setting the maximum number of series keys to cache.
+     *
+     * @param maxSize the maximum number of cached series keys
+     */
+    SeriesKeyCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+
+        seriesKeys = new LinkedHashMap<SeriesId, ByteString>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SeriesId, ByteString> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the series key of the specified measurement and tags, encoding it if not cached.
+     *
+     * @param measurementName the measurement name
+     * @param tags            the tags, which must not be modified afterwards
+     *
+     * @return the UTF-8 encoded series key
+     */
+    ByteString get(String measurementName, Map<String, String> tags) {
+        SeriesId seriesId = new SeriesId(measurementName, tags);
+        ByteString seriesKey;
+        synchronized (seriesKeys) {
+            seriesKey = seriesKeys.get(seriesId);
+        }
+
+        if (seriesKey == null) {
+            seriesKey = ByteString.encodeUtf8(toSeriesKey(measurementName, tags));
+            synchronized (seriesKeys) {
+                seriesKeys.put(seriesId, seriesKey);
+            }
+        }
+        return seriesKey;
+    }
+
+    /**
+     * Gets the number of currently cached series keys.
+     *
+     * @return the number of series keys
+     */
+    int size() {
+        synchronized (seriesKeys) {
+            return seriesKeys.size();
+        }
+    }
+
+    private String toSeriesKey(String measurementName, Map<String, String> tags) {
+        String escapedMeasurementName = LineProtocolEscaper.escapeMeasurementName(measurementName);
+        if (tags.isEmpty()) {
+            return escapedMeasurementName;
+        }
+
+        // InfluxDB ingests points faster when their tags are already sorted by key.
+        String[] tagKeys = tags.keySet().toArray(new String[0]);
+        Arrays.sort(tagKeys);
+
+        StringBuilder seriesKey = new StringBuilder(escapedMeasurementName);
+        for (String tagKey : tagKeys) {
+            seriesKey.append(',')
+                    .append(LineProtocolEscaper.escapeTagKey(tagKey))
+                    .append('=')
+                    .append(LineProtocolEscaper.escapeTagValue(tags.get(tagKey)));
+        }
+        return seriesKey.toString();
+    }
+
+    /**
+     * Identifies a series by its unescaped measurement name and tags.
+     */
+    private static final class SeriesId {
+
+        private final String measurementName;
+        private final Map<String, String> tags;
+        private final int hashCode;
+
+        private SeriesId(String measurementName, Map<String, String> tags) {
+            this.measurementName = measurementName;
+            this.tags = tags;
+            hashCode = Objects.hash(measurementName, tags);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SeriesId seriesId = (SeriesId) o;
+            return measurementName.equals(seriesId.measurementName)
+                    && tags.equals(seriesId.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -10,7 +10,9 @@ import java.lang.annotation.Target;
  * Indicates that a class member should be written and read as a field in InfluxDB.
  * <p>
  * Annotated classes must have at least one member annotated as a field. Annotated members with
- * {@code null} values are ignored. Note that only numeric and boolean types can be fields.
+ * {@code null} values are ignored. Note that only numeric, boolean and {@code String} types can be
+ * fields. Integer types are written as InfluxDB integers, and
+ * {@link com.github.nickrm.jflux.domain.UnsignedLong} as unsigned integers.
  *
  * @since 1.0.0
  */
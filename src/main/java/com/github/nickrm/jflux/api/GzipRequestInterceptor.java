@@ -0,0 +1,77 @@
+package com.github.nickrm.jflux.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Intercepts requests to the InfluxDB API compressing their bodies with gzip.
+ * <p>
+ * Only bodies of at least a certain size are compressed, since compressing small bodies is not
+ * worth the overhead. Bodies of unknown size, i.e. bodies which are encoded while being sent, are
+ * always compressed. Compression is streaming, so the uncompressed body is never held in memory.
+ */
+final class GzipRequestInterceptor implements Interceptor {
+
+    private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+    private final long threshold;
+
+    /**
+     * Initializes a new instance setting the minimum size of bodies to compress.
+     *
+     * @param threshold the minimum number of bytes in a body for it to be compressed
+     */
+    GzipRequestInterceptor(long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request originalRequest = chain.request();
+        RequestBody body = originalRequest.body();
+        if (body == null || originalRequest.header(CONTENT_ENCODING_HEADER) != null) {
+            return chain.proceed(originalRequest);
+        }
+
+        long contentLength = body.contentLength();
+        if (contentLength != -1 && contentLength < threshold) {
+            return chain.proceed(originalRequest);
+        }
+
+        Request request = originalRequest.newBuilder()
+                .header(CONTENT_ENCODING_HEADER, "gzip")
+                .method(originalRequest.method(), gzip(body))
+                .build();
+        return chain.proceed(request);
+    }
+
+    private RequestBody gzip(RequestBody body) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                // Not known until the body has been compressed.
+                return -1;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (BufferedSink gzipSink = Okio.buffer(new GzipSink(sink))) {
+                    body.writeTo(gzipSink);
+                }
+            }
+        };
+    }
+}
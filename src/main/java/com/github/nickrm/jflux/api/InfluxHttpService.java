@@ -21,8 +21,10 @@ import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * Provides the definition for the InfluxDB HTTP API.
@@ -33,15 +35,56 @@ interface InfluxHttpService {
     Call<ResponseBody> ping();
 
     /**
-     * Queries data from InfluxDB.
+     * Queries data from InfluxDB, with timestamps as nanoseconds since the epoch.
      *
      * @param query the query to execute
      *
      * @return the query result
      */
-    @GET("/query")
+    @GET("/query?epoch=ns")
     Call<ResponseBody> query(@Query("q") String query);
 
+    /**
+     * Queries data from InfluxDB as JSON, regardless of the configured response format, with
+     * timestamps as nanoseconds since the epoch.
+     *
+     * @param query the query to execute
+     *
+     * @return the query result
+     */
+    @Headers("Accept: application/json")
+    @GET("/query?epoch=ns")
+    Call<ResponseBody> queryJson(@Query("q") String query);
+
+    /**
+     * Queries data from InfluxDB, returning the results in chunks of the specified number of
+     * points, with timestamps as nanoseconds since the epoch. The response body is not buffered,
+     * so it can be read while it is being received.
+     *
+     * @param query     the query to execute
+     * @param chunkSize the maximum number of points per chunk
+     *
+     * @return the query result
+     */
+    @Streaming
+    @GET("/query?chunked=true&epoch=ns")
+    Call<ResponseBody> queryChunked(@Query("q") String query, @Query("chunk_size") int chunkSize);
+
+    /**
+     * Queries data from InfluxDB as CSV, returning the results in chunks of the specified number
+     * of points, with timestamps as nanoseconds since the epoch. The response body is not
+     * buffered, so it can be read while it is being received.
+     *
+     * @param query     the query to execute
+     * @param chunkSize the maximum number of points per chunk
+     *
+     * @return the query result
+     */
+    @Streaming
+    @Headers("Accept: application/csv")
+    @GET("/query?chunked=true&epoch=ns")
+    Call<ResponseBody> queryCsv(@Query("q") String query, @Query("chunk_size") int chunkSize);
+
     /**
      * Executes DDL statements against InfluxDB.
      *
@@ -75,4 +118,31 @@ interface InfluxHttpService {
     @POST("/write")
     Call<ResponseBody> write(@Query("db") String db, @Query("rp") String rp,
             @Body RequestBody requestBody);
+
+    /**
+     * Writes point(s) with timestamps of the specified precision to InfluxDB.
+     *
+     * @param db          the database to write to
+     * @param precision   the precision of the points' timestamps
+     * @param requestBody the points to write
+     *
+     * @return the result of the call
+     */
+    @POST("/write")
+    Call<ResponseBody> writeWithPrecision(@Query("db") String db,
+            @Query("precision") String precision, @Body RequestBody requestBody);
+
+    /**
+     * Writes point(s) with timestamps of the specified precision to InfluxDB.
+     *
+     * @param db          the database to write to
+     * @param rp          the retention policy to use
+     * @param precision   the precision of the points' timestamps
+     * @param requestBody the points to write
+     *
+     * @return the result of the call
+     */
+    @POST("/write")
+    Call<ResponseBody> writeWithPrecision(@Query("db") String db, @Query("rp") String rp,
+            @Query("precision") String precision, @Body RequestBody requestBody);
 }
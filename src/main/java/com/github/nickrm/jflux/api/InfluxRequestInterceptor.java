@@ -2,6 +2,8 @@ package com.github.nickrm.jflux.api;
 
 import java.io.IOException;
 
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.domain.ResponseFormat;
 import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.Request;
@@ -12,16 +14,49 @@ import okhttp3.Response;
  */
 final class InfluxRequestInterceptor implements Interceptor {
 
+    private final Precision precision;
+    private final ResponseFormat responseFormat;
+
+    /**
+     * Initializes a new instance setting the precision to add to requests.
+     *
+     * @param precision the precision used by requests which do not specify one
+     */
+    InfluxRequestInterceptor(Precision precision) {
+        this(precision, ResponseFormat.JSON);
+    }
+
+    /**
+     * Initializes a new instance setting the precision to add to requests, and the format to
+     * request query results in.
+     *
+     * @param precision      the precision used by requests which do not specify one
+     * @param responseFormat the format requested by queries which do not specify one
+     */
+    InfluxRequestInterceptor(Precision precision, ResponseFormat responseFormat) {
+        this.precision = precision;
+        this.responseFormat = responseFormat;
+    }
+
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request originalRequest = chain.request();
+        Request.Builder requestBuilder = originalRequest.newBuilder();
 
         HttpUrl originalUrl = originalRequest.url();
-        HttpUrl url = originalUrl.newBuilder()
-                .addQueryParameter("precision", "ms")
-                .build();
+        if (originalUrl.queryParameter("precision") == null) {
+            requestBuilder.url(originalUrl.newBuilder()
+                    .addQueryParameter("precision", precision.getIdentifier())
+                    .build());
+        }
+
+        // Only queries return results, while other requests report errors in the same format.
+        if (originalRequest.method().equals("GET")
+                && originalUrl.encodedPath().equals("/query")
+                && originalRequest.header("Accept") == null) {
+            requestBuilder.header("Accept", responseFormat.getMediaType());
+        }
 
-        Request request = originalRequest.newBuilder().url(url).build();
-        return chain.proceed(request);
+        return chain.proceed(requestBuilder.build());
     }
 }
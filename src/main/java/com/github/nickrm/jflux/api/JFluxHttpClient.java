@@ -17,10 +17,14 @@
 package com.github.nickrm.jflux.api;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import com.github.nickrm.jflux.api.converter.ApiResponseConverter;
 import com.github.nickrm.jflux.api.exception.IllegalStatementException;
@@ -29,6 +33,9 @@ import com.github.nickrm.jflux.api.response.ApiResponse;
 import com.github.nickrm.jflux.api.response.QueryResult;
 import com.github.nickrm.jflux.api.response.ResponseMetadata;
 import com.github.nickrm.jflux.domain.Measurement;
+import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.domain.ResponseFormat;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
@@ -59,6 +66,7 @@ public final class JFluxHttpClient implements AutoCloseable {
     private final InfluxHttpService service;
     private final ApiResponseConverter responseConverter;
     private String hostUrl;
+    private Precision precision = Precision.MILLISECONDS;
 
     /**
      * Initializes a new instance setting the service to be used for calls to the API.
@@ -80,6 +88,17 @@ public final class JFluxHttpClient implements AutoCloseable {
         return hostUrl;
     }
 
+    /**
+     * Gets the precision of timestamps in writes which do not specify a precision.
+     *
+     * @return the default write precision
+     *
+     * @since 1.1.0
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+
     /**
      * Tests the connection to the InfluxDB API and returns the result.
      *
@@ -188,6 +207,91 @@ public final class JFluxHttpClient implements AutoCloseable {
         return response;
     }
 
+    /**
+     * Executes a single statement, single series query about the database structure, e.g.
+     * {@code SHOW DATABASES}, and returns the result.
+     * <p>
+     * Unlike {@link #query(String)}, the result is always requested as JSON, regardless of the
+     * configured response format, so that it can be relied on internally.
+     *
+     * @param query the query to execute
+     *
+     * @return the query result, or {@code null} if no results
+     *
+     * @throws IOException if query execution fails
+     * @since 1.1.0
+     */
+    public Measurement queryMetadata(String query) throws IOException {
+        List<Measurement> measurements = callApi(service::queryJson, query).getResults().get(0)
+                .getResults();
+        return measurements.isEmpty() ? null : measurements.get(0);
+    }
+
+    /**
+     * Executes a query and returns its points as a stream, which reads the response while it is
+     * being consumed.
+     * <p>
+     * InfluxDB returns the results in chunks of at most the specified number of points, so
+     * queries of any size can be processed with constant memory. The points of all series are
+     * returned in the order they are received, so this method is mainly meant for queries of a
+     * single series.
+     * <p>
+     * The stream must be closed once it is no longer needed, e.g. with a try-with-resources
+     * statement, to release the connection. Consuming the stream throws an
+     * {@link InfluxClientException} if InfluxDB reports an error in a later chunk, and an
+     * {@link java.io.UncheckedIOException} if the connection is lost.
+     *
+     * @param query     the query to execute
+     * @param chunkSize the maximum number of points InfluxDB returns per chunk, must be positive
+     *
+     * @return the points of the query result
+     *
+     * @throws IllegalArgumentException  if the chunk size is not positive
+     * @throws IllegalStatementException if the query format is invalid
+     * @throws InfluxClientException     if InfluxDB rejects the query
+     * @throws IOException               if query execution fails
+     * @since 1.1.0
+     */
+    public Stream<Point> queryStream(String query, int chunkSize) throws IOException {
+        return responseConverter.convertToPoints(
+                queryChunked(query, chunkSize, service::queryChunked));
+    }
+
+    /**
+     * Executes a query and copies its result as CSV to the specified writer, without decoding it.
+     * <p>
+     * InfluxDB writes a header of {@code name,tags} followed by the columns of the series, and then
+     * a record for each row, with timestamps as nanoseconds since the epoch. The result is
+     * requested in chunks of at most the specified number of points and copied while it is being
+     * received, so queries of any size can be exported with constant memory. An error which
+     * InfluxDB reports after the result has started is copied as well, as a header of
+     * {@code error} followed by the message.
+     *
+     * @param query     the query to execute
+     * @param chunkSize the maximum number of points InfluxDB returns per chunk, must be positive
+     * @param writer    the writer to copy the result to, which is not closed
+     *
+     * @throws IllegalArgumentException  if the chunk size is not positive, or the writer is
+     *                                   {@code null}
+     * @throws IllegalStatementException if the query format is invalid
+     * @throws InfluxClientException     if InfluxDB rejects the query
+     * @throws IOException               if query execution or writing fails
+     * @since 1.1.0
+     */
+    public void exportCsv(String query, int chunkSize, Writer writer) throws IOException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer cannot be null");
+        }
+
+        ResponseBody responseBody = queryChunked(query, chunkSize, service::queryCsv);
+        try (Reader reader = responseBody.charStream()) {
+            char[] buffer = new char[8192];
+            for (int read = reader.read(buffer); read != -1; read = reader.read(buffer)) {
+                writer.write(buffer, 0, read);
+            }
+        }
+    }
+
     /**
      * Executes DDL statements, such as {@code CREATE} or {@code ALTER}.
      *
@@ -218,7 +322,7 @@ public final class JFluxHttpClient implements AutoCloseable {
     public ApiResponse write(String database, String lineProtocol) throws IOException {
         LOGGER.debug("Writing line '{}' to {}", lineProtocol, database);
         RequestBody requestBody = RequestBody.create(LINE_PROTOCOL_MEDIA_TYPE, lineProtocol);
-        return callApi(() -> service.write(database, requestBody));
+        return write(database, requestBody);
     }
 
     /**
@@ -242,15 +346,133 @@ public final class JFluxHttpClient implements AutoCloseable {
             throws IOException {
         LOGGER.debug("Writing line '{}' to {}.{}", lineProtocol, database, retentionPolicy);
         RequestBody requestBody = RequestBody.create(LINE_PROTOCOL_MEDIA_TYPE, lineProtocol);
+        return write(database, retentionPolicy, requestBody);
+    }
+
+    /**
+     * Writes points into the default retention policy.
+     * <p>
+     * This is the same as {@link #write(String, String)}, except that the line protocol is provided
+     * as a request body. This allows large amounts of points to be encoded into the request while
+     * it is being sent, rather than being held in memory as a single string.
+     *
+     * @param database    the database to write to
+     * @param requestBody the line protocol of the point(s) to write
+     *
+     * @return the API's response
+     *
+     * @throws IOException           if InfluxDB cannot be reached
+     * @throws InfluxClientException if the points are not in the correct format
+     * @since 1.1.0
+     */
+    public ApiResponse write(String database, RequestBody requestBody) throws IOException {
+        LOGGER.debug("Writing request body to {}", database);
+        return callApi(() -> service.write(database, requestBody));
+    }
+
+    /**
+     * Writes points into the specified retention policy.
+     * <p>
+     * This is the same as {@link #write(String, String, String)}, except that the line protocol is
+     * provided as a request body. This allows large amounts of points to be encoded into the
+     * request while it is being sent, rather than being held in memory as a single string.
+     *
+     * @param database        the database to write to
+     * @param retentionPolicy the retention policy to use
+     * @param requestBody     the line protocol of the point(s) to write
+     *
+     * @return the API's response
+     *
+     * @throws IOException           if InfluxDB cannot be reached
+     * @throws InfluxClientException if the points are not in the correct format
+     * @since 1.1.0
+     */
+    public ApiResponse write(String database, String retentionPolicy, RequestBody requestBody)
+            throws IOException {
+        LOGGER.debug("Writing request body to {}.{}", database, retentionPolicy);
         return callApi(() -> service.write(database, retentionPolicy, requestBody));
     }
 
+    /**
+     * Writes points with timestamps of the specified precision into the default retention policy.
+     * <p>
+     * This is the same as {@link #write(String, RequestBody)}, except that the timestamps in the
+     * line protocol are interpreted in the specified precision instead of this client's default
+     * precision.
+     *
+     * @param database    the database to write to
+     * @param requestBody the line protocol of the point(s) to write
+     * @param precision   the precision of the timestamps in the line protocol
+     *
+     * @return the API's response
+     *
+     * @throws IOException           if InfluxDB cannot be reached
+     * @throws InfluxClientException if the points are not in the correct format
+     * @since 1.1.0
+     */
+    public ApiResponse write(String database, RequestBody requestBody, Precision precision)
+            throws IOException {
+        LOGGER.debug("Writing request body to {} with precision {}", database, precision);
+        return callApi(() -> service.writeWithPrecision(database, precision.getIdentifier(),
+                requestBody));
+    }
+
+    /**
+     * Writes points with timestamps of the specified precision into the specified retention
+     * policy.
+     * <p>
+     * This is the same as {@link #write(String, String, RequestBody)}, except that the timestamps
+     * in the line protocol are interpreted in the specified precision instead of this client's
+     * default precision.
+     *
+     * @param database        the database to write to
+     * @param retentionPolicy the retention policy to use
+     * @param requestBody     the line protocol of the point(s) to write
+     * @param precision       the precision of the timestamps in the line protocol
+     *
+     * @return the API's response
+     *
+     * @throws IOException           if InfluxDB cannot be reached
+     * @throws InfluxClientException if the points are not in the correct format
+     * @since 1.1.0
+     */
+    public ApiResponse write(String database, String retentionPolicy, RequestBody requestBody,
+            Precision precision) throws IOException {
+        LOGGER.debug("Writing request body to {}.{} with precision {}", database, retentionPolicy,
+                precision);
+        return callApi(() -> service.writeWithPrecision(database, retentionPolicy,
+                precision.getIdentifier(), requestBody));
+    }
+
     private ApiResponse callApi(Function<String, Call<ResponseBody>> apiMethod, String statement)
             throws IOException {
         LOGGER.debug("Executing statement '{}'", statement);
         return callApi(() -> apiMethod.apply(statement));
     }
 
+    /**
+     * Executes a chunked query, returning the body of the response once it has started, or
+     * throwing an exception if InfluxDB rejects the query.
+     */
+    private ResponseBody queryChunked(String query, int chunkSize,
+            BiFunction<String, Integer, Call<ResponseBody>> apiMethod) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        if (SELECT_INTO_PATTERN.matcher(query).matches()) {
+            throw new IllegalStatementException("Cannot execute 'SELECT INTO' as query");
+        }
+
+        Response<ResponseBody> responseWrapper = apiMethod.apply(query, chunkSize).execute();
+        LOGGER.debug("Received response: {}", responseWrapper);
+        if (!responseWrapper.isSuccessful() || responseWrapper.body() == null) {
+            ApiResponse response = responseConverter.convert(responseWrapper);
+            throw new InfluxClientException(response.getErrorMessage());
+        }
+        return responseWrapper.body();
+    }
+
     private ApiResponse callApi(Supplier<Call<ResponseBody>> apiMethod) throws IOException {
         Call<ResponseBody> call = apiMethod.get();
         Response<ResponseBody> responseWrapper = call.execute();
@@ -275,6 +497,9 @@ public final class JFluxHttpClient implements AutoCloseable {
     public static final class Builder {
 
         private String host;
+        private Long gzipThreshold;
+        private Precision precision = Precision.MILLISECONDS;
+        private ResponseFormat responseFormat = ResponseFormat.JSON;
 
         /**
          * Initializes a new builder instance, setting the InfluxDB host URL.
@@ -285,15 +510,86 @@ public final class JFluxHttpClient implements AutoCloseable {
             this.host = host;
         }
 
+        /**
+         * Sets the precision of timestamps in writes which do not specify a precision.
+         * <p>
+         * If not set, timestamps are in milliseconds.
+         *
+         * @param precision the default write precision, not {@code null}
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder precision(Precision precision) {
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Enables gzip compression of request bodies of at least the specified size, in bytes.
+         * <p>
+         * Line protocol typically compresses very well, so enabling compression can significantly
+         * reduce the amount of data sent when writing points. Bodies which are encoded while being
+         * sent, and whose size is therefore unknown in advance, are always compressed. If not set,
+         * request bodies are not compressed.
+         *
+         * @param gzipThreshold the minimum size of bodies to compress, must not be negative
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder gzipThreshold(long gzipThreshold) {
+            this.gzipThreshold = gzipThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the format in which query results are requested.
+         * <p>
+         * MessagePack is more compact than JSON and cheaper to decode, and is supported by
+         * InfluxDB 1.4 and later. Responses are decoded according to their content type, so
+         * versions which ignore the requested format still work. If not set, results are requested
+         * as JSON.
+         *
+         * @param responseFormat the format of query results, not {@code null}
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder responseFormat(ResponseFormat responseFormat) {
+            this.responseFormat = responseFormat;
+            return this;
+        }
+
         /**
          * Constructs a new {@link JFluxHttpClient} instance from this builder's configuration.
          *
          * @return the new client instance
+         *
+         * @throws IllegalStateException if any of the values set in this builder are illegal
          */
         public JFluxHttpClient build() {
-            OkHttpClient okHttpClient =
-                    new OkHttpClient.Builder().addInterceptor(new InfluxRequestInterceptor())
-                            .build();
+            if (gzipThreshold != null && gzipThreshold < 0) {
+                throw new IllegalStateException("Gzip threshold cannot be negative");
+            }
+
+            if (precision == null) {
+                throw new IllegalStateException("Precision cannot be null");
+            }
+
+            if (responseFormat == null) {
+                throw new IllegalStateException("Response format cannot be null");
+            }
+
+            OkHttpClient.Builder okHttpClientBuilder = new OkHttpClient.Builder()
+                    .addInterceptor(new InfluxRequestInterceptor(precision, responseFormat));
+            if (gzipThreshold != null) {
+                okHttpClientBuilder.addInterceptor(new GzipRequestInterceptor(gzipThreshold));
+            }
+            OkHttpClient okHttpClient = okHttpClientBuilder.build();
 
             Retrofit retrofit = new Retrofit.Builder()
                     .baseUrl(host)
@@ -302,6 +598,7 @@ public final class JFluxHttpClient implements AutoCloseable {
             InfluxHttpService service = retrofit.create(InfluxHttpService.class);
             JFluxHttpClient client = new JFluxHttpClient(service, new ApiResponseConverter());
             client.hostUrl = host;
+            client.precision = precision;
             return client;
         }
     }
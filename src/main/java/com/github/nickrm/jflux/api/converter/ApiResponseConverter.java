@@ -3,10 +3,13 @@ package com.github.nickrm.jflux.api.converter;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
 import com.github.nickrm.jflux.api.response.ApiResponse;
 import com.github.nickrm.jflux.api.response.QueryResult;
 import com.github.nickrm.jflux.api.response.ResponseMetadata;
+import com.github.nickrm.jflux.domain.Point;
 import okhttp3.ResponseBody;
 import retrofit2.Response;
 
@@ -19,6 +22,7 @@ public final class ApiResponseConverter {
 
     private final ResponseHeaderConverter responseHeaderConverter;
     private final ResponseBodyConverter responseBodyConverter;
+    private final CsvResponseBodyConverter csvResponseBodyConverter;
     private final ErrorResponseConverter errorResponseConverter;
 
     /**
@@ -26,7 +30,7 @@ public final class ApiResponseConverter {
      */
     public ApiResponseConverter() {
         this(new ResponseHeaderConverter(), new ResponseBodyConverter(),
-                new ErrorResponseConverter());
+                new CsvResponseBodyConverter(), new ErrorResponseConverter());
     }
 
     /**
@@ -35,14 +39,17 @@ public final class ApiResponseConverter {
      * This is currently mainly used for injecting mocks in testing.
      *
      * @param responseHeaderConverter used to extract metadata from the response
-     * @param responseBodyConverter   used to extract the results from the response
-     * @param errorResponseConverter  used to extract any errors from the response
+     * @param responseBodyConverter    used to extract the results from the response
+     * @param csvResponseBodyConverter used to extract the results from CSV responses
+     * @param errorResponseConverter   used to extract any errors from the response
      */
     ApiResponseConverter(ResponseHeaderConverter responseHeaderConverter,
             ResponseBodyConverter responseBodyConverter,
+            CsvResponseBodyConverter csvResponseBodyConverter,
             ErrorResponseConverter errorResponseConverter) {
         this.responseHeaderConverter = responseHeaderConverter;
         this.responseBodyConverter = responseBodyConverter;
+        this.csvResponseBodyConverter = csvResponseBodyConverter;
         this.errorResponseConverter = errorResponseConverter;
     }
 
@@ -62,7 +69,7 @@ public final class ApiResponseConverter {
         String errorMessage = errorResponseConverter.convert(responseWrapper);
         List<QueryResult> results = responseWrapper.body() == null ?
                 Collections.emptyList() :
-                responseBodyConverter.convert(responseWrapper.body());
+                convertBody(responseWrapper.body());
 
         return new ApiResponse.Builder().metadata(metadata)
                 .statusCode(statusCode)
@@ -70,4 +77,34 @@ public final class ApiResponseConverter {
                 .results(results)
                 .build();
     }
+
+    /**
+     * Converts the body of a successful query response to a stream of the points of all of its
+     * results and series. The body is read as the stream is consumed, so it can be of any size,
+     * and may consist of several chunks.
+     * <p>
+     * The stream must be closed once it is no longer needed, which also closes the body.
+     * Consuming the stream throws an {@link InfluxClientException} if the response contains an
+     * error, and an {@link java.io.UncheckedIOException} if the body cannot be read.
+     *
+     * @param responseBody the body to convert
+     *
+     * @return the points of the response
+     *
+     * @throws IOException if conversion fails
+     * @since 1.1.0
+     */
+    public Stream<Point> convertToPoints(ResponseBody responseBody) throws IOException {
+        if (CsvResponseBodyConverter.isCsv(responseBody.contentType())) {
+            return csvResponseBodyConverter.convertToPoints(responseBody);
+        }
+        return responseBodyConverter.convertToPoints(responseBody);
+    }
+
+    private List<QueryResult> convertBody(ResponseBody responseBody) throws IOException {
+        if (CsvResponseBodyConverter.isCsv(responseBody.contentType())) {
+            return csvResponseBodyConverter.convert(responseBody);
+        }
+        return responseBodyConverter.convert(responseBody);
+    }
 }
@@ -0,0 +1,120 @@
+package com.github.nickrm.jflux.api.converter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads records of comma-separated values one at a time, as InfluxDB writes them.
+ * <p>
+ * Values may be enclosed in double quotes, in which case they can contain commas, line breaks,
+ * and double quotes escaped by doubling them.
+ */
+final class CsvReader {
+
+    private static final String[] EMPTY_RECORD = new String[0];
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder value = new StringBuilder();
+    private final List<String> values = new ArrayList<>();
+    private int position;
+    private int limit;
+
+    /**
+     * Initializes a new instance reading from the specified reader.
+     *
+     * @param reader the reader to read from, which is buffered by this instance
+     */
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the values of the record, which are empty for a blank line, or {@code null} at the
+     * end of the input
+     *
+     * @throws IOException if reading fails
+     */
+    String[] readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        if (c == '\r') {
+            skipLineFeed();
+        }
+        if (c == '\n' || c == '\r') {
+            return EMPTY_RECORD;
+        }
+
+        values.clear();
+        while (true) {
+            value.setLength(0);
+            if (c == '"') {
+                c = readQuotedValue();
+            }
+            else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    value.append((char) c);
+                    c = read();
+                }
+            }
+            values.add(value.toString());
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                skipLineFeed();
+            }
+            return values.toArray(EMPTY_RECORD);
+        }
+    }
+
+    /**
+     * Reads a value after its opening quote, returning the character following its closing quote.
+     */
+    private int readQuotedValue() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return c;
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    return c;
+                }
+            }
+            value.append((char) c);
+        }
+    }
+
+    private void skipLineFeed() throws IOException {
+        if ((position < limit || fill()) && buffer[position] == '\n') {
+            position++;
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
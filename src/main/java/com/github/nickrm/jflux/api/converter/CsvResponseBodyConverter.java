@@ -0,0 +1,271 @@
+package com.github.nickrm.jflux.api.converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
+import com.github.nickrm.jflux.api.response.QueryResult;
+import com.github.nickrm.jflux.domain.Measurement;
+import com.github.nickrm.jflux.domain.Point;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+/**
+ * Extracts the results from a {@link ResponseBody} of a call to the InfluxDB API in CSV format.
+ * <p>
+ * InfluxDB writes a header of {@code name,tags} followed by the columns of the series, and then a
+ * record for each row. The body is read one record at a time. Since CSV values are untyped, values
+ * which are formatted as numbers or booleans become fields, and any other values tags, as for
+ * JSON. Timestamps are expected as nanoseconds since the epoch.
+ * <p>
+ * CSV does not identify the statements the series belong to, so all series are returned in a
+ * single result.
+ */
+final class CsvResponseBodyConverter implements Converter<ResponseBody, List<QueryResult>> {
+
+    private static final int FIRST_VALUE_INDEX = 2;
+
+    /**
+     * Checks whether a body of the specified content type is encoded as CSV.
+     *
+     * @param contentType the content type of the body, may be {@code null}
+     *
+     * @return {@code true} if the body is CSV
+     */
+    static boolean isCsv(MediaType contentType) {
+        return contentType != null && contentType.subtype().equals("csv");
+    }
+
+    @Override
+    public List<QueryResult> convert(ResponseBody responseBody) throws IOException {
+        try (ResponseBody body = responseBody) {
+            RowReader rowReader = new RowReader(body);
+            List<Measurement> measurements = new ArrayList<>();
+            List<Point> points = null;
+            String name = null;
+
+            for (Point point = rowReader.next(); point != null; point = rowReader.next()) {
+                if (rowReader.isNewSeries()) {
+                    addMeasurement(measurements, name, points);
+                    name = rowReader.getName();
+                    points = new ArrayList<>();
+                }
+                points.add(point);
+            }
+            addMeasurement(measurements, name, points);
+
+            return Collections.singletonList(new QueryResult.Builder().statementId(0)
+                    .error(rowReader.getError())
+                    .series(measurements)
+                    .build());
+        }
+    }
+
+    /**
+     * Converts a response body to a stream of the points of all of its series, reading the body
+     * only as the stream is consumed.
+     * <p>
+     * Closing the stream closes the body.
+     *
+     * @param responseBody the body to convert
+     *
+     * @return the points of the body
+     */
+    Stream<Point> convertToPoints(ResponseBody responseBody) {
+        RowReader rowReader = new RowReader(responseBody);
+        Iterator<Point> points = new Iterator<Point>() {
+
+            private Point next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = rowReader.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (rowReader.getError() != null) {
+                        throw new InfluxClientException(rowReader.getError());
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Point point = next;
+                next = null;
+                return point;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(points,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(responseBody::close);
+    }
+
+    private static void addMeasurement(List<Measurement> measurements, String name,
+            List<Point> points) {
+        if (points != null) {
+            measurements.add(new Measurement.Builder().name(name).points(points).build());
+        }
+    }
+
+    /**
+     * Decodes a value as the type it is formatted as, i.e. a boolean, an integer or a float, or
+     * otherwise keeps it as a string. Empty values are {@code null}.
+     */
+    private static Object parseValue(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.equals("true")) {
+            return Boolean.TRUE;
+        }
+        if (value.equals("false")) {
+            return Boolean.FALSE;
+        }
+        if (!isNumber(value)) {
+            return value;
+        }
+
+        try {
+            long longValue = Long.parseLong(value);
+            if ((int) longValue == longValue) {
+                return (int) longValue;
+            }
+            return longValue;
+        } catch (NumberFormatException e) {
+            // Not an integer, or too large for a long.
+        }
+
+        try {
+            return value.indexOf('.') < 0 && value.indexOf('e') < 0 && value.indexOf('E') < 0 ?
+                    new BigInteger(value) :
+                    Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    private static boolean isNumber(String value) {
+        int start = value.charAt(0) == '-' ? 1 : 0;
+        if (value.length() == start || !Character.isDigit(value.charAt(start))) {
+            return false;
+        }
+
+        for (int i = start + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isDigit(c) && c != '.' && c != 'e' && c != 'E' && c != '-'
+                    && c != '+') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the rows of a CSV body as points, keeping track of the series they belong to.
+     */
+    private static final class RowReader {
+
+        private final CsvReader csvReader;
+        private String[] columns;
+        private String name;
+        private String tags;
+        private boolean newSeries;
+        private String error;
+
+        RowReader(ResponseBody responseBody) {
+            csvReader = new CsvReader(responseBody.charStream());
+        }
+
+        /**
+         * Reads the next point, returning {@code null} at the end of the body or if the body
+         * contains an error.
+         */
+        Point next() throws IOException {
+            String[] record = csvReader.readRecord();
+            newSeries = false;
+            while (record != null && (columns == null || record.length == 0)) {
+                // A blank line is followed by the header of the next series' columns.
+                if (record.length == 0) {
+                    columns = null;
+                }
+                else if (record.length == 1 && record[0].equals("error")) {
+                    String[] message = csvReader.readRecord();
+                    error = message == null || message.length == 0 ? "" : message[0];
+                    return null;
+                }
+                else {
+                    columns = record;
+                    newSeries = true;
+                }
+                record = csvReader.readRecord();
+            }
+
+            if (record == null) {
+                return null;
+            }
+
+            String recordTags = record.length > 1 ? record[1] : "";
+            if (!record[0].equals(name) || !recordTags.equals(tags)) {
+                name = record[0];
+                tags = recordTags;
+                newSeries = true;
+            }
+            return pointFromRecord(record);
+        }
+
+        private Point pointFromRecord(String[] record) {
+            Point.Builder builder = new Point.Builder();
+            int startIndex = FIRST_VALUE_INDEX;
+            if (columns.length > startIndex && columns[startIndex].equals("time")
+                    && record.length > startIndex) {
+                String timestamp = record[startIndex];
+                Object value = parseValue(timestamp);
+                if (value instanceof Long || value instanceof Integer) {
+                    builder.timestamp(((Number) value).longValue(), TimeUnit.NANOSECONDS);
+                }
+                else {
+                    builder.timestamp(Instant.parse(timestamp));
+                }
+                startIndex++;
+            }
+
+            for (int i = startIndex; i < columns.length && i < record.length; i++) {
+                ResponseBodyConverter.addValue(builder, columns[i], parseValue(record[i]));
+            }
+            return builder.build();
+        }
+
+        boolean isNewSeries() {
+            return newSeries;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getError() {
+            return error;
+        }
+    }
+}
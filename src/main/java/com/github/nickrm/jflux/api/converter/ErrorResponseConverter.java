@@ -20,6 +20,7 @@ import java.io.IOException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.ResponseBody;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import retrofit2.Converter;
@@ -33,9 +34,11 @@ final class ErrorResponseConverter implements Converter<Response<?>, String> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ErrorResponseConverter.class);
 
     private final ObjectMapper objectMapper;
+    private final ObjectMapper messagePackMapper;
 
     ErrorResponseConverter() {
         objectMapper = new ObjectMapper();
+        messagePackMapper = new ObjectMapper(new MessagePackFactory());
     }
 
     @Override
@@ -49,6 +52,15 @@ final class ErrorResponseConverter implements Converter<Response<?>, String> {
     }
 
     private String getErrorMessageFromErrorBody(ResponseBody errorBody) throws IOException {
+        // Queries requesting MessagePack also get their errors as MessagePack.
+        if (ResponseBodyConverter.isMessagePack(errorBody.contentType())) {
+            return messagePackMapper.readTree(errorBody.bytes()).get("error").asText();
+        }
+
+        if (CsvResponseBodyConverter.isCsv(errorBody.contentType())) {
+            return getErrorMessageFromCsv(errorBody);
+        }
+
         String content = errorBody.string();
         if (content != null && content.endsWith("\n")) {
             content = content.substring(0, content.length() - 1);
@@ -65,4 +77,20 @@ final class ErrorResponseConverter implements Converter<Response<?>, String> {
         }
         return errorMessage;
     }
+
+    /**
+     * Reads the error message from a CSV body, which InfluxDB writes as a header of {@code error}
+     * followed by the message.
+     */
+    private static String getErrorMessageFromCsv(ResponseBody errorBody) throws IOException {
+        CsvReader csvReader = new CsvReader(errorBody.charStream());
+        String[] header = csvReader.readRecord();
+        String[] message = csvReader.readRecord();
+        errorBody.close();
+        if (header == null || header.length != 1 || !header[0].equals("error")
+                || message == null || message.length == 0) {
+            throw new IOException("Could not read error from CSV response");
+        }
+        return message[0];
+    }
 }
@@ -0,0 +1,198 @@
+package com.github.nickrm.jflux.api.converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
+import com.github.nickrm.jflux.domain.Point;
+
+/**
+ * Iterates over the points of a query response, reading the response only as far as needed for
+ * the next point.
+ * <p>
+ * The response can consist of several JSON or MessagePack documents, as InfluxDB writes them for
+ * chunked queries. The points of all results and series are returned in the order they are read.
+ */
+final class PointIterator implements Iterator<Point> {
+
+    private enum State {
+        DOCUMENTS, RESPONSE, RESULTS, RESULT, SERIES_LIST, SERIES, VALUES
+    }
+
+    private final JsonParser parser;
+    private final Deque<Point> pendingPoints = new ArrayDeque<>();
+    private State state = State.DOCUMENTS;
+    private String[] columns;
+    private List<Object[]> pendingRows;
+    private Point next;
+    private boolean done;
+
+    /**
+     * Initializes a new instance reading from the specified parser, which is positioned before
+     * the first document.
+     *
+     * @param parser the parser to read the response from
+     */
+    PointIterator(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws InfluxClientException if the response contains an error instead of further points
+     * @throws UncheckedIOException  if reading the response fails
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Point next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Point point = next;
+        next = null;
+        return point;
+    }
+
+    private Point readNext() throws IOException {
+        while (pendingPoints.isEmpty()) {
+            JsonToken token = state == State.DOCUMENTS ? nextDocument() : parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+
+            switch (state) {
+                case DOCUMENTS:
+                    if (token == JsonToken.START_OBJECT) {
+                        state = State.RESPONSE;
+                    }
+                    else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case RESPONSE:
+                    if (token != JsonToken.FIELD_NAME) {
+                        state = State.DOCUMENTS;
+                    }
+                    else if (enterArray("results")) {
+                        state = State.RESULTS;
+                    }
+                    break;
+                case RESULTS:
+                    state = token == JsonToken.START_OBJECT ? State.RESULT : State.RESPONSE;
+                    break;
+                case RESULT:
+                    if (token != JsonToken.FIELD_NAME) {
+                        state = State.RESULTS;
+                    }
+                    else if (parser.getCurrentName().equals("error")) {
+                        parser.nextToken();
+                        throw new InfluxClientException(parser.getValueAsString());
+                    }
+                    else if (enterArray("series")) {
+                        state = State.SERIES_LIST;
+                    }
+                    break;
+                case SERIES_LIST:
+                    if (token == JsonToken.START_OBJECT) {
+                        columns = null;
+                        pendingRows = null;
+                        state = State.SERIES;
+                    }
+                    else {
+                        state = State.RESULT;
+                    }
+                    break;
+                case SERIES:
+                    readSeriesField(token);
+                    break;
+                case VALUES:
+                    if (token == JsonToken.START_ARRAY) {
+                        return ResponseBodyConverter.readPoint(parser, columns);
+                    }
+                    state = State.SERIES;
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+        return pendingPoints.poll();
+    }
+
+    /**
+     * Moves to the start of the next document, returning {@code null} at the end of the input.
+     * Unlike the JSON parser, the MessagePack parser reports the end of the input as an error.
+     */
+    private JsonToken nextDocument() throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonEOFException e) {
+            return null;
+        }
+    }
+
+    private void readSeriesField(JsonToken token) throws IOException {
+        if (token != JsonToken.FIELD_NAME) {
+            // InfluxDB writes the columns first, but keep the rows until they are known.
+            if (pendingRows != null && columns != null) {
+                for (Object[] row : pendingRows) {
+                    pendingPoints.add(ResponseBodyConverter.pointFromRow(columns, row));
+                }
+            }
+            state = State.SERIES_LIST;
+            return;
+        }
+
+        String fieldName = parser.getCurrentName();
+        JsonToken valueToken = parser.nextToken();
+        if (valueToken != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+        }
+        else if (fieldName.equals("columns")) {
+            columns = ResponseBodyConverter.readColumns(parser);
+        }
+        else if (fieldName.equals("values") && columns != null) {
+            state = State.VALUES;
+        }
+        else if (fieldName.equals("values")) {
+            pendingRows = ResponseBodyConverter.readRows(parser);
+        }
+        else {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Moves to the value of the current field, and returns whether it is an array of the
+     * specified name. Any other value is skipped.
+     */
+    private boolean enterArray(String fieldName) throws IOException {
+        String currentName = parser.getCurrentName();
+        if (parser.nextToken() == JsonToken.START_ARRAY && currentName.equals(fieldName)) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+}
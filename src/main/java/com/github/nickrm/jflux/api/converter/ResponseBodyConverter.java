@@ -17,144 +17,322 @@
 package com.github.nickrm.jflux.api.converter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.github.nickrm.jflux.api.response.QueryResult;
 import com.github.nickrm.jflux.domain.Measurement;
 import com.github.nickrm.jflux.domain.Point;
+import okhttp3.MediaType;
 import okhttp3.ResponseBody;
+import org.msgpack.jackson.dataformat.MessagePackExtensionType;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import retrofit2.Converter;
 
 /**
  * Extracts the results from a {@link ResponseBody} of a call to the InfluxDB API.
+ * <p>
+ * The body is parsed token by token as it is read, building each {@link Point} from its row of
+ * values, so the body is never held in memory as a whole. Timestamps are expected as nanoseconds
+ * since the epoch, as requested by {@link com.github.nickrm.jflux.api.JFluxHttpClient}, but
+ * RFC3339 timestamps are still accepted.
+ * <p>
+ * Bodies are decoded as JSON, unless their content type is {@code application/x-msgpack}. Both
+ * formats are read through the same {@link JsonParser} interface, and result in the same points.
  */
 final class ResponseBodyConverter implements Converter<ResponseBody, List<QueryResult>> {
 
     private static final Logger LOGGER =
             LoggerFactory.getLogger(ResponseBodyConverter.class);
 
-    private final ObjectMapper objectMapper;
+    /**
+     * The type of the MessagePack extension InfluxDB encodes timestamps as, consisting of the
+     * seconds since the epoch as a 64-bit integer followed by the nanoseconds as a 32-bit integer.
+     */
+    private static final byte TIME_EXTENSION_TYPE = 5;
+    private static final int TIME_EXTENSION_LENGTH = 12;
+
+    private final JsonFactory jsonFactory;
+    private final JsonFactory messagePackFactory;
 
     ResponseBodyConverter() {
-        objectMapper = new ObjectMapper();
+        jsonFactory = new JsonFactory();
+        messagePackFactory = new MessagePackFactory();
+    }
+
+    /**
+     * Checks whether a body of the specified content type is encoded as MessagePack.
+     *
+     * @param contentType the content type of the body, may be {@code null}
+     *
+     * @return {@code true} if the body is MessagePack, otherwise it is assumed to be JSON
+     */
+    static boolean isMessagePack(MediaType contentType) {
+        return contentType != null && contentType.type().equals("application")
+                && contentType.subtype().equals("x-msgpack");
     }
 
     @Override
     public List<QueryResult> convert(ResponseBody responseBody) throws IOException {
-        String content = responseBody.string();
-        if (content.endsWith("\n")) {
-            content = content.substring(0, content.length() - 1);
+        try (JsonParser parser = createParser(responseBody)) {
+            List<QueryResult> results = new ArrayList<>();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return results;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (fieldName.equals("results") && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        results.add(readResult(parser));
+                    }
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+            return results;
+        }
+        finally {
+            responseBody.close();
         }
-        LOGGER.debug("Converting response body: {}", content);
-        ResponseDto responseDto = objectMapper.readValue(content, ResponseDto.class);
-        return responseFromDto(responseDto);
     }
 
-    private List<QueryResult> responseFromDto(ResponseDto responseDto) {
-        List<QueryResult> results = new LinkedList<>();
-        if (responseDto.results != null) {
-            for (ResultDto resultDto : responseDto.results) {
-                results.add(resultFromDto(resultDto));
+    /**
+     * Converts a response body to a stream of the points of all of its results and series, reading
+     * the body only as the stream is consumed. The body may consist of several chunks.
+     * <p>
+     * Closing the stream closes the body.
+     *
+     * @param responseBody the body to convert
+     *
+     * @return the points of the body
+     *
+     * @throws IOException if the body cannot be read
+     */
+    Stream<Point> convertToPoints(ResponseBody responseBody) throws IOException {
+        PointIterator points = new PointIterator(createParser(responseBody));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(points,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(responseBody::close);
+    }
+
+    private JsonParser createParser(ResponseBody responseBody) throws IOException {
+        JsonFactory factory =
+                isMessagePack(responseBody.contentType()) ? messagePackFactory : jsonFactory;
+        return factory.createParser(responseBody.byteStream());
+    }
+
+    private QueryResult readResult(JsonParser parser) throws IOException {
+        QueryResult.Builder builder = new QueryResult.Builder();
+        List<Measurement> measurements = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (fieldName.equals("statement_id")) {
+                builder.statementId(parser.getValueAsInt());
+            }
+            else if (fieldName.equals("error")) {
+                builder.error(parser.getValueAsString());
+            }
+            else if (fieldName.equals("series") && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    measurements.add(readSeries(parser));
+                }
+            }
+            else {
+                parser.skipChildren();
             }
         }
-        return results;
+
+        return builder.series(measurements).build();
     }
 
-    private QueryResult resultFromDto(ResultDto resultDto) {
-        List<Measurement> measurements = new LinkedList<>();
-        if (resultDto.series != null) {
-            for (SeriesDto seriesDto : resultDto.series) {
-                measurements.add(seriesFromDto(seriesDto));
+    private Measurement readSeries(JsonParser parser) throws IOException {
+        String name = null;
+        String[] columns = null;
+        List<Point> points = new ArrayList<>();
+        List<Object[]> pendingRows = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (fieldName.equals("name")) {
+                name = parser.getValueAsString();
+            }
+            else if (fieldName.equals("columns") && token == JsonToken.START_ARRAY) {
+                columns = readColumns(parser);
+            }
+            else if (fieldName.equals("values") && token == JsonToken.START_ARRAY) {
+                if (columns != null) {
+                    while (parser.nextToken() == JsonToken.START_ARRAY) {
+                        points.add(readPoint(parser, columns));
+                    }
+                }
+                else {
+                    // InfluxDB writes the columns first, but keep the rows until they are known.
+                    pendingRows = readRows(parser);
+                }
+            }
+            else {
+                parser.skipChildren();
             }
         }
-        return new QueryResult.Builder().statementId(resultDto.statementId)
-                .error(resultDto.error)
-                .series(measurements)
-                .build();
-    }
 
-    private Measurement seriesFromDto(SeriesDto seriesDto) {
-        List<Point> points = pointsFromSeriesDto(seriesDto);
+        if (pendingRows != null && columns != null) {
+            for (Object[] row : pendingRows) {
+                points.add(pointFromRow(columns, row));
+            }
+        }
 
-        return new Measurement.Builder().name(seriesDto.name)
+        LOGGER.debug("Converted {} points of series {}", points.size(), name);
+        return new Measurement.Builder().name(name)
                 .points(points)
                 .build();
     }
 
-    private List<Point> pointsFromSeriesDto(SeriesDto seriesDto) {
-        List<Point> points = new LinkedList<>();
-        if (seriesDto.columns != null && seriesDto.values != null) {
-            for (Object[] row : seriesDto.values) {
-                Point point = pointFromRow(seriesDto.columns, row);
-                points.add(point);
+    /**
+     * Reads the column names of a series, with the parser positioned at the start of their array.
+     */
+    static String[] readColumns(JsonParser parser) throws IOException {
+        List<String> columns = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            columns.add(parser.getValueAsString());
+        }
+        return columns.toArray(new String[0]);
+    }
+
+    /**
+     * Reads the rows of a series as values, with the parser positioned at the start of their
+     * array.
+     */
+    static List<Object[]> readRows(JsonParser parser) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            List<Object> row = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                row.add(readValue(parser));
             }
+            rows.add(row.toArray());
         }
-        return points;
+        return rows;
     }
 
-    private Point pointFromRow(String[] columns, Object[] row) {
-        Instant timestamp = null;
+    /**
+     * Reads a point from a row, with the parser positioned at the start of its array.
+     */
+    static Point readPoint(JsonParser parser, String[] columns) throws IOException {
+        Point.Builder builder = new Point.Builder();
         int startIndex = 0;
-        if (columns[0].equals("time")) {
-            timestamp = Instant.parse(row[0].toString());
+        if (columns.length > 0 && columns[0].equals("time")) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return builder.build();
+            }
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                builder.timestamp(parser.getLongValue(), TimeUnit.NANOSECONDS);
+            }
+            else {
+                builder.timestamp(toInstant(readValue(parser)));
+            }
             startIndex = 1;
         }
 
-        Map<String, String> tags = new HashMap<>();
-        Map<String, Object> fields = new HashMap<>();
-        for (int i = startIndex; i < columns.length; i++) {
-            String columnName = columns[i];
-            Object value = row[i];
-            if (value instanceof Number || value instanceof Boolean) {
-                fields.put(columnName, value);
+        for (int i = startIndex; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+            Object value = readValue(parser);
+            if (i < columns.length) {
+                addValue(builder, columns[i], value);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Converts a row which has already been read to a point.
+     */
+    static Point pointFromRow(String[] columns, Object[] row) {
+        Point.Builder builder = new Point.Builder();
+        int startIndex = 0;
+        if (columns.length > 0 && columns[0].equals("time") && row.length > 0) {
+            if (row[0] instanceof Number) {
+                builder.timestamp(((Number) row[0]).longValue(), TimeUnit.NANOSECONDS);
             }
             else {
-                tags.put(columnName, String.valueOf(value));
+                builder.timestamp(toInstant(row[0]));
             }
+            startIndex = 1;
         }
 
-        return new Point.Builder().timestamp(timestamp).tags(tags).fields(fields).build();
+        for (int i = startIndex; i < columns.length && i < row.length; i++) {
+            addValue(builder, columns[i], row[i]);
+        }
+        return builder.build();
     }
 
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static final class ResponseDto {
-
-        @JsonProperty
-        private ResultDto[] results;
+    /**
+     * Adds a value of a row to a point, as a field if it is a number or boolean, and otherwise as a
+     * tag.
+     */
+    static void addValue(Point.Builder builder, String columnName, Object value) {
+        if (value instanceof Number || value instanceof Boolean) {
+            builder.field(columnName, value);
+        }
+        else {
+            builder.tag(columnName, String.valueOf(value));
+        }
     }
 
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static final class ResultDto {
-
-        @JsonProperty("statement_id")
-        private int statementId;
-
-        @JsonProperty
-        private String error;
-
-        @JsonProperty
-        private SeriesDto[] series;
+    private static Object readValue(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case START_ARRAY:
+            case START_OBJECT:
+                parser.skipChildren();
+                return null;
+            case VALUE_EMBEDDED_OBJECT:
+                return readEmbeddedObject(parser.getEmbeddedObject());
+            default:
+                return parser.getText();
+        }
     }
 
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static final class SeriesDto {
-
-        @JsonProperty
-        private String name;
-
-        @JsonProperty
-        private String[] columns;
+    private static Object readEmbeddedObject(Object embeddedObject) {
+        if (embeddedObject instanceof MessagePackExtensionType) {
+            MessagePackExtensionType extension = (MessagePackExtensionType) embeddedObject;
+            if (extension.getType() == TIME_EXTENSION_TYPE
+                    && extension.getData().length == TIME_EXTENSION_LENGTH) {
+                ByteBuffer data = ByteBuffer.wrap(extension.getData());
+                return Instant.ofEpochSecond(data.getLong(), data.getInt());
+            }
+        }
+        return String.valueOf(embeddedObject);
+    }
 
-        @JsonProperty
-        private Object[][] values;
+    private static Instant toInstant(Object timestamp) {
+        return timestamp instanceof Instant ?
+                (Instant) timestamp :
+                Instant.parse(String.valueOf(timestamp));
     }
 }
@@ -0,0 +1,44 @@
+package com.github.nickrm.jflux.codec;
+
+import com.github.nickrm.jflux.domain.Point;
+
+/**
+ * Converts objects of a class to and from points without reflection.
+ * <p>
+ * Codecs are generated at build time by
+ * {@link com.github.nickrm.jflux.processor.PointCodecProcessor} for classes annotated with
+ * {@link com.github.nickrm.jflux.annotation.Measurement}. The codec of a class is named after the
+ * class with a {@code _PointCodec} suffix, e.g. {@code com.example.Cpu_PointCodec} for
+ * {@code com.example.Cpu}, which is how the client finds it. When a class has a codec the client
+ * uses it instead of reading the annotations of the class through reflection.
+ *
+ * @param <T> the type of objects converted
+ *
+ * @since 1.1.0
+ */
+public interface PointCodec<T> {
+
+    /**
+     * Gets the name of the measurement that the objects are written to.
+     *
+     * @return the measurement name
+     */
+    String getMeasurementName();
+
+    /**
+     * Writes the tags, fields and timestamp of an object.
+     *
+     * @param object the object to encode
+     * @param writer receives the values of the object
+     */
+    void encode(T object, PointWriter writer);
+
+    /**
+     * Creates an object from the values of a point.
+     *
+     * @param point the point to decode
+     *
+     * @return the decoded object
+     */
+    T decode(Point point);
+}
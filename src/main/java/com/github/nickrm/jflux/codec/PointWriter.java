@@ -0,0 +1,59 @@
+package com.github.nickrm.jflux.codec;
+
+import java.time.Instant;
+
+/**
+ * Receives the tags, fields and timestamp of an object encoded by a {@link PointCodec}.
+ *
+ * @since 1.1.0
+ */
+public interface PointWriter {
+
+    /**
+     * Writes a tag.
+     *
+     * @param tagKey   the key of the tag
+     * @param tagValue the value of the tag, not {@code null}
+     */
+    void tag(String tagKey, String tagValue);
+
+    /**
+     * Writes an integer field.
+     *
+     * @param fieldKey   the key of the field
+     * @param fieldValue the value of the field
+     */
+    void field(String fieldKey, long fieldValue);
+
+    /**
+     * Writes a floating point field.
+     *
+     * @param fieldKey   the key of the field
+     * @param fieldValue the value of the field
+     */
+    void field(String fieldKey, double fieldValue);
+
+    /**
+     * Writes a boolean field.
+     *
+     * @param fieldKey   the key of the field
+     * @param fieldValue the value of the field
+     */
+    void field(String fieldKey, boolean fieldValue);
+
+    /**
+     * Writes a field of any of the types supported by
+     * {@link com.github.nickrm.jflux.domain.Point.Builder#fields(java.util.Map) points}.
+     *
+     * @param fieldKey   the key of the field
+     * @param fieldValue the value of the field, not {@code null}
+     */
+    void field(String fieldKey, Object fieldValue);
+
+    /**
+     * Writes the timestamp.
+     *
+     * @param timestamp the timestamp, or {@code null} for none
+     */
+    void timestamp(Instant timestamp);
+}
@@ -0,0 +1,7 @@
+/**
+ * Codecs which convert annotated classes to and from points without reflection, usually generated
+ * at build time by {@link com.github.nickrm.jflux.processor.PointCodecProcessor}.
+ *
+ * @since 1.1.0
+ */
+package com.github.nickrm.jflux.codec;
@@ -17,18 +17,33 @@
 package com.github.nickrm.jflux.domain;
 
 import java.time.Instant;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * A collection of fields within a series.
+ * <p>
+ * Points are immutable. Their tags and fields are held in arrays sorted by key, which are exposed
+ * through read-only views without being copied.
  *
  * @since 1.0.0
  */
 public final class Point {
 
-    private final Instant timestamp;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The timestamp in {@link #timestampUnit} units since the epoch, only meaningful if the unit
+     * is not {@code null}.
+     */
+    private final long timestamp;
+    private final TimeUnit timestampUnit;
+    private final String[] tagKeys;
+    private final String[] tagValues;
+    private final String[] fieldKeys;
+    private final Object[] fieldValues;
     private final Map<String, String> tags;
     private final Map<String, Object> fields;
 
@@ -39,44 +54,154 @@ public final class Point {
      */
     private Point(Builder builder) {
         timestamp = builder.timestamp;
-        tags = builder.tags;
-        fields = builder.fields;
+        timestampUnit = builder.timestampUnit;
+
+        tagKeys = new String[builder.tags.size()];
+        tagValues = new String[tagKeys.length];
+        SortedArrayMap.copy(builder.tags, tagKeys, tagValues);
+        tags = new SortedArrayMap<>(tagKeys, tagValues);
+
+        fieldKeys = new String[builder.fields.size()];
+        fieldValues = new Object[fieldKeys.length];
+        SortedArrayMap.copy(builder.fields, fieldKeys, fieldValues);
+        fields = new SortedArrayMap<>(fieldKeys, fieldValues);
     }
 
     /**
      * Gets the timestamp of this point.
      *
-     * @return this point's timestamp
+     * @return this point's timestamp, or {@code null} if none set
+     *
+     * @see #getTimestamp(TimeUnit)
      */
     public Instant getTimestamp() {
-        return timestamp;
+        if (timestampUnit == null) {
+            return null;
+        }
+
+        if (timestampUnit.compareTo(TimeUnit.SECONDS) >= 0) {
+            return Instant.ofEpochSecond(timestampUnit.toSeconds(timestamp));
+        }
+
+        long unitsPerSecond = timestampUnit.convert(1, TimeUnit.SECONDS);
+        long seconds = Math.floorDiv(timestamp, unitsPerSecond);
+        long nanos = timestampUnit.toNanos(Math.floorMod(timestamp, unitsPerSecond));
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    /**
+     * Gets the timestamp of this point as the number of the specified units since the epoch.
+     * <p>
+     * Unlike {@link #getTimestamp()}, this method does not create any objects. If the timestamp
+     * is more precise than the requested unit it is truncated.
+     *
+     * @param unit the unit to get the timestamp in
+     *
+     * @return this point's timestamp in the specified unit
+     *
+     * @throws IllegalStateException if this point has no timestamp
+     * @see #hasTimestamp()
+     * @since 1.1.0
+     */
+    public long getTimestamp(TimeUnit unit) {
+        if (timestampUnit == null) {
+            throw new IllegalStateException("Point has no timestamp");
+        }
+
+        return unit.convert(timestamp, timestampUnit);
+    }
+
+    /**
+     * Checks whether this point has a timestamp.
+     *
+     * @return {@code true} if the point has a timestamp, {@code false} otherwise
+     *
+     * @since 1.1.0
+     */
+    public boolean hasTimestamp() {
+        return timestampUnit != null;
     }
 
     /**
      * Gets the tags for this point.
      * <p>
-     * The tags are returned as a map of tag keys to their respective values.
+     * The tags are returned as a read-only map of tag keys to their respective values, iterated
+     * in key order.
      *
      * @return this point's tags, or an empty map if none set
      */
     public Map<String, String> getTags() {
-        return new HashMap<>(tags);
+        return tags;
+    }
+
+    /**
+     * Gets the value of a single tag of this point.
+     *
+     * @param tagKey the key of the tag
+     *
+     * @return the tag value, or {@code null} if this point does not have the tag
+     *
+     * @since 1.1.0
+     */
+    public String getTag(String tagKey) {
+        return tags.get(tagKey);
+    }
+
+    /**
+     * Visits each tag of this point in key order, without creating any objects.
+     *
+     * @param visitor called with the key and value of each tag
+     *
+     * @since 1.1.0
+     */
+    public void forEachTag(BiConsumer<? super String, ? super String> visitor) {
+        for (int i = 0; i < tagKeys.length; i++) {
+            visitor.accept(tagKeys[i], tagValues[i]);
+        }
     }
 
     /**
      * Gets the fields contained in this point.
      * <p>
-     * The fields are returned as a map of field keys to their respective values.
+     * The fields are returned as a read-only map of field keys to their respective values,
+     * iterated in key order.
      *
      * @return this point's fields, or an empty map if none set
      */
     public Map<String, Object> getFields() {
-        return new HashMap<>(fields);
+        return fields;
+    }
+
+    /**
+     * Gets the value of a single field of this point.
+     *
+     * @param fieldKey the key of the field
+     *
+     * @return the field value, or {@code null} if this point does not have the field
+     *
+     * @since 1.1.0
+     */
+    public Object getField(String fieldKey) {
+        return fields.get(fieldKey);
+    }
+
+    /**
+     * Visits each field of this point in key order, without creating any objects.
+     *
+     * @param visitor called with the key and value of each field
+     *
+     * @since 1.1.0
+     */
+    public void forEachField(BiConsumer<? super String, Object> visitor) {
+        for (int i = 0; i < fieldKeys.length; i++) {
+            visitor.accept(fieldKeys[i], fieldValues[i]);
+        }
     }
 
     @Override
     public String toString() {
-        return "Point{" + "timestamp=" + timestamp + ", tags=" + tags + ", fields=" + fields + '}';
+        return "Point{" + "timestamp=" + getTimestamp() + ", tags=" + tags + ", fields=" + fields
+                + '}';
     }
 
     /**
@@ -84,53 +209,155 @@ public final class Point {
      */
     public static final class Builder {
 
-        private Instant timestamp;
-        private Map<String, String> tags = Collections.emptyMap();
-        private Map<String, Object> fields = Collections.emptyMap();
+        private long timestamp;
+        private TimeUnit timestampUnit;
+        private final Map<String, String> tags = new HashMap<>();
+        private final Map<String, Object> fields = new HashMap<>();
 
         /**
          * Sets the timestamp for the point to be constructed.
+         * <p>
+         * The timestamp is stored with nanosecond precision, which limits it to the range that
+         * InfluxDB supports, i.e. roughly the years 1677 to 2262.
          *
-         * @param timestamp the point's timestamp
+         * @param timestamp the point's timestamp, or {@code null} for no timestamp
          *
          * @return this builder
+         *
+         * @throws IllegalArgumentException if the timestamp cannot be represented in nanoseconds
          */
         public Builder timestamp(Instant timestamp) {
+            if (timestamp == null) {
+                this.timestamp = 0;
+                timestampUnit = null;
+                return this;
+            }
+
+            try {
+                long nanos = Math.addExact(
+                        Math.multiplyExact(timestamp.getEpochSecond(), NANOS_PER_SECOND),
+                        timestamp.getNano());
+                return timestamp(nanos, TimeUnit.NANOSECONDS);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Timestamp out of range: " + timestamp, e);
+            }
+        }
+
+        /**
+         * Sets the timestamp for the point to be constructed as the number of the specified units
+         * since the epoch.
+         * <p>
+         * This avoids creating an {@link Instant} for timestamps which are already available as
+         * numbers, e.g. from {@link System#currentTimeMillis()}.
+         *
+         * @param timestamp the point's timestamp in the specified units
+         * @param unit      the unit of the timestamp, not {@code null}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if the unit is {@code null}
+         * @since 1.1.0
+         */
+        public Builder timestamp(long timestamp, TimeUnit unit) {
+            if (unit == null) {
+                throw new IllegalArgumentException("Timestamp unit cannot be null");
+            }
+
             this.timestamp = timestamp;
+            timestampUnit = unit;
             return this;
         }
 
         /**
-         * Sets the tags for the point to be constructed.
+         * Sets the tags for the point to be constructed, replacing any previously set tags.
          *
          * @param tags the point's tags
          *
          * @return this builder
          */
         public Builder tags(Map<String, String> tags) {
-            this.tags = tags;
+            this.tags.clear();
+            this.tags.putAll(tags);
+            return this;
+        }
+
+        /**
+         * Adds a tag to the point to be constructed.
+         *
+         * @param tagKey   the key of the tag
+         * @param tagValue the value of the tag
+         *
+         * @return this builder
+         *
+         * @since 1.1.0
+         */
+        public Builder tag(String tagKey, String tagValue) {
+            tags.put(tagKey, tagValue);
             return this;
         }
 
         /**
          * Sets the fields for the point to be constructed.
+         * <p>
+         * Field values can be numbers, booleans or strings. Integer types, e.g. {@link Long}, are
+         * written as integers, {@link UnsignedLong} as unsigned integers, and any other numbers
+         * as floats. Values of other types, as well as NaN and infinite floats, which InfluxDB
+         * does not accept, are rejected when the point is built.
          *
-         * @param fields the point's fields
+         * @param fields the point's fields, replacing any previously set fields
          *
          * @return this builder
          */
         public Builder fields(Map<String, Object> fields) {
-            this.fields = fields;
+            this.fields.clear();
+            this.fields.putAll(fields);
+            return this;
+        }
+
+        /**
+         * Adds a field to the point to be constructed.
+         *
+         * @param fieldKey   the key of the field
+         * @param fieldValue the value of the field
+         *
+         * @return this builder
+         *
+         * @see #fields(Map)
+         * @since 1.1.0
+         */
+        public Builder field(String fieldKey, Object fieldValue) {
+            fields.put(fieldKey, fieldValue);
             return this;
         }
 
         /**
          * Builds a new {@link Point} instance using the values in this builder.
+         * <p>
+         * Field values are checked here, rather than when the point is written, since points can
+         * be encoded while their request is already being sent.
          *
          * @return the constructed {@link Point}
+         *
+         * @throws IllegalArgumentException if any tag or field key is {@code null}, or if any field
+         *                                  value is not supported by InfluxDB
          */
         public Point build() {
+            fields.forEach(Builder::assertFieldValueIsSupported);
             return new Point(this);
         }
+
+        private static void assertFieldValueIsSupported(String fieldKey, Object fieldValue) {
+            if (!(fieldValue instanceof Number || fieldValue instanceof Boolean
+                    || fieldValue instanceof String)) {
+                throw new IllegalArgumentException("Field '" + fieldKey + "' has unsupported type "
+                        + (fieldValue == null ? null : fieldValue.getClass().getName()));
+            }
+
+            if ((fieldValue instanceof Double || fieldValue instanceof Float)
+                    && !Double.isFinite(((Number) fieldValue).doubleValue())) {
+                throw new IllegalArgumentException("Field '" + fieldKey
+                        + "' has non-finite value " + fieldValue);
+            }
+        }
     }
 }
@@ -0,0 +1,440 @@
+package com.github.nickrm.jflux.domain;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A batch of points of the same measurement and schema, stored in columns of primitive values.
+ * <p>
+ * Every point of the batch is a row, which has a value in each of the batch's tag and field
+ * columns. Unlike {@link Point}, field values are held in {@code double}, {@code long} and
+ * {@code boolean} arrays, so large numbers of samples can be written without boxing each value.
+ * Since InfluxDB does not accept NaN or infinite floats, such values can be used to mark missing
+ * field values, and points without any other field values are not written.
+ * <p>
+ * The column arrays are not copied, so they must not be modified until the batch has been written.
+ *
+ * @since 1.1.0
+ */
+public final class PointBatch {
+
+    private final String measurementName;
+    private final int size;
+    private final long[] timestamps;
+    private final TimeUnit timestampUnit;
+    private final String[] tagKeys;
+
+    /**
+     * The values of each tag column, or {@code null} for tags with a constant value.
+     */
+    private final String[][] tagColumns;
+
+    /**
+     * The value of each constant tag, or {@code null} for tags with a column of values.
+     */
+    private final String[] constantTagValues;
+    private final String[] fieldKeys;
+    private final FieldType[] fieldTypes;
+    private final Object[] fieldColumns;
+
+    private PointBatch(Builder builder, int size) {
+        measurementName = builder.measurementName;
+        this.size = size;
+        timestamps = builder.timestamps;
+        timestampUnit = builder.timestampUnit;
+
+        tagKeys = builder.tagColumns.keySet().toArray(new String[0]);
+        tagColumns = new String[tagKeys.length][];
+        constantTagValues = new String[tagKeys.length];
+        for (int i = 0; i < tagKeys.length; i++) {
+            Object column = builder.tagColumns.get(tagKeys[i]);
+            if (column instanceof String) {
+                constantTagValues[i] = (String) column;
+            }
+            else {
+                tagColumns[i] = (String[]) column;
+            }
+        }
+
+        fieldKeys = builder.fieldColumns.keySet().toArray(new String[0]);
+        fieldTypes = new FieldType[fieldKeys.length];
+        fieldColumns = new Object[fieldKeys.length];
+        for (int i = 0; i < fieldKeys.length; i++) {
+            fieldColumns[i] = builder.fieldColumns.get(fieldKeys[i]);
+            fieldTypes[i] = FieldType.of(fieldColumns[i]);
+        }
+    }
+
+    /**
+     * Gets the name of the measurement that the points of this batch belong to.
+     *
+     * @return the measurement name
+     */
+    public String getMeasurementName() {
+        return measurementName;
+    }
+
+    /**
+     * Gets the number of points in this batch.
+     *
+     * @return the number of rows of the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the points of this batch have timestamps.
+     *
+     * @return {@code true} if the points have timestamps, {@code false} otherwise
+     */
+    public boolean hasTimestamps() {
+        return timestamps != null;
+    }
+
+    /**
+     * Gets the timestamp of a point as the number of the specified units since the epoch.
+     * <p>
+     * If the timestamp is more precise than the requested unit it is truncated.
+     *
+     * @param row  the index of the point
+     * @param unit the unit to get the timestamp in
+     *
+     * @return the timestamp of the point in the specified unit
+     *
+     * @throws IllegalStateException if the points of this batch have no timestamps
+     */
+    public long getTimestamp(int row, TimeUnit unit) {
+        if (timestamps == null) {
+            throw new IllegalStateException("Batch has no timestamps");
+        }
+
+        return unit.convert(timestamps[row], timestampUnit);
+    }
+
+    /**
+     * Gets the number of tag columns of this batch.
+     *
+     * @return the number of tags
+     */
+    public int getTagCount() {
+        return tagKeys.length;
+    }
+
+    /**
+     * Gets the key of a tag column. Tag columns are sorted by key.
+     *
+     * @param tag the index of the tag column
+     *
+     * @return the tag key
+     */
+    public String getTagKey(int tag) {
+        return tagKeys[tag];
+    }
+
+    /**
+     * Checks whether a tag has the same value for all points, i.e. whether it was
+     * {@link Builder#tag(String, String) added as a single value}.
+     *
+     * @param tag the index of the tag column
+     *
+     * @return {@code true} if the tag is constant, {@code false} otherwise
+     */
+    public boolean isConstantTag(int tag) {
+        return tagColumns[tag] == null;
+    }
+
+    /**
+     * Gets the value of a tag for a point.
+     *
+     * @param tag the index of the tag column
+     * @param row the index of the point
+     *
+     * @return the tag value, or {@code null} if the point does not have the tag
+     */
+    public String getTagValue(int tag, int row) {
+        return tagColumns[tag] == null ? constantTagValues[tag] : tagColumns[tag][row];
+    }
+
+    /**
+     * Gets the number of field columns of this batch.
+     *
+     * @return the number of fields
+     */
+    public int getFieldCount() {
+        return fieldKeys.length;
+    }
+
+    /**
+     * Gets the key of a field column. Field columns are sorted by key.
+     *
+     * @param field the index of the field column
+     *
+     * @return the field key
+     */
+    public String getFieldKey(int field) {
+        return fieldKeys[field];
+    }
+
+    /**
+     * Gets the type of the values of a field column.
+     *
+     * @param field the index of the field column
+     *
+     * @return the field type
+     */
+    public FieldType getFieldType(int field) {
+        return fieldTypes[field];
+    }
+
+    /**
+     * Gets the value of a {@link FieldType#DOUBLE} field for a point.
+     *
+     * @param field the index of the field column
+     * @param row   the index of the point
+     *
+     * @return the field value
+     *
+     * @throws ClassCastException if the field is not of type {@link FieldType#DOUBLE}
+     */
+    public double getDoubleValue(int field, int row) {
+        return ((double[]) fieldColumns[field])[row];
+    }
+
+    /**
+     * Gets the value of a {@link FieldType#LONG} field for a point.
+     *
+     * @param field the index of the field column
+     * @param row   the index of the point
+     *
+     * @return the field value
+     *
+     * @throws ClassCastException if the field is not of type {@link FieldType#LONG}
+     */
+    public long getLongValue(int field, int row) {
+        return ((long[]) fieldColumns[field])[row];
+    }
+
+    /**
+     * Gets the value of a {@link FieldType#BOOLEAN} field for a point.
+     *
+     * @param field the index of the field column
+     * @param row   the index of the point
+     *
+     * @return the field value
+     *
+     * @throws ClassCastException if the field is not of type {@link FieldType#BOOLEAN}
+     */
+    public boolean getBooleanValue(int field, int row) {
+        return ((boolean[]) fieldColumns[field])[row];
+    }
+
+    @Override
+    public String toString() {
+        return "PointBatch{"
+                + "measurementName='" + measurementName + '\''
+                + ", size=" + size
+                + ", tagKeys=" + Arrays.toString(tagKeys)
+                + ", fieldKeys=" + Arrays.toString(fieldKeys)
+                + '}';
+    }
+
+    /**
+     * The types of the field columns of a batch.
+     */
+    public enum FieldType {
+
+        DOUBLE,
+        LONG,
+        BOOLEAN;
+
+        private static FieldType of(Object column) {
+            if (column instanceof double[]) {
+                return DOUBLE;
+            }
+            else if (column instanceof long[]) {
+                return LONG;
+            }
+            else {
+                return BOOLEAN;
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link PointBatch} instances.
+     * <p>
+     * All columns of a batch must have the same length, which is the number of points in the
+     * batch.
+     */
+    public static final class Builder {
+
+        private final String measurementName;
+        private long[] timestamps;
+        private TimeUnit timestampUnit;
+        private final Map<String, Object> tagColumns = new TreeMap<>();
+        private final Map<String, Object> fieldColumns = new TreeMap<>();
+
+        /**
+         * Initializes a new instance setting the measurement of the batch.
+         *
+         * @param measurementName the measurement that the points belong to
+         */
+        public Builder(String measurementName) {
+            this.measurementName = measurementName;
+        }
+
+        /**
+         * Sets the timestamps of the points as the number of the specified units since the epoch.
+         * <p>
+         * If no timestamps are set, InfluxDB uses its own time when the points are written.
+         *
+         * @param timestamps the timestamp of each point
+         * @param unit       the unit of the timestamps, not {@code null}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if any of the arguments is {@code null}
+         */
+        public Builder timestamps(long[] timestamps, TimeUnit unit) {
+            if (timestamps == null) {
+                throw new IllegalArgumentException("Timestamps cannot be null");
+            }
+
+            if (unit == null) {
+                throw new IllegalArgumentException("Timestamp unit cannot be null");
+            }
+
+            this.timestamps = timestamps;
+            timestampUnit = unit;
+            return this;
+        }
+
+        /**
+         * Adds a tag column. Points with a {@code null} value do not get the tag.
+         *
+         * @param tagKey    the key of the tag, not {@code null}
+         * @param tagValues the tag value of each point, not {@code null}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if any of the arguments is {@code null}
+         */
+        public Builder tag(String tagKey, String[] tagValues) {
+            return addColumn(tagColumns, tagKey, tagValues);
+        }
+
+        /**
+         * Adds a tag which has the same value for all points.
+         *
+         * @param tagKey   the key of the tag, not {@code null}
+         * @param tagValue the tag value of all points, not {@code null}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if any of the arguments is {@code null}
+         */
+        public Builder tag(String tagKey, String tagValue) {
+            return addColumn(tagColumns, tagKey, tagValue);
+        }
+
+        /**
+         * Adds a field column of floating point values. Points with a NaN or infinite value do not
+         * get the field.
+         *
+         * @param fieldKey    the key of the field, not {@code null}
+         * @param fieldValues the field value of each point, not {@code null}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if any of the arguments is {@code null}
+         */
+        public Builder doubleField(String fieldKey, double[] fieldValues) {
+            return addColumn(fieldColumns, fieldKey, fieldValues);
+        }
+
+        /**
+         * Adds a field column of integer values.
+         *
+         * @param fieldKey    the key of the field, not {@code null}
+         * @param fieldValues the field value of each point, not {@code null}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if any of the arguments is {@code null}
+         */
+        public Builder longField(String fieldKey, long[] fieldValues) {
+            return addColumn(fieldColumns, fieldKey, fieldValues);
+        }
+
+        /**
+         * Adds a field column of boolean values.
+         *
+         * @param fieldKey    the key of the field, not {@code null}
+         * @param fieldValues the field value of each point, not {@code null}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException if any of the arguments is {@code null}
+         */
+        public Builder booleanField(String fieldKey, boolean[] fieldValues) {
+            return addColumn(fieldColumns, fieldKey, fieldValues);
+        }
+
+        private Builder addColumn(Map<String, Object> columns, String key, Object column) {
+            if (key == null) {
+                throw new IllegalArgumentException("Key cannot be null");
+            }
+
+            if (column == null) {
+                throw new IllegalArgumentException("Values of '" + key + "' cannot be null");
+            }
+
+            columns.put(key, column);
+            return this;
+        }
+
+        /**
+         * Constructs a {@link PointBatch} from this builder.
+         *
+         * @return the constructed {@link PointBatch}
+         *
+         * @throws IllegalStateException if the measurement name is blank, if no fields have been
+         *                               added or if the columns are not all of the same length
+         */
+        public PointBatch build() {
+            if (StringUtils.isBlank(measurementName)) {
+                throw new IllegalStateException("Measurement name cannot be blank");
+            }
+
+            if (fieldColumns.isEmpty()) {
+                throw new IllegalStateException("Batch must have at least one field");
+            }
+
+            int size = Array.getLength(fieldColumns.values().iterator().next());
+            if (timestamps != null && timestamps.length != size) {
+                throw new IllegalStateException("Expected " + size + " timestamps but got "
+                        + timestamps.length);
+            }
+            assertColumnLengths(tagColumns, size);
+            assertColumnLengths(fieldColumns, size);
+
+            return new PointBatch(this, size);
+        }
+
+        private void assertColumnLengths(Map<String, Object> columns, int size) {
+            columns.forEach((key, column) -> {
+                if (column.getClass().isArray()
+                        && Array.getLength(column) != size) {
+                    throw new IllegalStateException("Expected " + size + " values of '" + key
+                            + "' but got " + Array.getLength(column));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.nickrm.jflux.domain;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The precision of the timestamps written to and read from InfluxDB.
+ * <p>
+ * Timestamps are sent to InfluxDB as the number of time units since the epoch. A coarser precision
+ * results in smaller payloads and better compression of timestamps on the server, while a finer
+ * precision allows points which are close in time to be distinguished.
+ *
+ * @since 1.1.0
+ */
+public enum Precision {
+
+    NANOSECONDS("ns", TimeUnit.NANOSECONDS),
+    MICROSECONDS("u", TimeUnit.MICROSECONDS),
+    MILLISECONDS("ms", TimeUnit.MILLISECONDS),
+    SECONDS("s", TimeUnit.SECONDS),
+    MINUTES("m", TimeUnit.MINUTES),
+    HOURS("h", TimeUnit.HOURS);
+
+    private static final Map<String, Precision> LOOKUP_MAP =
+            Arrays.stream(Precision.values()).collect(
+                    Collectors.toMap(Precision::getIdentifier, Function.identity()));
+
+    private final String identifier;
+    private final TimeUnit timeUnit;
+
+    Precision(String identifier, TimeUnit timeUnit) {
+        this.identifier = identifier;
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * Gets the identifier of this precision used in the InfluxDB API, e.g. {@code ms}.
+     *
+     * @return the precision identifier
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Gets the time unit that corresponds to this precision.
+     *
+     * @return the time unit
+     */
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    /**
+     * Gets the precision with the specified identifier.
+     * <p>
+     * Besides the identifiers returned by {@link #getIdentifier()}, {@code n} and {@code us} are
+     * also accepted for nanoseconds and microseconds respectively.
+     *
+     * @param identifier the identifier to search for
+     *
+     * @return the precision that corresponds to the identifier
+     *
+     * @throws IllegalArgumentException if no precision with the specified identifier exists
+     */
+    public static Precision fromIdentifier(String identifier) {
+        if ("n".equals(identifier)) {
+            return NANOSECONDS;
+        }
+        else if ("us".equals(identifier)) {
+            return MICROSECONDS;
+        }
+        else if (LOOKUP_MAP.containsKey(identifier)) {
+            return LOOKUP_MAP.get(identifier);
+        }
+        else {
+            throw new IllegalArgumentException("Invalid identifier " + identifier);
+        }
+    }
+}
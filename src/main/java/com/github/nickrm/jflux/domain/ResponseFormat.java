@@ -0,0 +1,38 @@
+package com.github.nickrm.jflux.domain;
+
+/**
+ * The formats in which InfluxDB can return query results.
+ * <p>
+ * The format is only a preference, which InfluxDB versions that do not support it ignore, so
+ * responses are always decoded according to their actual content type. Queries about the
+ * database structure, such as those listing databases and retention policies, always request
+ * JSON.
+ *
+ * @since 1.1.0
+ */
+public enum ResponseFormat {
+
+    JSON("application/json"),
+    MESSAGE_PACK("application/x-msgpack"),
+
+    /**
+     * Comma-separated values, which are untyped and do not identify the statements of a query, so
+     * they are best suited for querying a single measurement.
+     */
+    CSV("application/csv");
+
+    private final String mediaType;
+
+    ResponseFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Gets the media type requested for this format, e.g. {@code application/json}.
+     *
+     * @return the media type
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.nickrm.jflux.domain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map view over parallel arrays of keys and values, with the keys sorted.
+ * <p>
+ * The arrays are not copied, so they must not be modified after the view has been created.
+ * Lookups are done with a binary search over the keys.
+ *
+ * @param <V> the type of the values
+ */
+final class SortedArrayMap<V> extends AbstractMap<String, V> {
+
+    private final String[] keys;
+    private final V[] values;
+
+    /**
+     * Initializes a new view over the specified arrays.
+     *
+     * @param keys   the keys, sorted in their natural order and without duplicates
+     * @param values the values, in the same order as their keys
+     */
+    SortedArrayMap(String[] keys, V[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<Entry<String, V>>() {
+
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        Entry<String, V> entry =
+                                new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof SortedArrayMap) {
+            // Both maps are sorted the same way, so equal maps have equal arrays.
+            SortedArrayMap<?> other = (SortedArrayMap<?>) o;
+            return Arrays.equals(keys, other.keys) && Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // Same as AbstractMap, without creating entries.
+        int hashCode = 0;
+        for (int i = 0; i < keys.length; i++) {
+            hashCode += keys[i].hashCode() ^ (values[i] == null ? 0 : values[i].hashCode());
+        }
+        return hashCode;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Copies a map into sorted arrays of keys and values.
+     *
+     * @param map    the map to copy
+     * @param keys   the array to copy the keys into, of the same size as the map
+     * @param values the array to copy the values into, of the same size as the map
+     * @param <V>    the type of the values
+     *
+     * @throws IllegalArgumentException if the map contains a {@code null} key
+     */
+    static <V> void copy(Map<String, ? extends V> map, String[] keys, V[] values) {
+        int i = 0;
+        for (String key : map.keySet()) {
+            if (key == null) {
+                throw new IllegalArgumentException("Keys cannot be null");
+            }
+            keys[i++] = key;
+        }
+        Arrays.sort(keys);
+        for (i = 0; i < keys.length; i++) {
+            values[i] = map.get(keys[i]);
+        }
+    }
+
+    private int indexOf(Object key) {
+        return key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+    }
+}
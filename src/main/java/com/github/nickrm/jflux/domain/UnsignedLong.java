@@ -0,0 +1,117 @@
+package com.github.nickrm.jflux.domain;
+
+/**
+ * Represents an unsigned 64-bit integer.
+ * <p>
+ * Java has no unsigned integer types, so field values of this type are used to write unsigned
+ * integers to InfluxDB. The value is held in a {@code long} and is interpreted as unsigned, i.e.
+ * negative {@code long} values represent values greater than {@link Long#MAX_VALUE}.
+ *
+ * @since 1.1.0
+ */
+public final class UnsignedLong extends Number implements Comparable<UnsignedLong> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long value;
+
+    private UnsignedLong(long value) {
+        this.value = value;
+    }
+
+    /**
+     * Creates a new instance from the bits of the specified {@code long}, interpreting them as an
+     * unsigned value.
+     *
+     * @param bits the bits of the unsigned value
+     *
+     * @return the new instance
+     */
+    public static UnsignedLong fromLongBits(long bits) {
+        return new UnsignedLong(bits);
+    }
+
+    /**
+     * Creates a new instance from the specified non-negative value.
+     *
+     * @param value the value, must not be negative
+     *
+     * @return the new instance
+     *
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public static UnsignedLong valueOf(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+
+        return new UnsignedLong(value);
+    }
+
+    /**
+     * Creates a new instance from the specified decimal string.
+     *
+     * @param value the decimal representation of the value
+     *
+     * @return the new instance
+     *
+     * @throws NumberFormatException if the string is not a valid unsigned 64-bit integer
+     */
+    public static UnsignedLong valueOf(String value) {
+        return new UnsignedLong(Long.parseUnsignedLong(value));
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    /**
+     * Gets the bits of this value as a {@code long}.
+     * <p>
+     * Values greater than {@link Long#MAX_VALUE} are returned as negative numbers.
+     *
+     * @return the bits of this value
+     */
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        double doubleValue = (double) (value >>> 1) * 2;
+        return doubleValue + (value & 1);
+    }
+
+    @Override
+    public int compareTo(UnsignedLong other) {
+        return Long.compareUnsigned(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return value == ((UnsignedLong) o).value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toUnsignedString(value);
+    }
+}
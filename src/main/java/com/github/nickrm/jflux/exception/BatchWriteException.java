@@ -0,0 +1,62 @@
+package com.github.nickrm.jflux.exception;
+
+import com.github.nickrm.jflux.BatchingWriter;
+
+/**
+ * Thrown to indicate that a batch of points buffered by a {@link BatchingWriter} could not be
+ * written, in which case the points of the batch have been discarded.
+ *
+ * @since 1.1.0
+ */
+public final class BatchWriteException extends RuntimeException {
+
+    private final String databaseName;
+    private final String retentionPolicyName;
+    private final int pointCount;
+
+    /**
+     * Creates a new instance setting the destination and size of the batch.
+     *
+     * @param databaseName        the database the batch was written to
+     * @param retentionPolicyName the retention policy the batch was written to, or {@code null}
+     *                            for the default retention policy
+     * @param pointCount          the number of points in the batch
+     * @param cause               the reason the batch could not be written
+     */
+    public BatchWriteException(String databaseName, String retentionPolicyName, int pointCount,
+            Throwable cause) {
+        super("Could not write " + pointCount + " points to database " + databaseName
+                + (retentionPolicyName == null ? "" : " and retention policy "
+                + retentionPolicyName), cause);
+        this.databaseName = databaseName;
+        this.retentionPolicyName = retentionPolicyName;
+        this.pointCount = pointCount;
+    }
+
+    /**
+     * Gets the database the batch was written to.
+     *
+     * @return the database name
+     */
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    /**
+     * Gets the retention policy the batch was written to.
+     *
+     * @return the retention policy name, or {@code null} for the default retention policy
+     */
+    public String getRetentionPolicyName() {
+        return retentionPolicyName;
+    }
+
+    /**
+     * Gets the number of points that were discarded.
+     *
+     * @return the number of points in the batch
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+}
@@ -0,0 +1,424 @@
+package com.github.nickrm.jflux.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.github.nickrm.jflux.annotation.Field;
+import com.github.nickrm.jflux.annotation.Measurement;
+import com.github.nickrm.jflux.annotation.Tag;
+import com.github.nickrm.jflux.annotation.Timestamp;
+import com.github.nickrm.jflux.codec.PointCodec;
+
+/**
+ * Generates a {@link PointCodec} for every class annotated with {@link Measurement}.
+ * <p>
+ * The generated codecs read and write the annotated members of a class directly, so objects of
+ * the class can be converted without reflection. The names of measurements, fields and tags are
+ * derived the same way as when converting through reflection.
+ * <p>
+ * The processor is not registered as a service, so it only runs when configured explicitly, e.g.
+ * with the {@code annotationProcessors} option of the Maven compiler plugin. A codec can only be
+ * generated for a class which can be instantiated and whose annotated members can be accessed
+ * from its package, i.e. which are neither private nor final. Classes which cannot have a codec
+ * are reported with a warning, and are converted through reflection as before.
+ *
+ * @since 1.1.0
+ */
+@SupportedAnnotationTypes("com.github.nickrm.jflux.annotation.Measurement")
+public final class PointCodecProcessor extends AbstractProcessor {
+
+    private static final String CODEC_SUFFIX = "_PointCodec";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Measurement.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            try {
+                writeCodec(type, getMembers(type));
+            } catch (UnsupportedClassException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "No point codec generated for " + type.getQualifiedName() + ", it "
+                                + e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write point codec: " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private List<Member> getMembers(TypeElement type) throws UnsupportedClassException {
+        assertCanBeInstantiated(type);
+
+        List<Member> members = new ArrayList<>();
+        int timestamps = 0;
+        int fields = 0;
+        for (VariableElement element : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Member member;
+            if (element.getAnnotation(Timestamp.class) != null) {
+                member = new Member(element, MemberKind.TIMESTAMP, null);
+                timestamps++;
+            }
+            else if (element.getAnnotation(Field.class) != null) {
+                member = new Member(element, MemberKind.FIELD,
+                        getName(element.getAnnotation(Field.class).value(), element));
+                fields++;
+            }
+            else if (element.getAnnotation(Tag.class) != null) {
+                member = new Member(element, MemberKind.TAG,
+                        getName(element.getAnnotation(Tag.class).value(), element));
+            }
+            else {
+                continue;
+            }
+
+            assertCanBeAccessed(member);
+            members.add(member);
+        }
+
+        if (timestamps > 1) {
+            throw new UnsupportedClassException(
+                    "has more than one member annotated with @Timestamp", type);
+        }
+
+        if (fields == 0) {
+            throw new UnsupportedClassException("has no members annotated with @Field", type);
+        }
+
+        return members;
+    }
+
+    private void assertCanBeInstantiated(TypeElement type) throws UnsupportedClassException {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedClassException("is abstract", type);
+        }
+
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedClassException("is generic", type);
+        }
+
+        Element element = type;
+        while (element.getKind().isClass()) {
+            TypeElement enclosedType = (TypeElement) element;
+            if (enclosedType.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedClassException("is not accessible from its package", type);
+            }
+            if (enclosedType.getNestingKind() != NestingKind.TOP_LEVEL
+                    && (enclosedType.getNestingKind() != NestingKind.MEMBER
+                    || !enclosedType.getModifiers().contains(Modifier.STATIC))) {
+                throw new UnsupportedClassException("is not a top level or static class", type);
+            }
+            element = element.getEnclosingElement();
+        }
+
+        boolean hasConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(
+                type.getEnclosedElements())) {
+            hasConstructor |= constructor.getParameters().isEmpty()
+                    && !constructor.getModifiers().contains(Modifier.PRIVATE);
+        }
+        if (!hasConstructor) {
+            throw new UnsupportedClassException("has no accessible no-argument constructor", type);
+        }
+    }
+
+    private void assertCanBeAccessed(Member member) throws UnsupportedClassException {
+        VariableElement element = member.element;
+        if (element.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new UnsupportedClassException("has private member " + element.getSimpleName(),
+                    element);
+        }
+
+        if (element.getModifiers().contains(Modifier.FINAL)) {
+            throw new UnsupportedClassException("has final member " + element.getSimpleName(),
+                    element);
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+        TypeMirror type = element.asType();
+        boolean supported;
+        switch (member.kind) {
+            case TIMESTAMP:
+                supported = isType(type, "java.time.Instant");
+                break;
+            case FIELD:
+                supported = type.getKind().isPrimitive() && type.getKind() != TypeKind.CHAR
+                        || isType(type, "java.lang.String") || isType(type, "java.lang.Boolean")
+                        || type.getKind() == TypeKind.DECLARED && types.isSubtype(type,
+                        elements.getTypeElement("java.lang.Number").asType());
+                break;
+            default:
+                supported = types.isAssignable(
+                        elements.getTypeElement("java.lang.String").asType(), type);
+                break;
+        }
+
+        if (!supported) {
+            throw new UnsupportedClassException("has member " + element.getSimpleName()
+                    + " of unsupported type " + type, element);
+        }
+    }
+
+    private void writeCodec(TypeElement type, List<Member> members) throws IOException {
+        Elements elements = processingEnv.getElementUtils();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String codecName = binaryName.substring(packageName.isEmpty() ? 0
+                : packageName.length() + 1) + CODEC_SUFFIX;
+        String typeName = type.getQualifiedName().toString();
+        Measurement measurement = type.getAnnotation(Measurement.class);
+        String measurementName = measurement.value().isEmpty()
+                ? toSnakeCase(type.getSimpleName().toString()) : measurement.value();
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(
+                binaryName + CODEC_SUFFIX, type).openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Point codec of {@link " + typeName + "}, generated by "
+                    + getClass().getName() + ".");
+            out.println(" */");
+            out.println("public final class " + codecName
+                    + " implements com.github.nickrm.jflux.codec.PointCodec<" + typeName + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public String getMeasurementName() {");
+            out.println("        return " + toLiteral(measurementName) + ";");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void encode(" + typeName + " object,");
+            out.println("            com.github.nickrm.jflux.codec.PointWriter writer) {");
+            for (Member member : members) {
+                writeEncoding(out, member, getAccess(typeName, member));
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + typeName
+                    + " decode(com.github.nickrm.jflux.domain.Point point) {");
+            out.println("        " + typeName + " object = new " + typeName + "();");
+            out.println("        Object value;");
+            for (Member member : members) {
+                writeDecoding(out, member, getAccess(typeName, member));
+            }
+            out.println("        return object;");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void writeEncoding(PrintWriter out, Member member, String access) {
+        TypeKind typeKind = member.element.asType().getKind();
+        if (member.kind == MemberKind.TIMESTAMP) {
+            out.println("        writer.timestamp(" + access + ");");
+            return;
+        }
+
+        String name = toLiteral(member.name);
+        switch (member.kind) {
+            case FIELD:
+                if (typeKind == TypeKind.BOOLEAN) {
+                    out.println("        writer.field(" + name + ", " + access + ");");
+                }
+                else if (typeKind == TypeKind.DOUBLE) {
+                    out.println("        writer.field(" + name + ", " + access + ");");
+                }
+                else if (typeKind == TypeKind.FLOAT) {
+                    // Widening would write e.g. 0.1f as 0.10000000149011612, so box it instead.
+                    out.println("        writer.field(" + name + ", (Object) " + access + ");");
+                }
+                else if (typeKind.isPrimitive()) {
+                    out.println("        writer.field(" + name + ", (long) " + access + ");");
+                }
+                else {
+                    out.println("        if (" + access + " != null) {");
+                    out.println("            writer.field(" + name + ", (Object) " + access + ");");
+                    out.println("        }");
+                }
+                break;
+            default:
+                if (typeKind.isPrimitive()) {
+                    out.println("        writer.tag(" + name + ", String.valueOf(" + access
+                            + "));");
+                }
+                else {
+                    out.println("        if (" + access + " != null) {");
+                    out.println("            writer.tag(" + name + ", " + access
+                            + ".toString());");
+                    out.println("        }");
+                }
+                break;
+        }
+    }
+
+    private void writeDecoding(PrintWriter out, Member member, String access) {
+        TypeMirror type = member.element.asType();
+        switch (member.kind) {
+            case TIMESTAMP:
+                out.println("        " + access + " = point.getTimestamp();");
+                break;
+            case FIELD:
+                out.println("        value = point.getField(" + toLiteral(member.name) + ");");
+                String boxedType = getBoxedNumberType(type);
+                if (type.getKind() == TypeKind.BOOLEAN) {
+                    out.println("        if (value != null) {");
+                    out.println("            " + access + " = (Boolean) value;");
+                    out.println("        }");
+                }
+                else if (type.getKind().isPrimitive()) {
+                    out.println("        if (value != null) {");
+                    out.println("            " + access + " = ((Number) value)." + type
+                            + "Value();");
+                    out.println("        }");
+                }
+                else if (boxedType != null) {
+                    out.println("        " + access + " = value == null ? null : " + type
+                            + ".valueOf(((Number) value)." + boxedType + "Value());");
+                }
+                else {
+                    if (isType(type, "java.lang.String")) {
+                        // Query results are untyped, so string fields are read back as tags.
+                        out.println("        if (value == null) {");
+                        out.println("            value = point.getTag(" + toLiteral(member.name)
+                                + ");");
+                        out.println("        }");
+                    }
+                    out.println("        " + access + " = ("
+                            + processingEnv.getTypeUtils().erasure(type) + ") value;");
+                }
+                break;
+            default:
+                out.println("        " + access + " = point.getTag(" + toLiteral(member.name)
+                        + ");");
+                break;
+        }
+    }
+
+    private String getBoxedNumberType(TypeMirror type) {
+        for (TypeKind kind : new TypeKind[] {TypeKind.BYTE, TypeKind.SHORT, TypeKind.INT,
+                TypeKind.LONG, TypeKind.FLOAT, TypeKind.DOUBLE}) {
+            PrimitiveType primitiveType = processingEnv.getTypeUtils().getPrimitiveType(kind);
+            if (processingEnv.getTypeUtils().isSameType(type, processingEnv.getTypeUtils()
+                    .boxedClass(primitiveType).asType())) {
+                return primitiveType.toString();
+            }
+        }
+        return null;
+    }
+
+    private String getAccess(String typeName, Member member) {
+        return (member.element.getModifiers().contains(Modifier.STATIC) ? typeName : "object")
+                + "." + member.element.getSimpleName();
+    }
+
+    private boolean isType(TypeMirror type, String typeName) {
+        return processingEnv.getTypeUtils().isSameType(type,
+                processingEnv.getElementUtils().getTypeElement(typeName).asType());
+    }
+
+    private static String getName(String annotationValue, VariableElement element) {
+        return annotationValue.isEmpty() ? toSnakeCase(element.getSimpleName().toString())
+                : annotationValue;
+    }
+
+    /**
+     * Converts a name to snake_case the same way as the names of classes converted through
+     * reflection.
+     */
+    private static String toSnakeCase(String value) {
+        StringBuilder sb = new StringBuilder();
+        char[] charArray = value.toCharArray();
+        for (int i = 0; i < charArray.length; i++) {
+            char c = charArray[i];
+            if (i > 0 && Character.isUpperCase(c)) {
+                sb.append("_");
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    private static String toLiteral(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }
+            else if (c < ' ' || c > '~') {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private enum MemberKind {
+        TIMESTAMP,
+        FIELD,
+        TAG
+    }
+
+    private static final class Member {
+
+        private final VariableElement element;
+        private final MemberKind kind;
+        private final String name;
+
+        Member(VariableElement element, MemberKind kind, String name) {
+            this.element = element;
+            this.kind = kind;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Thrown when no codec can be generated for a class.
+     */
+    private static final class UnsupportedClassException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        UnsupportedClassException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Annotation processors which generate code for annotated classes at build time.
+ *
+ * @since 1.1.0
+ */
+package com.github.nickrm.jflux.processor;
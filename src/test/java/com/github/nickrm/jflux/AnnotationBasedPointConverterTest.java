@@ -6,17 +6,23 @@ import java.util.Date;
 import java.util.Map;
 
 import com.github.nickrm.jflux.annotation.Field;
+import com.github.nickrm.jflux.annotation.Measurement;
 import com.github.nickrm.jflux.annotation.Tag;
 import com.github.nickrm.jflux.annotation.Timestamp;
 import com.github.nickrm.jflux.annotation.exception.DuplicateAnnotatedMembersException;
 import com.github.nickrm.jflux.annotation.exception.InvalidAnnotatedType;
 import com.github.nickrm.jflux.annotation.exception.MissingAnnotatedMemberException;
+import com.github.nickrm.jflux.codec.PointWriter;
 import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.Precision;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public class AnnotationBasedPointConverterTest {
 
@@ -125,11 +131,21 @@ public class AnnotationBasedPointConverterTest {
     }
 
     @Test
-    public void toPoint_shouldThrowException_ifFieldIsNotCorrectType() {
+    public void toPoint_shouldAcceptStringFields() {
         Object o = new Object() {
             @Field
             private String text = "some text";
         };
+        Point point = converter.toPoint(o);
+        assertThat(point.getFields()).containsEntry("text", "some text");
+    }
+
+    @Test
+    public void toPoint_shouldThrowException_ifFieldIsNotCorrectType() {
+        Object o = new Object() {
+            @Field
+            private Date date = new Date();
+        };
         assertThatExceptionOfType(InvalidAnnotatedType.class).isThrownBy(
                 () -> converter.toPoint(o));
     }
@@ -180,6 +196,48 @@ public class AnnotationBasedPointConverterTest {
         assertThat(result.aField).isEqualTo(fieldValue);
     }
 
+    @Test
+    public void fromPoint_shouldReadStringFieldWrittenByToPoint_fromTag() {
+        // Given
+        StringFieldClass written = new StringFieldClass();
+        written.text = "some text";
+        written.object = "other text";
+        written.count = 1;
+        Point point = converter.toPoint(written);
+
+        // Query results hold string values as tags.
+        Point.Builder readBack = new Point.Builder();
+        point.forEachField((key, value) -> {
+            if (value instanceof String) {
+                readBack.tag(key, (String) value);
+            }
+            else {
+                readBack.field(key, value);
+            }
+        });
+
+        // When
+        StringFieldClass read = converter.fromPoint(readBack.build(), StringFieldClass.class);
+
+        // Then
+        assertThat(point.getFields()).containsEntry("text", "some text");
+        assertThat(read.text).isEqualTo("some text");
+        assertThat(read.object).isEqualTo("other text");
+        assertThat(read.count).isEqualTo(1);
+    }
+
+    @Test
+    public void fromPoint_shouldPreferField_overTagOfSameName() {
+        // Given
+        Point point = new Point.Builder().tag("text", "tag").field("text", "field").build();
+
+        // When
+        StringFieldClass result = converter.fromPoint(point, StringFieldClass.class);
+
+        // Then
+        assertThat(result.text).isEqualTo("field");
+    }
+
     @Test
     public void fromPoint_shouldThrowException_ifFieldIsIncorrectType() {
         // Given
@@ -228,6 +286,158 @@ public class AnnotationBasedPointConverterTest {
         assertThat(result.nonAnnotatedField).isEqualTo("default_value");
     }
 
+    @Test
+    public void toPoint_shouldConvertEachInstance_ofSameClass() {
+        // Given
+        TestAnnotatedClass first = new TestAnnotatedClass();
+        first.aField = 1;
+        first.aTag = "first";
+        TestAnnotatedClass second = new TestAnnotatedClass();
+        second.aField = 2;
+
+        // When
+        Point firstPoint = converter.toPoint(first);
+        Point secondPoint = converter.toPoint(second);
+
+        // Then
+        assertThat(firstPoint.getFields()).containsOnly(entry("a_field", 1));
+        assertThat(firstPoint.getTags()).containsOnly(entry("a_tag", "first"));
+        assertThat(secondPoint.getFields()).containsOnly(entry("a_field", 2));
+        assertThat(secondPoint.getTags()).isEmpty();
+    }
+
+    @Test
+    public void toPoint_shouldUseGeneratedCodec_ifPresent() throws ClassNotFoundException {
+        // Given
+        Class.forName(CodecAnnotatedClass.class.getName() + "_PointCodec");
+        CodecAnnotatedClass o = new CodecAnnotatedClass();
+        o.aField = 1;
+        o.aTag = "tag_value";
+
+        // When
+        Point point = converter.toPoint(o);
+
+        // Then
+        assertThat(point.getFields()).containsOnly(entry("a_field", 1L));
+        assertThat(point.getTags()).containsOnly(entry("a_tag", "tag_value"));
+    }
+
+    @Test
+    public void fromPoint_shouldUseGeneratedCodec_ifPresent() {
+        // Given
+        Point point = new Point.Builder().field("a_field", 2).tag("a_tag", "tag_value").build();
+
+        // When
+        CodecAnnotatedClass result = converter.fromPoint(point, CodecAnnotatedClass.class);
+
+        // Then
+        assertThat(result.aField).isEqualTo(2);
+        assertThat(result.aTag).isEqualTo("tag_value");
+    }
+
+    @Test
+    public void getMeasurementName_shouldUseGeneratedCodec_ifPresent() {
+        assertThat(converter.getMeasurementName(CodecAnnotatedClass.class))
+                .isEqualTo("codec_measurement");
+        assertThat(converter.getMeasurementName(TestAnnotatedClass.class))
+                .isEqualTo("test_annotated_class");
+    }
+
+    @Test
+    public void encode_shouldWritePrimitiveFields_withoutBoxing() {
+        // Given
+        PrimitiveAnnotatedClass o = new PrimitiveAnnotatedClass();
+        o.anInt = 1;
+        o.aDouble = 0.5;
+        o.aFloat = 0.1f;
+        o.aBoolean = true;
+        PointWriter writer = mock(PointWriter.class);
+
+        // When
+        converter.encode(o, writer);
+
+        // Then
+        verify(writer).field("an_int", 1L);
+        verify(writer).field("a_double", 0.5);
+        verify(writer).field("a_float", (Object) 0.1f);
+        verify(writer).field("a_boolean", true);
+        verify(writer).tag("a_tag", "tag_value");
+        verify(writer).timestamp(null);
+    }
+
+    @Test
+    public void encode_shouldThrowException_ifNoFieldsWritten() {
+        // Given
+        TestAnnotatedClass o = new TestAnnotatedClass();
+
+        // When
+        assertThatExceptionOfType(MissingAnnotatedMemberException.class).isThrownBy(
+                () -> converter.encode(o, mock(PointWriter.class)));
+    }
+
+    @Test
+    public void encode_shouldThrowException_ifDoubleFieldIsNotFinite() {
+        // Given
+        PrimitiveAnnotatedClass o = new PrimitiveAnnotatedClass();
+        o.aDouble = Double.NaN;
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+
+        // When/Then
+        assertThatIllegalArgumentException().isThrownBy(() -> converter.encode(o, writer))
+                .withMessageContaining("a_double");
+    }
+
+    @Test
+    public void encode_shouldThrowException_ifFloatFieldIsNotFinite() {
+        // Given
+        PrimitiveAnnotatedClass o = new PrimitiveAnnotatedClass();
+        o.aFloat = Float.POSITIVE_INFINITY;
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+
+        // When/Then
+        assertThatIllegalArgumentException().isThrownBy(() -> converter.encode(o, writer))
+                .withMessageContaining("a_float");
+    }
+
+    @Test
+    public void encode_shouldThrowException_ifFieldIsNotFinite_withGeneratedCodec()
+            throws ClassNotFoundException {
+        // Given
+        Class.forName(FloatingPointCodecClass.class.getName() + "_PointCodec");
+        FloatingPointCodecClass primitive = new FloatingPointCodecClass();
+        primitive.aDouble = Double.NEGATIVE_INFINITY;
+        FloatingPointCodecClass boxed = new FloatingPointCodecClass();
+        boxed.aBoxedFloat = Float.NaN;
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+
+        // When/Then
+        assertThatIllegalArgumentException().isThrownBy(() -> converter.encode(primitive, writer))
+                .withMessageContaining("a_double");
+        writer.reset();
+        assertThatIllegalArgumentException().isThrownBy(() -> converter.encode(boxed, writer))
+                .withMessageContaining("a_boxed_float");
+    }
+
+    @Measurement("codec_measurement")
+    static class CodecAnnotatedClass {
+
+        @Field
+        int aField;
+
+        @Tag
+        String aTag;
+    }
+
+    @Measurement("floating_point_measurement")
+    static class FloatingPointCodecClass {
+
+        @Field
+        double aDouble;
+
+        @Field
+        Float aBoxedFloat;
+    }
+
     private static class TestAnnotatedClass {
 
         @Timestamp
@@ -242,6 +452,39 @@ public class AnnotationBasedPointConverterTest {
         private String nonAnnotatedField = "default_value";
     }
 
+    private static class PrimitiveAnnotatedClass {
+
+        @Timestamp
+        private Instant timestamp;
+
+        @Field
+        private int anInt;
+
+        @Field
+        private double aDouble;
+
+        @Field
+        private float aFloat;
+
+        @Field
+        private boolean aBoolean;
+
+        @Tag
+        private String aTag = "tag_value";
+    }
+
+    private static class StringFieldClass {
+
+        @Field
+        private String text;
+
+        @Field
+        private Object object;
+
+        @Field
+        private Integer count;
+    }
+
     private static class TestAnnotatedClassWithDateAsTimestamp {
 
         @Timestamp
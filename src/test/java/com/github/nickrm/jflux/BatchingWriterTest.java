@@ -0,0 +1,291 @@
+package com.github.nickrm.jflux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.github.nickrm.jflux.api.JFluxHttpClient;
+import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.exception.BatchWriteException;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchingWriterTest {
+
+    private static final String DATABASE_NAME = "some_db";
+    private static final String MEASUREMENT_NAME = "some_measurement";
+
+    @Mock
+    private JFluxHttpClient httpClient;
+
+    private final Set<BatchingWriter> openWriters = new HashSet<>();
+
+    private BatchingWriter writer;
+
+    @AfterEach
+    public void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void writePoints_shouldWriteSingleBatch_whenMaxPointsReached() throws IOException {
+        // Given
+        writer = newBuilder().maxPoints(2).lingerTime(Duration.ofHours(1)).build();
+
+        // When
+        writer.writePoints(DATABASE_NAME, MEASUREMENT_NAME,
+                Arrays.asList(createPoint(1), createPoint(2)));
+
+        // Then
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient, timeout(1000)).write(eq(DATABASE_NAME), requestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        assertThat(readBody(requestBody.getValue())).isEqualTo(
+                "some_measurement some_field=1i\nsome_measurement some_field=2i\n");
+    }
+
+    @Test
+    public void writePoints_shouldWriteBatch_whenMaxBytesReached() throws IOException {
+        // Given
+        writer = newBuilder().maxBytes(1).lingerTime(Duration.ofHours(1)).build();
+
+        // When
+        writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1));
+
+        // Then
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient, timeout(1000)).write(eq(DATABASE_NAME), requestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        assertThat(readBody(requestBody.getValue())).isEqualTo("some_measurement some_field=1i\n");
+    }
+
+    @Test
+    public void writePoint_shouldNotWrite_beforeAnyThresholdIsReached() throws IOException {
+        // Given
+        writer = newBuilder().lingerTime(Duration.ofHours(1)).build();
+
+        // When
+        writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1));
+
+        // Then
+        verify(httpClient, after(100).never()).write(anyString(), any(RequestBody.class),
+                any(Precision.class));
+    }
+
+    @Test
+    public void writePoint_shouldWriteBatch_afterLingerTime() throws IOException {
+        // Given
+        writer = newBuilder().lingerTime(Duration.ofMillis(10)).build();
+
+        // When
+        writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1));
+
+        // Then
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient, timeout(1000)).write(eq(DATABASE_NAME), requestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        assertThat(readBody(requestBody.getValue())).isEqualTo("some_measurement some_field=1i\n");
+    }
+
+    @Test
+    public void flush_shouldWriteSeparateBatches_forEachRetentionPolicy() throws IOException {
+        // Given
+        writer = newBuilder().lingerTime(Duration.ofHours(1)).build();
+        writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1));
+        writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(2), "some_rp");
+
+        // When
+        writer.flush();
+
+        // Then
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient).write(eq(DATABASE_NAME), requestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        assertThat(readBody(requestBody.getValue())).isEqualTo("some_measurement some_field=1i\n");
+
+        ArgumentCaptor<RequestBody> rpRequestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient).write(eq(DATABASE_NAME), eq("some_rp"), rpRequestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        assertThat(readBody(rpRequestBody.getValue())).isEqualTo(
+                "some_measurement some_field=2i\n");
+    }
+
+    @Test
+    public void close_shouldWriteBufferedPoints() throws IOException {
+        // Given
+        writer = newBuilder().lingerTime(Duration.ofHours(1)).build();
+        writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1));
+
+        // When
+        writer.close();
+
+        // Then
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient).write(eq(DATABASE_NAME), requestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        assertThat(readBody(requestBody.getValue())).isEqualTo("some_measurement some_field=1i\n");
+    }
+
+    @Test
+    public void flush_shouldReportFailedBatch_andThrowIt() throws IOException {
+        // Given
+        List<BatchWriteException> failures = new CopyOnWriteArrayList<>();
+        writer = newBuilder().lingerTime(Duration.ofHours(1)).failureHandler(failures::add).build();
+        IOException cause = new IOException("timeout");
+        when(httpClient.write(anyString(), any(RequestBody.class), any(Precision.class)))
+                .thenThrow(cause);
+        writer.writePoints(DATABASE_NAME, MEASUREMENT_NAME,
+                Arrays.asList(createPoint(1), createPoint(2)));
+
+        // When/Then
+        assertThatExceptionOfType(BatchWriteException.class).isThrownBy(writer::flush)
+                .satisfies(exception -> {
+                    assertThat(exception.getDatabaseName()).isEqualTo(DATABASE_NAME);
+                    assertThat(exception.getRetentionPolicyName()).isNull();
+                    assertThat(exception.getPointCount()).isEqualTo(2);
+                    assertThat(exception.getCause()).hasCause(cause);
+                    assertThat(failures).containsExactly(exception);
+                });
+
+        writer.flush();
+    }
+
+    @Test
+    public void writePoint_shouldBlock_whileMaxPendingBatchesAreWritten() throws Exception {
+        // Given
+        writer = newBuilder().maxPoints(1).maxPendingBatches(1).build();
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch serverResponded = new CountDownLatch(1);
+        when(httpClient.write(anyString(), any(RequestBody.class), any(Precision.class)))
+                .then(invocation -> {
+                    writeStarted.countDown();
+                    serverResponded.await();
+                    return null;
+                });
+        writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1));
+        assertThat(writeStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<Void> secondWrite = CompletableFuture.runAsync(
+                () -> writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(2)));
+
+        // Then
+        assertThatExceptionOfType(TimeoutException.class).isThrownBy(
+                () -> secondWrite.get(100, TimeUnit.MILLISECONDS));
+        serverResponded.countDown();
+        secondWrite.get(1, TimeUnit.SECONDS);
+        verify(httpClient, timeout(1000).times(2)).write(eq(DATABASE_NAME),
+                any(RequestBody.class), eq(Precision.MILLISECONDS));
+    }
+
+    @Test
+    public void build_shouldThrowException_ifMaxPendingBatchesIsNotPositive() {
+        assertThatIllegalStateException().isThrownBy(
+                () -> newBuilder().maxPendingBatches(0).build());
+    }
+
+    @Test
+    public void close_shouldRemoveWriterFromOpenWriters() {
+        // Given
+        writer = newBuilder().build();
+        assertThat(openWriters).containsExactly(writer);
+
+        // When
+        writer.close();
+
+        // Then
+        assertThat(openWriters).isEmpty();
+    }
+
+    @Test
+    public void writePoint_shouldThrowException_ifClosed() {
+        // Given
+        writer = newBuilder().build();
+        writer.close();
+
+        // When
+        assertThatIllegalStateException().isThrownBy(
+                () -> writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1)));
+    }
+
+    @Test
+    public void writePoint_shouldThrowException_ifDatabaseNameIsNull() {
+        writer = newBuilder().build();
+
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> writer.writePoint(null, MEASUREMENT_NAME, createPoint(1)));
+    }
+
+    @Test
+    public void writePoint_shouldThrowException_ifMeasurementNameIsNull() {
+        writer = newBuilder().build();
+
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> writer.writePoint(DATABASE_NAME, null, createPoint(1)));
+    }
+
+    @Test
+    public void writePoint_shouldThrowException_ifRetentionPolicyNameIsNull() {
+        writer = newBuilder().build();
+
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> writer.writePoint(DATABASE_NAME, MEASUREMENT_NAME, createPoint(1), null));
+    }
+
+    @Test
+    public void build_shouldThrowException_ifMaxPointsIsNotPositive() {
+        assertThatIllegalStateException().isThrownBy(() -> newBuilder().maxPoints(0).build());
+    }
+
+    @Test
+    public void build_shouldThrowException_ifLingerTimeIsNegative() {
+        assertThatIllegalStateException().isThrownBy(
+                () -> newBuilder().lingerTime(Duration.ofSeconds(-1)).build());
+    }
+
+    private BatchingWriter.Builder newBuilder() {
+        return new BatchingWriter.Builder(httpClient, new LineProtocolConverter(), openWriters);
+    }
+
+    private String readBody(RequestBody requestBody) throws IOException {
+        Buffer buffer = new Buffer();
+        requestBody.writeTo(buffer);
+        return buffer.readUtf8();
+    }
+
+    private Point createPoint(int value) {
+        return new Point.Builder().fields(Collections.singletonMap("some_field", value)).build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.nickrm.jflux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class ConversionExecutorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void convert_shouldConvertOnCallingThread_ifBelowThreshold() {
+        // Given
+        ConversionExecutor conversionExecutor =
+                ConversionExecutor.using(executor, 2, 4, false);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        // When
+        List<RequestBody> requestBodies = conversionExecutor.convert(Arrays.asList(1, 2, 3),
+                recordingConverter(threads, new CopyOnWriteArrayList<>()));
+
+        // Then
+        assertThat(requestBodies).hasSize(1);
+        assertThat(threads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    public void convert_shouldConvertChunksOnExecutor_ifAtLeastThreshold() {
+        // Given
+        ConversionExecutor conversionExecutor =
+                ConversionExecutor.using(executor, 2, 4, false);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        List<Collection<Integer>> chunks = new CopyOnWriteArrayList<>();
+
+        // When
+        List<RequestBody> requestBodies = conversionExecutor.convert(
+                new ArrayList<>(Arrays.asList(1, 2, 3, 4, 5)),
+                recordingConverter(threads, chunks));
+
+        // Then
+        assertThat(requestBodies).hasSize(2);
+        assertThat(chunks).containsExactlyInAnyOrder(Arrays.asList(1, 2, 3), Arrays.asList(4, 5));
+        assertThat(threads).doesNotContain(Thread.currentThread());
+    }
+
+    @Test
+    public void convert_shouldRethrowExceptionOfChunk() {
+        // Given
+        ConversionExecutor conversionExecutor =
+                ConversionExecutor.using(executor, 2, 1, false);
+
+        // When
+        assertThatIllegalStateException().isThrownBy(
+                () -> conversionExecutor.convert(Arrays.asList(1, 2), chunk -> {
+                    throw new IllegalStateException();
+                }));
+    }
+
+    @Test
+    public void write_shouldWriteOnCallingThread_ifNotConcurrent() {
+        // Given
+        ConversionExecutor conversionExecutor =
+                ConversionExecutor.using(executor, 2, 1, false);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        // When
+        conversionExecutor.write(Arrays.asList(body(), body()),
+                requestBody -> threads.add(Thread.currentThread()));
+
+        // Then
+        assertThat(threads).containsExactly(Thread.currentThread(), Thread.currentThread());
+    }
+
+    @Test
+    public void write_shouldWriteOnExecutor_ifConcurrent() {
+        // Given
+        ConversionExecutor conversionExecutor =
+                ConversionExecutor.using(executor, 2, 1, true);
+        List<RequestBody> requestBodies = Arrays.asList(body(), body(), body());
+        List<RequestBody> written = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        // When
+        conversionExecutor.write(requestBodies, requestBody -> {
+            written.add(requestBody);
+            threads.add(Thread.currentThread());
+        });
+
+        // Then
+        assertThat(written).containsExactlyInAnyOrderElementsOf(requestBodies);
+        assertThat(threads).doesNotContain(Thread.currentThread());
+    }
+
+    @Test
+    public void close_shouldShutDownOwnThreads_only() {
+        // Given
+        ConversionExecutor ownThreads = ConversionExecutor.withThreads(2, 1, false);
+        ConversionExecutor sharedExecutor = ConversionExecutor.using(executor, 2, 1, false);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        ownThreads.convert(Arrays.asList(1, 2), recordingConverter(threads, new ArrayList<>()));
+
+        // When
+        ownThreads.close();
+        sharedExecutor.close();
+
+        // Then
+        assertThat(threads).allMatch(thread -> thread.getName().startsWith("jflux-conversion-"));
+        assertThat(executor.isShutdown()).isFalse();
+    }
+
+    private static Function<Collection<Integer>, List<RequestBody>> recordingConverter(
+            List<Thread> threads, List<Collection<Integer>> chunks) {
+        return chunk -> {
+            threads.add(Thread.currentThread());
+            chunks.add(new ArrayList<>(chunk));
+            return Collections.singletonList(body());
+        };
+    }
+
+    private static RequestBody body() {
+        return RequestBody.create(MediaType.parse("text/plain"), "");
+    }
+}
@@ -1,13 +1,24 @@
 package com.github.nickrm.jflux;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
 import com.github.nickrm.jflux.api.JFluxHttpClient;
+import com.github.nickrm.jflux.domain.Measurement;
+import com.github.nickrm.jflux.domain.Point;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class DatabaseManagerTest {
@@ -42,4 +53,76 @@ public class DatabaseManagerTest {
         assertThatIllegalArgumentException().isThrownBy(
                 () -> databaseManager.dropDatabase(DatabaseManager.INTERNAL_DATABASE_NAME));
     }
+
+    @Test
+    public void databaseExists_shouldUseCachedDatabases_ifCacheEnabled() throws IOException {
+        // Given
+        DatabaseManager cachingManager = new DatabaseManager(httpClient, Duration.ofMinutes(1));
+        when(httpClient.queryMetadata("SHOW DATABASES"))
+                .thenReturn(databases("_internal", "some_db"));
+
+        // When
+        boolean first = cachingManager.databaseExists("some_db");
+        boolean second = cachingManager.databaseExists("some_db");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(httpClient, times(1)).queryMetadata("SHOW DATABASES");
+    }
+
+    @Test
+    public void databaseExists_shouldQueryAgain_ifDatabaseNotCached() throws IOException {
+        // Given
+        DatabaseManager cachingManager = new DatabaseManager(httpClient, Duration.ofMinutes(1));
+        when(httpClient.queryMetadata("SHOW DATABASES"))
+                .thenReturn(databases("_internal"))
+                .thenReturn(databases("_internal", "new_db"));
+        cachingManager.getDatabases();
+
+        // When
+        boolean exists = cachingManager.databaseExists("new_db");
+
+        // Then
+        assertThat(exists).isTrue();
+        verify(httpClient, times(2)).queryMetadata("SHOW DATABASES");
+    }
+
+    @Test
+    public void dropDatabase_shouldInvalidateCache() throws IOException {
+        // Given
+        DatabaseManager cachingManager = new DatabaseManager(httpClient, Duration.ofMinutes(1));
+        when(httpClient.queryMetadata("SHOW DATABASES"))
+                .thenReturn(databases("_internal", "some_db"))
+                .thenReturn(databases("_internal"));
+        cachingManager.getDatabases();
+
+        // When
+        cachingManager.dropDatabase("some_db");
+
+        // Then
+        assertThat(cachingManager.getDatabases()).containsExactly("_internal");
+    }
+
+    @Test
+    public void getDatabases_shouldQueryEveryTime_ifCacheDisabled() throws IOException {
+        // Given
+        when(httpClient.queryMetadata("SHOW DATABASES")).thenReturn(databases("_internal"));
+
+        // When
+        databaseManager.getDatabases();
+        databaseManager.getDatabases();
+
+        // Then
+        verify(httpClient, times(2)).queryMetadata("SHOW DATABASES");
+    }
+
+    private static Measurement databases(String... names) {
+        Point[] points = Arrays.stream(names)
+                .map(name -> new Point.Builder()
+                        .tags(Collections.singletonMap("name", name))
+                        .build())
+                .toArray(Point[]::new);
+        return new Measurement.Builder().name("databases").points(Arrays.asList(points)).build();
+    }
 }
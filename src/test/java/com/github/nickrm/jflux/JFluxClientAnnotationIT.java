@@ -1,9 +1,13 @@
 package com.github.nickrm.jflux;
 
+import java.util.List;
+
 import com.github.nickrm.jflux.annotation.Field;
 import com.github.nickrm.jflux.annotation.Tag;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class JFluxClientAnnotationIT extends AbstractJFluxClientIT {
 
     @Test
@@ -21,11 +25,31 @@ public class JFluxClientAnnotationIT extends AbstractJFluxClientIT {
         // No exception should be thrown.
     }
 
+    @Test
+    public void write_shouldWriteStringFields_thatAreReadBack() {
+        // Given
+        TestMeasurement testPoint = new TestMeasurement();
+        testPoint.testField = 4;
+        testPoint.note = "some note";
+
+        // When
+        jFluxClient.write(dbName, testPoint);
+        List<TestMeasurement> points = jFluxClient.getAllPoints(dbName, TestMeasurement.class);
+
+        // Then
+        assertThat(points).hasSize(1);
+        assertThat(points.get(0).testField).isEqualTo(4);
+        assertThat(points.get(0).note).isEqualTo("some note");
+    }
+
     private static class TestMeasurement {
 
         @Field
         private int testField;
 
+        @Field
+        private String note;
+
         private int otherField;
 
         @Tag("test_tag")
@@ -0,0 +1,92 @@
+package com.github.nickrm.jflux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.nickrm.jflux.domain.Point;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests compressing write requests sent by the client, served by a local server.
+ */
+public class JFluxClientGzipTest {
+
+    private static final int GZIP_THRESHOLD = 1000;
+
+    private final MockWebServer server = new MockWebServer();
+
+    private JFluxClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server.start();
+        server.enqueue(noContentResponse());
+        client = new JFluxClient.Builder(server.url("/").toString())
+                .maxWriteBodySize(100_000)
+                .gzipThreshold(GZIP_THRESHOLD)
+                .optimisticWrites(true)
+                .build();
+        server.takeRequest();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void writePoints_shouldNotCompressBody_ifSmallerThanThreshold() throws Exception {
+        // Given
+        server.enqueue(noContentResponse());
+        List<Point> points = Collections.singletonList(point(0));
+
+        // When
+        client.writePoints("some_db", "some_measurement", points);
+
+        // Then
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader("Content-Encoding")).isNull();
+        assertThat(request.getHeader("Content-Length"))
+                .isEqualTo(String.valueOf(request.getBodySize()));
+        assertThat(request.getBody().readUtf8()).startsWith("some_measurement,host=server0 ");
+    }
+
+    @Test
+    public void writePoints_shouldCompressBody_ifAtLeastThreshold() throws Exception {
+        // Given
+        server.enqueue(noContentResponse());
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            points.add(point(i));
+        }
+
+        // When
+        client.writePoints("some_db", "some_measurement", points);
+
+        // Then
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+    }
+
+    private static Point point(int i) {
+        return new Point.Builder()
+                .tag("host", "server" + i)
+                .field("value", i)
+                .build();
+    }
+
+    private static MockResponse noContentResponse() {
+        return new MockResponse().setResponseCode(204)
+                .setHeader("X-Influxdb-Build", "OSS")
+                .setHeader("X-Influxdb-Version", "1.7.9");
+    }
+}
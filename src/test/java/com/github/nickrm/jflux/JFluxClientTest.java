@@ -1,14 +1,30 @@
 package com.github.nickrm.jflux;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-
+import java.util.NoSuchElementException;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.nickrm.jflux.annotation.Field;
+import com.github.nickrm.jflux.annotation.Tag;
 import com.github.nickrm.jflux.api.JFluxHttpClient;
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
 import com.github.nickrm.jflux.api.response.ResponseMetadata;
 import com.github.nickrm.jflux.domain.BuildType;
 import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.PointBatch;
+import com.github.nickrm.jflux.domain.Precision;
 import com.github.nickrm.jflux.domain.RetentionPolicy;
 import com.github.nickrm.jflux.domain.Version;
 import com.github.nickrm.jflux.exception.DatabaseAlreadyExistsException;
@@ -16,9 +32,12 @@ import com.github.nickrm.jflux.exception.NoDatabaseSelectedException;
 import com.github.nickrm.jflux.exception.RetentionPolicyAlreadyExistsException;
 import com.github.nickrm.jflux.exception.UnknownDatabaseException;
 import com.github.nickrm.jflux.exception.UnknownRetentionPolicyException;
+import okhttp3.RequestBody;
+import okio.Buffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -26,8 +45,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIOException;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -441,6 +465,155 @@ public class JFluxClientTest {
                 () -> jFluxClient.writePoint(databaseName, "some_measurement", point));
     }
 
+    @Test
+    public void writePoints_shouldSendSingleRequest_forPointsInDifferentSeries()
+            throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+
+        Point point1 = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .tags(Collections.singletonMap("some_tag", "1"))
+                .build();
+        Point point2 = new Point.Builder().fields(Collections.singletonMap("some_field", 2))
+                .tags(Collections.singletonMap("some_tag", "2"))
+                .build();
+
+        // When
+        jFluxClient.writePoints(databaseName, "some_measurement", Arrays.asList(point1, point2));
+
+        // Then
+        verify(httpClient, times(1)).write(eq(databaseName), any(RequestBody.class),
+                eq(Precision.MILLISECONDS));
+    }
+
+    @Test
+    public void writePoints_shouldWriteWithSpecifiedPrecision() throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        Point point = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .build();
+
+        // When
+        jFluxClient.writePoints(databaseName, "some_measurement", Collections.singleton(point),
+                Precision.SECONDS);
+
+        // Then
+        verify(httpClient).write(eq(databaseName), any(RequestBody.class),
+                eq(Precision.SECONDS));
+    }
+
+    @Test
+    public void writePoints_shouldThrowException_ifPrecisionIsNull() {
+        assertThatIllegalArgumentException().isThrownBy(() -> jFluxClient.writePoints("some_db",
+                "some_measurement", Collections.emptyList(), (Precision) null));
+    }
+
+    @Test
+    public void write_shouldEncodeObjectsIntoSingleRequest() throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+
+        // When
+        jFluxClient.write(databaseName,
+                Arrays.asList(new AnnotatedObject("a", 1), new AnnotatedObject("b", 2)));
+
+        // Then
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient).write(eq(databaseName), requestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        Buffer buffer = new Buffer();
+        requestBody.getValue().writeTo(buffer);
+        assertThat(buffer.readUtf8()).isEqualTo(
+                "annotated_object,host=a value=1i\nannotated_object,host=b value=2i\n");
+    }
+
+    @Test
+    public void write_shouldGroupObjectsOfDifferentClasses_intoSingleRequest() throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+
+        // When
+        jFluxClient.write(databaseName, Arrays.asList(new AnnotatedObject("a", 1),
+                new OtherAnnotatedObject(true), new AnnotatedObject("b", 2)));
+
+        // Then
+        ArgumentCaptor<RequestBody> requestBody = ArgumentCaptor.forClass(RequestBody.class);
+        verify(httpClient).write(eq(databaseName), requestBody.capture(),
+                eq(Precision.MILLISECONDS));
+        Buffer buffer = new Buffer();
+        requestBody.getValue().writeTo(buffer);
+        assertThat(buffer.readUtf8()).isEqualTo(
+                "annotated_object,host=a value=1i\nannotated_object,host=b value=2i\n"
+                        + "other_annotated_object flag=true\n");
+    }
+
+    @Test
+    public void write_shouldThrowException_ifInputContainsNull() {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+
+        // When
+        assertThatIllegalArgumentException().isThrownBy(() -> jFluxClient.write(databaseName,
+                Arrays.asList(new AnnotatedObject("a", 1), null)));
+    }
+
+    @Test
+    public void writeToRetentionPolicy_shouldThrowException_ifRetentionPolicyDoesNotExist() {
+        // Given
+        String databaseName = "some_db";
+        String retentionPolicyName = "some_rp";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        when(retentionPolicyManager.retentionPolicyExists(retentionPolicyName, databaseName))
+                .thenReturn(false);
+
+        // When
+        assertThatExceptionOfType(UnknownRetentionPolicyException.class).isThrownBy(
+                () -> jFluxClient.write(databaseName, new AnnotatedObject("a", 1),
+                        retentionPolicyName));
+    }
+
+    @Test
+    public void writeBatch_shouldWriteToDatabase() throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        PointBatch batch = new PointBatch.Builder("some_measurement")
+                .doubleField("some_field", new double[] {1, 2})
+                .build();
+
+        // When
+        jFluxClient.writeBatch(databaseName, batch);
+
+        // Then
+        verify(httpClient).write(eq(databaseName), any(RequestBody.class),
+                eq(Precision.MILLISECONDS));
+    }
+
+    @Test
+    public void writeBatch_shouldThrowException_ifDatabaseDoesNotExist() {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(false);
+        PointBatch batch = new PointBatch.Builder("some_measurement")
+                .doubleField("some_field", new double[] {1})
+                .build();
+
+        // When/Then
+        assertThatExceptionOfType(UnknownDatabaseException.class).isThrownBy(
+                () -> jFluxClient.writeBatch(databaseName, batch));
+    }
+
+    @Test
+    public void writeBatch_shouldThrowException_ifBatchIsNull() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> jFluxClient.writeBatch("some_db", null));
+    }
+
     @Test
     public void writePointToRetentionPolicy_shouldThrowException_ifNoDatabaseSelected() {
         assertThatExceptionOfType(NoDatabaseSelectedException.class).isThrownBy(
@@ -567,6 +740,95 @@ public class JFluxClientTest {
         assertThat(points).isEmpty();
     }
 
+    @Test
+    public void streamAllPoints_shouldThrowException_ifDatabaseDoesNotExist() {
+        // Given
+        String dbName = "some_db";
+        when(databaseManager.databaseExists(dbName)).thenReturn(false);
+
+        // When
+        assertThatExceptionOfType(UnknownDatabaseException.class).isThrownBy(
+                () -> jFluxClient.streamAllPoints(dbName, "some_measurement"));
+    }
+
+    @Test
+    public void streamAllPoints_shouldStreamPointsOfQuery_andCloseStream() throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        Point point = new Point.Builder().field("value", 1).build();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(httpClient.queryStream("SELECT * FROM \"some_db\"..\"some_measurement\"", 10_000))
+                .thenReturn(Stream.of(point).onClose(() -> closed.set(true)));
+
+        // When
+        List<Point> points;
+        try (Stream<Point> stream = jFluxClient.streamAllPoints(databaseName,
+                "some_measurement")) {
+            points = stream.collect(Collectors.toList());
+        }
+
+        // Then
+        assertThat(points).containsExactly(point);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    public void exportAllPoints_shouldExportPointsOfQuery() throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        Writer writer = new StringWriter();
+
+        // When
+        jFluxClient.exportAllPoints(databaseName, "some_measurement", writer);
+
+        // Then
+        verify(httpClient).exportCsv("SELECT * FROM \"some_db\"..\"some_measurement\"", 10_000,
+                writer);
+    }
+
+    @Test
+    public void exportAllPoints_shouldThrowException_ifNoDatabaseSelected() {
+        assertThatExceptionOfType(NoDatabaseSelectedException.class).isThrownBy(
+                () -> jFluxClient.exportAllPoints("some_measurement", new StringWriter()));
+    }
+
+    @Test
+    public void streamAllPoints_shouldThrowException_ifConnectionLostWhileStreaming()
+            throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        Iterator<Point> failingIterator = new Iterator<Point>() {
+
+            @Override
+            public boolean hasNext() {
+                throw new UncheckedIOException(new IOException());
+            }
+
+            @Override
+            public Point next() {
+                throw new NoSuchElementException();
+            }
+        };
+        when(httpClient.queryStream(anyString(), anyInt())).thenReturn(StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(failingIterator, 0), false));
+        Stream<Point> stream = jFluxClient.streamAllPoints(databaseName, "some_measurement");
+
+        // When
+        assertThatIllegalStateException().isThrownBy(() -> stream.forEach(point -> { }))
+                .withCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void builder_shouldThrowException_ifQueryChunkSizeIsNotPositive() {
+        assertThatIllegalStateException().isThrownBy(
+                () -> new JFluxClient.Builder("http://localhost:8086")
+                        .queryChunkSize(0)
+                        .build());
+    }
+
     @Test
     public void close_shouldAlsoCloseHttpClient() throws Exception {
         // Given/When
@@ -575,4 +837,151 @@ public class JFluxClientTest {
         // Then
         verify(httpClient).close();
     }
+
+    @Test
+    public void close_shouldWriteBufferedPointsOfOpenBatchingWriters() throws Exception {
+        // Given
+        BatchingWriter batchingWriter = jFluxClient.batchingWriter()
+                .lingerTime(Duration.ofHours(1))
+                .build();
+        batchingWriter.writePoint("some_db", "some_measurement",
+                new Point.Builder().field("value", 1).build());
+
+        // When
+        jFluxClient.close();
+
+        // Then
+        verify(httpClient).write(eq("some_db"), any(RequestBody.class), eq(Precision.MILLISECONDS));
+        assertThatIllegalStateException().isThrownBy(() -> batchingWriter.writePoint("some_db",
+                "some_measurement", new Point.Builder().field("value", 2).build()));
+    }
+
+    @Test
+    public void builder_shouldThrowException_ifConversionParallelismIsNotPositive() {
+        assertThatIllegalStateException().isThrownBy(
+                () -> new JFluxClient.Builder("http://localhost:8086")
+                        .conversionParallelism(0)
+                        .build());
+    }
+
+    @Test
+    public void builder_shouldThrowException_ifParallelConversionThresholdIsNotPositive() {
+        assertThatIllegalStateException().isThrownBy(
+                () -> new JFluxClient.Builder("http://localhost:8086")
+                        .parallelConversionThreshold(0)
+                        .build());
+    }
+
+    @Test
+    public void builder_shouldThrowException_ifConversionExecutorIsNull() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new JFluxClient.Builder("http://localhost:8086")
+                        .conversionExecutor(null, 2));
+    }
+
+    @Test
+    public void builder_shouldThrowException_ifMetadataCacheTtlIsNegative() {
+        assertThatIllegalStateException().isThrownBy(
+                () -> new JFluxClient.Builder("http://localhost:8086")
+                        .metadataCacheTtl(Duration.ofSeconds(-1))
+                        .build());
+    }
+
+    @Test
+    public void refreshMetadata_shouldInvalidateCaches() {
+        // When
+        jFluxClient.refreshMetadata();
+
+        // Then
+        verify(databaseManager).invalidateCache();
+        verify(retentionPolicyManager).invalidateCache();
+    }
+
+    @Test
+    public void dropDatabase_shouldInvalidateCachedRetentionPolicies() {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+
+        // When
+        jFluxClient.dropDatabase(databaseName);
+
+        // Then
+        verify(databaseManager).dropDatabase(databaseName);
+        verify(retentionPolicyManager).invalidateCache(databaseName);
+    }
+
+    @Test
+    public void writePoints_shouldTranslateError_ifDatabaseNotFoundWhenWriting()
+            throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        when(httpClient.write(eq(databaseName), any(RequestBody.class), eq(Precision.MILLISECONDS)))
+                .thenThrow(new InfluxClientException("database not found: \\\"some_db\\\""));
+        Point point = new Point.Builder().field("some_field", 1).build();
+
+        // When
+        assertThatExceptionOfType(UnknownDatabaseException.class).isThrownBy(
+                () -> jFluxClient.writePoint(databaseName, "some_measurement", point))
+                .withCauseInstanceOf(InfluxClientException.class);
+    }
+
+    @Test
+    public void writePoints_shouldTranslateError_ifRetentionPolicyNotFoundWhenWriting()
+            throws IOException {
+        // Given
+        String databaseName = "some_db";
+        String retentionPolicyName = "some_rp";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        when(retentionPolicyManager.retentionPolicyExists(retentionPolicyName, databaseName))
+                .thenReturn(true);
+        when(httpClient.write(eq(databaseName), eq(retentionPolicyName), any(RequestBody.class),
+                eq(Precision.MILLISECONDS)))
+                .thenThrow(new InfluxClientException("retention policy not found: some_rp"));
+        Point point = new Point.Builder().field("some_field", 1).build();
+
+        // When
+        assertThatExceptionOfType(UnknownRetentionPolicyException.class).isThrownBy(
+                () -> jFluxClient.writePoint(databaseName, "some_measurement", point,
+                        retentionPolicyName));
+    }
+
+    @Test
+    public void writePoints_shouldRethrowOtherErrors() throws IOException {
+        // Given
+        String databaseName = "some_db";
+        when(databaseManager.databaseExists(databaseName)).thenReturn(true);
+        when(httpClient.write(eq(databaseName), any(RequestBody.class), eq(Precision.MILLISECONDS)))
+                .thenThrow(new InfluxClientException("partial write: field type conflict"));
+        Point point = new Point.Builder().field("some_field", 1).build();
+
+        // When
+        assertThatExceptionOfType(InfluxClientException.class).isThrownBy(
+                () -> jFluxClient.writePoint(databaseName, "some_measurement", point));
+    }
+
+    private static class AnnotatedObject {
+
+        @Tag
+        private final String host;
+
+        @Field
+        private final long value;
+
+        AnnotatedObject(String host, long value) {
+            this.host = host;
+            this.value = value;
+        }
+    }
+
+    private static class OtherAnnotatedObject {
+
+        @Field
+        private final boolean flag;
+
+        OtherAnnotatedObject(boolean flag) {
+            this.flag = flag;
+        }
+    }
 }
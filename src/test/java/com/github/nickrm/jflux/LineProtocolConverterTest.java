@@ -1,15 +1,27 @@
 package com.github.nickrm.jflux;
 
+import java.io.IOException;
+import java.math.BigInteger;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import com.github.nickrm.jflux.annotation.exception.MissingAnnotatedMemberException;
 import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.PointBatch;
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.domain.UnsignedLong;
+import okhttp3.RequestBody;
+import okio.Buffer;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 public class LineProtocolConverterTest {
@@ -32,7 +44,120 @@ public class LineProtocolConverterTest {
 
         // Then
         assertThat(lineProtocols).containsExactly(
-                "some_measurement,some_tag=some\\ value some_field=1 " + timestamp.toEpochMilli());
+                "some_measurement,some_tag=some\\ value some_field=1i " + timestamp.toEpochMilli());
+    }
+
+    @Test
+    public void toLineProtocol_shouldEscapeSpecialCharacters() {
+        // Given
+        Point point = new Point.Builder().fields(Collections.singletonMap("some field", 1))
+                .tags(Collections.singletonMap("some,tag", "a=b"))
+                .build();
+
+        // When
+        List<String> lineProtocols = lineProtocolConverter.toLineProtocol("some measurement",
+                Collections.singleton(point));
+
+        // Then
+        assertThat(lineProtocols).containsExactly(
+                "some\\ measurement,some\\,tag=a\\=b some\\ field=1i");
+    }
+
+    @Test
+    public void toLineProtocol_shouldGroupPointsInSameSeries_regardlessOfTagOrder() {
+        // Given
+        Map<String, String> tags1 = new LinkedHashMap<>();
+        tags1.put("tag_b", "2");
+        tags1.put("tag_a", "1");
+        Map<String, String> tags2 = new LinkedHashMap<>();
+        tags2.put("tag_a", "1");
+        tags2.put("tag_b", "2");
+        Point point1 = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .tags(tags1)
+                .build();
+        Point point2 = new Point.Builder().fields(Collections.singletonMap("some_field", 2))
+                .tags(tags2)
+                .build();
+
+        // When
+        List<String> lineProtocols = lineProtocolConverter.toLineProtocol("some_measurement",
+                Arrays.asList(point1, point2));
+
+        // Then
+        assertThat(lineProtocols).containsExactly(
+                "some_measurement,tag_a=1,tag_b=2 some_field=1i\n"
+                        + "some_measurement,tag_a=1,tag_b=2 some_field=2i");
+    }
+
+    @Test
+    public void toLineProtocol_shouldEncodeFieldValuesByType() {
+        // Given
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("long", 1L);
+        fields.put("int", -2);
+        fields.put("big_int", BigInteger.TEN);
+        fields.put("unsigned", UnsignedLong.fromLongBits(-1));
+        fields.put("double", 1.5);
+        fields.put("bool", true);
+        fields.put("string", "say \"hi\"");
+        Point point = new Point.Builder().fields(fields).build();
+
+        // When
+        List<String> lineProtocols = lineProtocolConverter.toLineProtocol("some_measurement",
+                Collections.singleton(point));
+
+        // Then
+        assertThat(lineProtocols).hasSize(1);
+        assertThat(lineProtocols.get(0).split(" ", 2)[1].split(",")).containsExactlyInAnyOrder(
+                "long=1i", "int=-2i", "big_int=10i", "unsigned=18446744073709551615u",
+                "double=1.5", "bool=true", "string=\"say \\\"hi\\\"\"");
+    }
+
+    @Test
+    public void toRequestBodies_shouldThrowException_ifObjectFieldTypeIsUnsupported() {
+        assertThatIllegalArgumentException().isThrownBy(() -> lineProtocolConverter
+                .toRequestBodies("m", Collections.singleton(1),
+                        (value, writer) -> writer.field("f", new Object()), Integer.MAX_VALUE,
+                        Precision.MILLISECONDS));
+    }
+
+    @Test
+    public void toLineProtocol_shouldWriteTimestampInSpecifiedPrecision() {
+        // Given
+        Instant timestamp = Instant.ofEpochSecond(7200, 123_456_789);
+        Point point = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .timestamp(timestamp)
+                .build();
+        Collection<Point> points = Collections.singleton(point);
+
+        // When / Then
+        assertThat(lineProtocolConverter.toLineProtocol("m", points, Precision.NANOSECONDS))
+                .containsExactly("m some_field=1i 7200123456789");
+        assertThat(lineProtocolConverter.toLineProtocol("m", points, Precision.MICROSECONDS))
+                .containsExactly("m some_field=1i 7200123456");
+        assertThat(lineProtocolConverter.toLineProtocol("m", points, Precision.MILLISECONDS))
+                .containsExactly("m some_field=1i 7200123");
+        assertThat(lineProtocolConverter.toLineProtocol("m", points, Precision.SECONDS))
+                .containsExactly("m some_field=1i 7200");
+        assertThat(lineProtocolConverter.toLineProtocol("m", points, Precision.MINUTES))
+                .containsExactly("m some_field=1i 120");
+        assertThat(lineProtocolConverter.toLineProtocol("m", points, Precision.HOURS))
+                .containsExactly("m some_field=1i 2");
+    }
+
+    @Test
+    public void toLineProtocol_shouldWritePrimitiveTimestamp() {
+        // Given
+        Point point = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .timestamp(1_500_000_000_123L, TimeUnit.MILLISECONDS)
+                .build();
+
+        // When
+        List<String> lineProtocols = lineProtocolConverter.toLineProtocol("m",
+                Collections.singleton(point), Precision.NANOSECONDS);
+
+        // Then
+        assertThat(lineProtocols).containsExactly("m some_field=1i 1500000000123000000");
     }
 
     @Test
@@ -79,6 +204,112 @@ public class LineProtocolConverterTest {
         assertThat(lineProtocols.size()).isEqualTo(2);
     }
 
+    @Test
+    public void toLineProtocol_shouldWriteEachPointOnSeparateLine_forPointsInSameSeries() {
+        // Given
+        Map<String, String> tags = Collections.singletonMap("some_tag", "tag1");
+        Point point1 = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .tags(tags)
+                .build();
+        Point point2 = new Point.Builder().fields(Collections.singletonMap("some_field", 2))
+                .tags(tags)
+                .build();
+
+        // When
+        List<String> lineProtocols = lineProtocolConverter.toLineProtocol("some_measurement",
+                Arrays.asList(point1, point2));
+
+        // Then
+        assertThat(lineProtocols).containsExactly(
+                "some_measurement,some_tag=tag1 some_field=1i\n"
+                        + "some_measurement,some_tag=tag1 some_field=2i");
+    }
+
+    @Test
+    public void toRequestBodies_shouldConstructSingleBody_forPointsInDifferentSeries()
+            throws IOException {
+        // Given
+        Point point1 = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .tags(Collections.singletonMap("some_tag", "1"))
+                .build();
+        Point point2 = new Point.Builder().fields(Collections.singletonMap("some_field", 2))
+                .tags(Collections.singletonMap("some_tag", "2"))
+                .build();
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies("some_measurement",
+                Arrays.asList(point1, point2), Integer.MAX_VALUE, Precision.MILLISECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(1);
+        assertThat(readBody(bodies.get(0)).split("\n")).containsExactlyInAnyOrder(
+                "some_measurement,some_tag=1 some_field=1i",
+                "some_measurement,some_tag=2 some_field=2i");
+    }
+
+    @Test
+    public void toRequestBodies_shouldSplitBodies_ifMaxBodySizeExceeded() throws IOException {
+        // Given
+        Point point1 = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .build();
+        Point point2 = new Point.Builder().fields(Collections.singletonMap("some_field", 2))
+                .build();
+        Point point3 = new Point.Builder().fields(Collections.singletonMap("some_field", 3))
+                .build();
+        int lineLength = "some_measurement some_field=1i\n".length();
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies("some_measurement",
+                Arrays.asList(point1, point2, point3), 2 * lineLength + 1,
+                Precision.MILLISECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(2);
+        assertThat(readBody(bodies.get(0))).isEqualTo(
+                "some_measurement some_field=1i\nsome_measurement some_field=2i\n");
+        assertThat(readBody(bodies.get(1))).isEqualTo("some_measurement some_field=3i\n");
+    }
+
+    @Test
+    public void writeLineProtocol_shouldTerminateEveryLine() throws IOException {
+        // Given
+        Point point = new Point.Builder().fields(Collections.singletonMap("some_field", 1))
+                .build();
+        Buffer buffer = new Buffer();
+
+        // When
+        lineProtocolConverter.writeLineProtocol("some_measurement", Arrays.asList(point, point),
+                Precision.MILLISECONDS, buffer);
+
+        // Then
+        assertThat(buffer.readUtf8()).isEqualTo(
+                "some_measurement some_field=1i\nsome_measurement some_field=1i\n");
+    }
+
+    @Test
+    public void writeLine_shouldWriteSinglePoint_withSortedTags() throws IOException {
+        // Given
+        Point point = new Point.Builder()
+                .timestamp(Instant.ofEpochMilli(1_000))
+                .tag("z", "1")
+                .tag("a", "2")
+                .field("value", 1)
+                .build();
+        Buffer buffer = new Buffer();
+
+        // When
+        lineProtocolConverter.writeLine("some measurement", point, Precision.SECONDS, buffer);
+
+        // Then
+        assertThat(buffer.readUtf8()).isEqualTo("some\\ measurement,a=2,z=1 value=1i 1\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldReturnEmptyList_ifNoPoints() {
+        assertThat(lineProtocolConverter.toRequestBodies("some_measurement",
+                Collections.emptyList(), Integer.MAX_VALUE, Precision.MILLISECONDS)).isEmpty();
+    }
+
     @Test
     public void toLineProtocol_shouldThrowException_ifMeasurementNameIsNull() {
         assertThatIllegalArgumentException().isThrownBy(
@@ -90,4 +321,191 @@ public class LineProtocolConverterTest {
         assertThatIllegalArgumentException().isThrownBy(
                 () -> lineProtocolConverter.toLineProtocol("", Collections.emptyList()));
     }
+
+    @Test
+    public void toRequestBodies_shouldWriteBatchFromColumns() throws IOException {
+        // Given
+        PointBatch batch = new PointBatch.Builder("some measurement")
+                .timestamps(new long[] {1_000L, 2_000L}, TimeUnit.MILLISECONDS)
+                .tag("host", new String[] {"a,1", null})
+                .tag("region", "eu")
+                .doubleField("value", new double[] {0.5, 2})
+                .longField("count", new long[] {1, -2})
+                .booleanField("ok", new boolean[] {true, false})
+                .build();
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies(batch,
+                Integer.MAX_VALUE, Precision.SECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(1);
+        assertThat(readBody(bodies.get(0))).isEqualTo(
+                "some\\ measurement,host=a\\,1,region=eu count=1i,ok=true,value=0.5 1\n"
+                        + "some\\ measurement,region=eu count=-2i,ok=false,value=2.0 2\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldSkipNonFiniteDoubles_andRowsWithoutFields()
+            throws IOException {
+        // Given
+        PointBatch batch = new PointBatch.Builder("m")
+                .timestamps(new long[] {1, 2, 3, 4}, TimeUnit.SECONDS)
+                .doubleField("a", new double[] {Double.NaN, 1, Double.NaN, 2})
+                .doubleField("b", new double[] {Double.POSITIVE_INFINITY, Double.NaN,
+                        Double.NEGATIVE_INFINITY, 3})
+                .build();
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies(batch,
+                Integer.MAX_VALUE, Precision.SECONDS);
+
+        // Then
+        assertThat(readBody(bodies.get(0))).isEqualTo("m a=1.0 2\nm a=2.0,b=3.0 4\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldSkipRowsWithoutFields_whenSplittingBatch()
+            throws IOException {
+        // Given
+        PointBatch batch = new PointBatch.Builder("m")
+                .doubleField("f", new double[] {1, Double.NaN, 2, 3})
+                .build();
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies(batch, 16,
+                Precision.MILLISECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(2);
+        assertThat(readBody(bodies.get(0))).isEqualTo("m f=1.0\nm f=2.0\n");
+        assertThat(readBody(bodies.get(1))).isEqualTo("m f=3.0\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldInterleaveConstantAndVaryingTags_byKey() throws IOException {
+        // Given
+        PointBatch batch = new PointBatch.Builder("m")
+                .tag("a", "x y")
+                .tag("b", new String[] {"1", null})
+                .tag("c", "z")
+                .tag("d", new String[] {null, "2"})
+                .longField("f", new long[] {1, 2})
+                .build();
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies(batch,
+                Integer.MAX_VALUE, Precision.MILLISECONDS);
+
+        // Then
+        assertThat(readBody(bodies.get(0))).isEqualTo(
+                "m,a=x\\ y,b=1,c=z f=1i\nm,a=x\\ y,c=z,d=2 f=2i\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldSplitBatch_ifMaxBodySizeExceeded() throws IOException {
+        // Given
+        PointBatch batch = new PointBatch.Builder("m")
+                .longField("f", new long[] {1, 2, 3})
+                .build();
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies(batch, 14,
+                Precision.MILLISECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(2);
+        assertThat(readBody(bodies.get(0))).isEqualTo("m f=1i\nm f=2i\n");
+        assertThat(readBody(bodies.get(1))).isEqualTo("m f=3i\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldEncodeObjects_withoutPoints() throws IOException {
+        // Given
+        List<Integer> objects = Arrays.asList(1, 2);
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies("some measurement",
+                objects, (value, writer) -> {
+                    writer.tag("z_tag", "a,b");
+                    writer.field("value", (long) value);
+                    writer.tag("a_tag", "c");
+                    writer.timestamp(Instant.ofEpochSecond(value));
+                }, Integer.MAX_VALUE, Precision.SECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(1);
+        assertThat(readBody(bodies.get(0))).isEqualTo(
+                "some\\ measurement,a_tag=c,z_tag=a\\,b value=1i 1\n"
+                        + "some\\ measurement,a_tag=c,z_tag=a\\,b value=2i 2\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldSplitObjects_ifMaxBodySizeExceeded() throws IOException {
+        // Given
+        List<Integer> objects = Arrays.asList(1, 2, 3);
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies("m", objects,
+                (value, writer) -> writer.field("f", (long) value), 14, Precision.MILLISECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(2);
+        assertThat(readBody(bodies.get(0))).isEqualTo("m f=1i\nm f=2i\n");
+        assertThat(readBody(bodies.get(1))).isEqualTo("m f=3i\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldWriteSameObjects_everyTimeBodyIsWritten() throws IOException {
+        // Given
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies("m",
+                Arrays.asList(1, 2), (value, writer) -> writer.field("f", (long) value),
+                Integer.MAX_VALUE, Precision.MILLISECONDS);
+
+        // When
+        String firstWrite = readBody(bodies.get(0));
+        String secondWrite = readBody(bodies.get(0));
+
+        // Then
+        assertThat(firstWrite).isEqualTo("m f=1i\nm f=2i\n");
+        assertThat(secondWrite).isEqualTo(firstWrite);
+    }
+
+    @Test
+    public void toRequestBodies_shouldWriteObjectsOfAllMeasurements_intoSameBody()
+            throws IOException {
+        // Given
+        Map<String, List<Integer>> objectsByMeasurement = new LinkedHashMap<>();
+        objectsByMeasurement.put("m1", Arrays.asList(1, 2));
+        objectsByMeasurement.put("m2", Collections.singletonList(3));
+
+        // When
+        List<RequestBody> bodies = lineProtocolConverter.toRequestBodies(objectsByMeasurement,
+                (value, writer) -> writer.field("f", (long) value), Integer.MAX_VALUE,
+                Precision.MILLISECONDS);
+
+        // Then
+        assertThat(bodies).hasSize(1);
+        assertThat(readBody(bodies.get(0))).isEqualTo("m1 f=1i\nm1 f=2i\nm2 f=3i\n");
+    }
+
+    @Test
+    public void toRequestBodies_shouldReturnEmptyList_ifNoObjects() {
+        assertThat(lineProtocolConverter.toRequestBodies("m", Collections.emptyList(),
+                (value, writer) -> writer.field("f", 1L), 100, Precision.MILLISECONDS)).isEmpty();
+    }
+
+    @Test
+    public void toRequestBodies_shouldThrowException_ifObjectHasNoFields() {
+        assertThatExceptionOfType(MissingAnnotatedMemberException.class).isThrownBy(
+                () -> lineProtocolConverter.toRequestBodies("m", Collections.singleton(1),
+                        (value, writer) -> writer.tag("t", "v"), Integer.MAX_VALUE,
+                        Precision.MILLISECONDS));
+    }
+
+    private String readBody(RequestBody requestBody) throws IOException {
+        Buffer buffer = new Buffer();
+        requestBody.writeTo(buffer);
+        return buffer.readUtf8();
+    }
 }
\ No newline at end of file
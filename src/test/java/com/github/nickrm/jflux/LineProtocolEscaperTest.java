@@ -0,0 +1,94 @@
+package com.github.nickrm.jflux;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LineProtocolEscaperTest {
+
+    @Test
+    public void escapeMeasurementName_shouldReturnSameInstance_ifNothingToEscape() {
+        String measurementName = "some_measurement=1";
+        assertThat(LineProtocolEscaper.escapeMeasurementName(measurementName))
+                .isSameAs(measurementName);
+    }
+
+    @Test
+    public void escapeMeasurementName_shouldEscapeCommasAndSpaces() {
+        assertThat(LineProtocolEscaper.escapeMeasurementName("some measurement,1"))
+                .isEqualTo("some\\ measurement\\,1");
+    }
+
+    @Test
+    public void escapeMeasurementName_shouldNotEscapeEqualsSigns() {
+        assertThat(LineProtocolEscaper.escapeMeasurementName("a=b")).isEqualTo("a=b");
+    }
+
+    @Test
+    public void escapeTagKey_shouldReturnSameInstance_ifNothingToEscape() {
+        String tagKey = "some_tag";
+        assertThat(LineProtocolEscaper.escapeTagKey(tagKey)).isSameAs(tagKey);
+    }
+
+    @Test
+    public void escapeTagKey_shouldEscapeCommasEqualsSignsAndSpaces() {
+        assertThat(LineProtocolEscaper.escapeTagKey("some tag,a=b")).isEqualTo(
+                "some\\ tag\\,a\\=b");
+    }
+
+    @Test
+    public void escapeTagValue_shouldReturnSameInstance_ifNothingToEscape() {
+        String tagValue = "some_value\"";
+        assertThat(LineProtocolEscaper.escapeTagValue(tagValue)).isSameAs(tagValue);
+    }
+
+    @Test
+    public void escapeTagValue_shouldEscapeCommasEqualsSignsAndSpaces() {
+        assertThat(LineProtocolEscaper.escapeTagValue("a b,c=d")).isEqualTo("a\\ b\\,c\\=d");
+    }
+
+    @Test
+    public void escapeTagValue_shouldReplaceOtherWhitespaceWithEscapedSpace() {
+        assertThat(LineProtocolEscaper.escapeTagValue("a\tb\nc\rd\fe\u000Bf")).isEqualTo(
+                "a\\ b\\ c\\ d\\ e\\ f");
+    }
+
+    @Test
+    public void escapeTagValue_shouldEscapeConsecutiveSpecialCharacters() {
+        assertThat(LineProtocolEscaper.escapeTagValue(" ,= ")).isEqualTo("\\ \\,\\=\\ ");
+    }
+
+    @Test
+    public void escapeTagValue_shouldNotEscapeBackslashes() {
+        assertThat(LineProtocolEscaper.escapeTagValue("a\\b")).isEqualTo("a\\b");
+    }
+
+    @Test
+    public void escapeTagValue_shouldReturnEmptyString_ifEmpty() {
+        assertThat(LineProtocolEscaper.escapeTagValue("")).isEmpty();
+    }
+
+    @Test
+    public void escapeFieldKey_shouldReturnSameInstance_ifNothingToEscape() {
+        String fieldKey = "some_field";
+        assertThat(LineProtocolEscaper.escapeFieldKey(fieldKey)).isSameAs(fieldKey);
+    }
+
+    @Test
+    public void escapeFieldKey_shouldEscapeCommasEqualsSignsAndSpaces() {
+        assertThat(LineProtocolEscaper.escapeFieldKey("some field,a=b")).isEqualTo(
+                "some\\ field\\,a\\=b");
+    }
+
+    @Test
+    public void escapeStringFieldValue_shouldReturnSameInstance_ifNothingToEscape() {
+        String fieldValue = "some value, a=b";
+        assertThat(LineProtocolEscaper.escapeStringFieldValue(fieldValue)).isSameAs(fieldValue);
+    }
+
+    @Test
+    public void escapeStringFieldValue_shouldEscapeDoubleQuotesAndBackslashes() {
+        assertThat(LineProtocolEscaper.escapeStringFieldValue("say \"a\\b\"")).isEqualTo(
+                "say \\\"a\\\\b\\\"");
+    }
+}
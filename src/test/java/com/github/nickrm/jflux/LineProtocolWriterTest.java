@@ -0,0 +1,114 @@
+package com.github.nickrm.jflux;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import com.github.nickrm.jflux.domain.Precision;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class LineProtocolWriterTest {
+
+    @Test
+    public void writeLine_shouldWriteFieldsOfEachType() throws IOException {
+        // Given
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+        writer.field("long", 1L);
+        writer.field("double", 0.5);
+        writer.field("boolean", false);
+        writer.field("float", (Object) 0.1f);
+        writer.field("string", (Object) "a \"b\"");
+        Buffer buffer = new Buffer();
+
+        // When
+        writer.writeLine(buffer);
+
+        // Then
+        assertThat(buffer.readUtf8()).isEqualTo(
+                "m long=1i,double=0.5,boolean=false,float=0.1,string=\"a \\\"b\\\"\"\n");
+    }
+
+    @Test
+    public void writeLine_shouldSortTags_byKey() throws IOException {
+        // Given
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+        for (int i = 9; i >= 0; i--) {
+            writer.tag("t" + i, Integer.toString(i));
+        }
+        writer.field("f", 1L);
+        Buffer buffer = new Buffer();
+
+        // When
+        writer.writeLine(buffer);
+
+        // Then
+        assertThat(buffer.readUtf8()).isEqualTo(
+                "m,t0=0,t1=1,t2=2,t3=3,t4=4,t5=5,t6=6,t7=7,t8=8,t9=9 f=1i\n");
+    }
+
+    @Test
+    public void writeLine_shouldResetWriter() throws IOException {
+        // Given
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.SECONDS);
+        writer.tag("t", "v");
+        writer.field("f", 1L);
+        writer.timestamp(Instant.ofEpochMilli(1_500));
+        Buffer buffer = new Buffer();
+        writer.writeLine(buffer);
+
+        // When
+        writer.field("f", 2L);
+        writer.writeLine(buffer);
+
+        // Then
+        assertThat(buffer.readUtf8()).isEqualTo("m,t=v f=1i 1\nm f=2i\n");
+        assertThat(writer.hasFields()).isFalse();
+    }
+
+    @Test
+    public void field_shouldThrowException_ifTypeIsNotSupported() {
+        // Given
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+
+        // When
+        assertThatIllegalArgumentException().isThrownBy(() -> writer.field("f", new Object()));
+    }
+
+    @Test
+    public void field_shouldThrowException_ifDoubleIsNotFinite() {
+        // Given
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+
+        // When/Then
+        assertThatIllegalArgumentException().isThrownBy(() -> writer.field("f", Double.NaN));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> writer.field("f", Double.POSITIVE_INFINITY));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> writer.field("f", Double.NEGATIVE_INFINITY));
+        assertThat(writer.hasFields()).isFalse();
+    }
+
+    @Test
+    public void field_shouldThrowException_ifBoxedValueIsNotFinite() {
+        // Given
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+
+        // When/Then
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> writer.field("f", (Object) Double.NaN));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> writer.field("f", (Object) Float.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void timestamp_shouldThrowException_ifOutOfRange() {
+        // Given
+        LineProtocolWriter writer = new LineProtocolWriter("m", Precision.MILLISECONDS);
+
+        // When
+        assertThatIllegalArgumentException().isThrownBy(() -> writer.timestamp(Instant.MAX));
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.nickrm.jflux;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class MemberAccessorTest {
+
+    @Test
+    public void get_shouldReturnMemberValue() throws NoSuchFieldException {
+        // Given
+        TestClass target = new TestClass();
+        target.stringMember = "value";
+        MemberAccessor accessor = accessor("stringMember");
+
+        // When
+        Object value = accessor.get(target);
+
+        // Then
+        assertThat(value).isEqualTo("value");
+    }
+
+    @Test
+    public void get_shouldBoxPrimitiveValue() throws NoSuchFieldException {
+        TestClass target = new TestClass();
+        target.intMember = 3;
+        assertThat(accessor("intMember").get(target)).isEqualTo(3);
+    }
+
+    @Test
+    public void get_shouldReadStaticMember() throws NoSuchFieldException {
+        assertThat(accessor("STATIC_MEMBER").get(null)).isEqualTo("static");
+    }
+
+    @Test
+    public void getLong_shouldReadIntegerMemberWithoutBoxing() throws NoSuchFieldException {
+        TestClass target = new TestClass();
+        target.intMember = 3;
+        target.longMember = 4;
+        assertThat(accessor("intMember").getLong(target)).isEqualTo(3L);
+        assertThat(accessor("longMember").getLong(target)).isEqualTo(4L);
+    }
+
+    @Test
+    public void getDouble_shouldReadDoubleMember() throws NoSuchFieldException {
+        TestClass target = new TestClass();
+        target.doubleMember = 0.5;
+        assertThat(accessor("doubleMember").getDouble(target)).isEqualTo(0.5);
+    }
+
+    @Test
+    public void getBoolean_shouldReadBooleanMember() throws NoSuchFieldException {
+        TestClass target = new TestClass();
+        target.booleanMember = true;
+        assertThat(accessor("booleanMember").getBoolean(target)).isTrue();
+    }
+
+    @Test
+    public void getLong_shouldThrowException_ifMemberIsNotIntegerType()
+            throws NoSuchFieldException {
+        MemberAccessor accessor = accessor("doubleMember");
+        assertThatExceptionOfType(ClassCastException.class).isThrownBy(
+                () -> accessor.getLong(new TestClass()));
+    }
+
+    @Test
+    public void set_shouldSetMemberValue() throws Exception {
+        // Given
+        TestClass target = new TestClass();
+
+        // When
+        accessor("stringMember").set(target, "value");
+        accessor("intMember").set(target, 3);
+
+        // Then
+        assertThat(target.stringMember).isEqualTo("value");
+        assertThat(target.intMember).isEqualTo(3);
+    }
+
+    @Test
+    public void set_shouldWidenValue() throws Exception {
+        TestClass target = new TestClass();
+        accessor("longMember").set(target, 3);
+        assertThat(target.longMember).isEqualTo(3L);
+    }
+
+    @Test
+    public void set_shouldSetFinalMember() throws Exception {
+        TestClass target = new TestClass();
+        accessor("finalMember").set(target, "changed");
+        assertThat(accessor("finalMember").get(target)).isEqualTo("changed");
+    }
+
+    @Test
+    public void set_shouldThrowException_ifValueIsIncorrectType() throws NoSuchFieldException {
+        MemberAccessor accessor = accessor("intMember");
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> accessor.set(new TestClass(), "value"));
+    }
+
+    private MemberAccessor accessor(String memberName) throws NoSuchFieldException {
+        return new MemberAccessor(TestClass.class.getDeclaredField(memberName));
+    }
+
+    private static class TestClass {
+
+        private static final String STATIC_MEMBER = "static";
+
+        private String stringMember;
+        private int intMember;
+        private long longMember;
+        private double doubleMember;
+        private boolean booleanMember;
+        private final String finalMember = new String("initial");
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.nickrm.jflux;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetadataCacheTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    public void getIfPresent_shouldReturnCachedValue_untilExpired() {
+        // Given
+        MetadataCache<String, String> cache =
+                new MetadataCache<>(Duration.ofNanos(10), nanoTime::get);
+        cache.put("key", "value");
+
+        // When
+        nanoTime.set(9);
+        String beforeExpiry = cache.getIfPresent("key");
+        nanoTime.set(10);
+        String afterExpiry = cache.getIfPresent("key");
+
+        // Then
+        assertThat(beforeExpiry).isEqualTo("value");
+        assertThat(afterExpiry).isNull();
+    }
+
+    @Test
+    public void put_shouldNotCache_ifTtlIsZero() {
+        // Given
+        MetadataCache<String, String> cache = new MetadataCache<>(Duration.ZERO, nanoTime::get);
+
+        // When
+        String value = cache.put("key", "value");
+
+        // Then
+        assertThat(value).isEqualTo("value");
+        assertThat(cache.getIfPresent("key")).isNull();
+    }
+
+    @Test
+    public void invalidate_shouldRemoveCachedValues() {
+        // Given
+        MetadataCache<String, String> cache =
+                new MetadataCache<>(Duration.ofSeconds(1), nanoTime::get);
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+        cache.put("key3", "value3");
+
+        // When
+        cache.invalidate("key1");
+        String afterInvalidate = cache.getIfPresent("key2");
+        cache.invalidateAll();
+
+        // Then
+        assertThat(cache.getIfPresent("key1")).isNull();
+        assertThat(afterInvalidate).isEqualTo("value2");
+        assertThat(cache.getIfPresent("key3")).isNull();
+    }
+}
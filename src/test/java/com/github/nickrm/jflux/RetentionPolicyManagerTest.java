@@ -1,8 +1,14 @@
 package com.github.nickrm.jflux;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.github.nickrm.jflux.api.JFluxHttpClient;
+import com.github.nickrm.jflux.domain.Measurement;
+import com.github.nickrm.jflux.domain.Point;
 import com.github.nickrm.jflux.domain.RetentionPolicy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,7 +16,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class RetentionPolicyManagerTest {
@@ -102,4 +112,54 @@ public class RetentionPolicyManagerTest {
         assertThatIllegalArgumentException().isThrownBy(
                 () -> retentionPolicyManager.dropRetentionPolicy("some_rp", null));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void retentionPolicyExists_shouldUseCachedRetentionPolicies_ifCacheEnabled()
+            throws IOException {
+        // Given
+        RetentionPolicyManager cachingManager =
+                new RetentionPolicyManager(httpClient, Duration.ofMinutes(1));
+        String query = "SHOW RETENTION POLICIES ON \"some_db\"";
+        when(httpClient.queryMetadata(query)).thenReturn(retentionPolicies("autogen"));
+
+        // When
+        boolean first = cachingManager.retentionPolicyExists("autogen", "some_db");
+        boolean second = cachingManager.retentionPolicyExists("autogen", "some_db");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(httpClient, times(1)).queryMetadata(query);
+    }
+
+    @Test
+    public void dropRetentionPolicy_shouldInvalidateCacheOfDatabase() throws IOException {
+        // Given
+        RetentionPolicyManager cachingManager =
+                new RetentionPolicyManager(httpClient, Duration.ofMinutes(1));
+        String query = "SHOW RETENTION POLICIES ON \"some_db\"";
+        when(httpClient.queryMetadata(query))
+                .thenReturn(retentionPolicies("autogen"))
+                .thenReturn(new Measurement.Builder().points(Collections.emptyList()).build());
+        cachingManager.getRetentionPolicies("some_db");
+
+        // When
+        cachingManager.dropRetentionPolicy("autogen", "some_db");
+
+        // Then
+        assertThat(cachingManager.retentionPolicyExists("autogen", "some_db")).isFalse();
+        verify(httpClient, times(2)).queryMetadata(query);
+    }
+
+    private static Measurement retentionPolicies(String name) {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("name", name);
+        tags.put("duration", "0s");
+        tags.put("shardGroupDuration", "168h0m0s");
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("replicaN", 1);
+        fields.put("default", true);
+        Point point = new Point.Builder().tags(tags).fields(fields).build();
+        return new Measurement.Builder().points(Collections.singletonList(point)).build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.nickrm.jflux;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okio.ByteString;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class SeriesKeyCacheTest {
+
+    @Test
+    public void get_shouldReturnEscapedSeriesKey() {
+        // Given
+        SeriesKeyCache cache = new SeriesKeyCache(10);
+
+        // When
+        ByteString seriesKey = cache.get("some measurement",
+                Collections.singletonMap("some_tag", "a,b"));
+
+        // Then
+        assertThat(seriesKey.utf8()).isEqualTo("some\\ measurement,some_tag=a\\,b");
+    }
+
+    @Test
+    public void get_shouldReturnMeasurementName_ifNoTags() {
+        SeriesKeyCache cache = new SeriesKeyCache(10);
+        assertThat(cache.get("some_measurement", Collections.emptyMap()).utf8())
+                .isEqualTo("some_measurement");
+    }
+
+    @Test
+    public void get_shouldSortTagsByKey() {
+        // Given
+        SeriesKeyCache cache = new SeriesKeyCache(10);
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("tag_c", "3");
+        tags.put("tag_a", "1");
+        tags.put("Tag_b", "2");
+
+        // When
+        ByteString seriesKey = cache.get("some_measurement", tags);
+
+        // Then
+        assertThat(seriesKey.utf8()).isEqualTo("some_measurement,Tag_b=2,tag_a=1,tag_c=3");
+    }
+
+    @Test
+    public void get_shouldReturnCachedSeriesKey_forEqualTags() {
+        // Given
+        SeriesKeyCache cache = new SeriesKeyCache(10);
+        ByteString seriesKey = cache.get("some_measurement",
+                Collections.singletonMap("some_tag", "1"));
+
+        // When
+        Map<String, String> tags = new HashMap<>();
+        tags.put("some_tag", "1");
+        ByteString result = cache.get("some_measurement", tags);
+
+        // Then
+        assertThat(result).isSameAs(seriesKey);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_shouldNotShareSeriesKeys_acrossMeasurements() {
+        // Given
+        SeriesKeyCache cache = new SeriesKeyCache(10);
+        Map<String, String> tags = Collections.singletonMap("some_tag", "1");
+        cache.get("measurement_1", tags);
+
+        // When
+        ByteString result = cache.get("measurement_2", tags);
+
+        // Then
+        assertThat(result.utf8()).isEqualTo("measurement_2,some_tag=1");
+    }
+
+    @Test
+    public void get_shouldEvictLeastRecentlyUsedSeriesKey_whenFull() {
+        // Given
+        SeriesKeyCache cache = new SeriesKeyCache(2);
+        ByteString seriesKey1 = cache.get("some_measurement",
+                Collections.singletonMap("some_tag", "1"));
+        ByteString seriesKey2 = cache.get("some_measurement",
+                Collections.singletonMap("some_tag", "2"));
+        cache.get("some_measurement", Collections.singletonMap("some_tag", "1"));
+
+        // When
+        cache.get("some_measurement", Collections.singletonMap("some_tag", "3"));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("some_measurement", Collections.singletonMap("some_tag", "1")))
+                .isSameAs(seriesKey1);
+        assertThat(cache.get("some_measurement", Collections.singletonMap("some_tag", "2")))
+                .isNotSameAs(seriesKey2)
+                .isEqualTo(seriesKey2);
+    }
+
+    @Test
+    public void constructor_shouldThrowException_ifMaxSizeIsNotPositive() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new SeriesKeyCache(0));
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.nickrm.jflux.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GzipRequestInterceptorTest {
+
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/octet-stream");
+    private static final String LINE_PROTOCOL = "some_measurement some_field=1\n";
+
+    @Mock
+    private Interceptor.Chain chain;
+
+    @Test
+    public void intercept_shouldCompressBody_ifAtLeastThreshold() throws IOException {
+        // Given
+        RequestBody body = RequestBody.create(MEDIA_TYPE, LINE_PROTOCOL);
+        when(chain.request()).thenReturn(createRequest(body));
+
+        // When
+        new GzipRequestInterceptor(LINE_PROTOCOL.length()).intercept(chain);
+
+        // Then
+        Request request = captureProceededRequest();
+        assertThat(request.header("Content-Encoding")).isEqualTo("gzip");
+        assertThat(request.body().contentType()).isEqualTo(body.contentType());
+        assertThat(decompress(request.body())).isEqualTo(LINE_PROTOCOL);
+    }
+
+    @Test
+    public void intercept_shouldNotCompressBody_ifBelowThreshold() throws IOException {
+        // Given
+        RequestBody body = RequestBody.create(MEDIA_TYPE, LINE_PROTOCOL);
+        when(chain.request()).thenReturn(createRequest(body));
+
+        // When
+        new GzipRequestInterceptor(LINE_PROTOCOL.length() + 1).intercept(chain);
+
+        // Then
+        Request request = captureProceededRequest();
+        assertThat(request.header("Content-Encoding")).isNull();
+        assertThat(request.body()).isSameAs(body);
+    }
+
+    @Test
+    public void intercept_shouldCompressBody_ifSizeUnknown() throws IOException {
+        // Given
+        RequestBody body = new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return MEDIA_TYPE;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.writeUtf8(LINE_PROTOCOL);
+            }
+        };
+        when(chain.request()).thenReturn(createRequest(body));
+
+        // When
+        new GzipRequestInterceptor(Long.MAX_VALUE).intercept(chain);
+
+        // Then
+        Request request = captureProceededRequest();
+        assertThat(request.header("Content-Encoding")).isEqualTo("gzip");
+        assertThat(decompress(request.body())).isEqualTo(LINE_PROTOCOL);
+    }
+
+    @Test
+    public void intercept_shouldNotModifyRequest_ifNoBody() throws IOException {
+        // Given
+        Request originalRequest = new Request.Builder().url("http://localhost:8086/ping").build();
+        when(chain.request()).thenReturn(originalRequest);
+
+        // When
+        new GzipRequestInterceptor(0).intercept(chain);
+
+        // Then
+        assertThat(captureProceededRequest()).isSameAs(originalRequest);
+    }
+
+    private Request createRequest(RequestBody body) {
+        return new Request.Builder().url("http://localhost:8086/write?db=some_db")
+                .post(body)
+                .build();
+    }
+
+    private Request captureProceededRequest() throws IOException {
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+        verify(chain).proceed(request.capture());
+        return request.getValue();
+    }
+
+    private String decompress(RequestBody body) throws IOException {
+        Buffer compressed = new Buffer();
+        body.writeTo(compressed);
+        return Okio.buffer(new GzipSource(compressed)).readUtf8();
+    }
+}
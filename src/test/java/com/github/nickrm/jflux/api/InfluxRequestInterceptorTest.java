@@ -0,0 +1,92 @@
+package com.github.nickrm.jflux.api;
+
+import java.io.IOException;
+
+import com.github.nickrm.jflux.domain.Precision;
+import com.github.nickrm.jflux.domain.ResponseFormat;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InfluxRequestInterceptorTest {
+
+    @Mock
+    private Interceptor.Chain chain;
+
+    @Test
+    public void intercept_shouldAddDefaultPrecision_ifNotSpecified() throws IOException {
+        // Given
+        when(chain.request()).thenReturn(new Request.Builder()
+                .url("http://localhost:8086/write?db=some_db")
+                .build());
+
+        // When
+        new InfluxRequestInterceptor(Precision.NANOSECONDS).intercept(chain);
+
+        // Then
+        assertThat(captureProceededRequest().url().queryParameter("precision")).isEqualTo("ns");
+    }
+
+    @Test
+    public void intercept_shouldKeepPrecision_ifSpecified() throws IOException {
+        // Given
+        when(chain.request()).thenReturn(new Request.Builder()
+                .url("http://localhost:8086/write?db=some_db&precision=s")
+                .build());
+
+        // When
+        new InfluxRequestInterceptor(Precision.NANOSECONDS).intercept(chain);
+
+        // Then
+        assertThat(captureProceededRequest().url().queryParameterValues("precision"))
+                .containsExactly("s");
+    }
+
+    @Test
+    public void intercept_shouldRequestResponseFormat_forQueries() throws IOException {
+        // Given
+        when(chain.request()).thenReturn(new Request.Builder()
+                .url("http://localhost:8086/query?q=SELECT")
+                .build());
+
+        // When
+        new InfluxRequestInterceptor(Precision.NANOSECONDS, ResponseFormat.MESSAGE_PACK)
+                .intercept(chain);
+
+        // Then
+        assertThat(captureProceededRequest().header("Accept")).isEqualTo("application/x-msgpack");
+    }
+
+    @Test
+    public void intercept_shouldNotRequestResponseFormat_forWrites() throws IOException {
+        // Given
+        when(chain.request()).thenReturn(new Request.Builder()
+                .url("http://localhost:8086/write?db=some_db")
+                .post(RequestBody.create(MediaType.get("text/plain"), "m f=1i"))
+                .build());
+
+        // When
+        new InfluxRequestInterceptor(Precision.NANOSECONDS, ResponseFormat.MESSAGE_PACK)
+                .intercept(chain);
+
+        // Then
+        assertThat(captureProceededRequest().header("Accept")).isNull();
+    }
+
+    private Request captureProceededRequest() throws IOException {
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+        verify(chain).proceed(request.capture());
+        return request.getValue();
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.nickrm.jflux.api;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
+import com.github.nickrm.jflux.domain.Measurement;
+import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.ResponseFormat;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests decoding and exporting CSV responses, served by a local server in the format InfluxDB
+ * writes them.
+ */
+public class JFluxHttpClientCsvTest {
+
+    private static final String CSV = "name,tags,time,host,value\n"
+            + "cpu,,1500000000123456789,server01,0.64\n"
+            + "cpu,,1500000060000000000,server02,0.5\n";
+
+    private final MockWebServer server = new MockWebServer();
+
+    private JFluxHttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server.start();
+        client = new JFluxHttpClient.Builder(server.url("/").toString())
+                .responseFormat(ResponseFormat.CSV)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void query_shouldRequestAndDecodeCsv() throws Exception {
+        // Given
+        server.enqueue(csvResponse(200, CSV));
+
+        // When
+        Measurement measurement = client.query("SELECT * FROM cpu");
+
+        // Then
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader("Accept")).isEqualTo("application/csv");
+
+        assertThat(measurement.getName()).isEqualTo("cpu");
+        List<Point> points = measurement.getPoints();
+        assertThat(points).extracting(Point::getTimestamp).containsExactly(
+                Instant.ofEpochSecond(1_500_000_000, 123_456_789),
+                Instant.ofEpochSecond(1_500_000_060));
+        assertThat(points.get(0).getTags()).containsOnlyKeys("host").containsValue("server01");
+        assertThat(points.get(0).getFields()).containsOnlyKeys("value").containsValue(0.64);
+    }
+
+    @Test
+    public void queryStream_shouldDecodeCsv() throws IOException {
+        // Given
+        server.enqueue(csvResponse(200, CSV));
+
+        // When
+        List<Point> points;
+        try (Stream<Point> stream = client.queryStream("SELECT * FROM cpu", 1)) {
+            points = stream.collect(Collectors.toList());
+        }
+
+        // Then
+        assertThat(points).extracting(point -> point.getTags().get("host"))
+                .containsExactly("server01", "server02");
+    }
+
+    @Test
+    public void query_shouldThrowException_ifCsvErrorReturned() {
+        // Given
+        server.enqueue(csvResponse(400, "error\n\"error parsing query: found EOF\"\n"));
+
+        // When/Then
+        assertThatExceptionOfType(InfluxClientException.class).isThrownBy(
+                () -> client.query("SELECT"))
+                .withMessage("error parsing query: found EOF");
+    }
+
+    @Test
+    public void exportCsv_shouldCopyResponse() throws Exception {
+        // Given
+        server.enqueue(csvResponse(200, CSV));
+        StringWriter writer = new StringWriter();
+
+        // When
+        client.exportCsv("SELECT * FROM cpu", 5000, writer);
+
+        // Then
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader("Accept")).isEqualTo("application/csv");
+        assertThat(request.getRequestUrl().queryParameter("chunked")).isEqualTo("true");
+        assertThat(request.getRequestUrl().queryParameter("chunk_size")).isEqualTo("5000");
+        assertThat(request.getRequestUrl().queryParameter("epoch")).isEqualTo("ns");
+        assertThat(writer.toString()).isEqualTo(CSV);
+    }
+
+    @Test
+    public void queryMetadata_shouldRequestJson() throws Exception {
+        // Given
+        server.enqueue(new MockResponse().setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setHeader("X-Influxdb-Build", "OSS")
+                .setHeader("X-Influxdb-Version", "1.7.9")
+                .setBody("{\"results\":[{\"statement_id\":0,\"series\":[{\"name\":\"databases\","
+                        + "\"columns\":[\"name\"],\"values\":[[\"_internal\"],[\"2024\"]]}]}]}"));
+
+        // When
+        Measurement measurement = client.queryMetadata("SHOW DATABASES");
+
+        // Then
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader("Accept")).isEqualTo("application/json");
+        assertThat(request.getRequestUrl().queryParameter("q")).isEqualTo("SHOW DATABASES");
+        assertThat(measurement.getPoints()).extracting(point -> point.getTags().get("name"))
+                .containsExactly("_internal", "2024");
+    }
+
+    @Test
+    public void exportCsv_shouldThrowException_ifWriterIsNull() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> client.exportCsv("SELECT * FROM cpu", 5000, null));
+    }
+
+    private static MockResponse csvResponse(int code, String body) {
+        return new MockResponse().setResponseCode(code)
+                .setHeader("Content-Type", "application/csv")
+                .setHeader("X-Influxdb-Build", "OSS")
+                .setHeader("X-Influxdb-Version", "1.7.9")
+                .setBody(body);
+    }
+}
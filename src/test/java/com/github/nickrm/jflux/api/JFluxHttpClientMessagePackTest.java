@@ -0,0 +1,145 @@
+package com.github.nickrm.jflux.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
+import com.github.nickrm.jflux.domain.Measurement;
+import com.github.nickrm.jflux.domain.Point;
+import com.github.nickrm.jflux.domain.ResponseFormat;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests decoding MessagePack responses, served by a local server from payloads encoded the way
+ * InfluxDB encodes them.
+ */
+public class JFluxHttpClientMessagePackTest {
+
+    private final MockWebServer server = new MockWebServer();
+
+    private JFluxHttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server.start();
+        client = new JFluxHttpClient.Builder(server.url("/").toString())
+                .responseFormat(ResponseFormat.MESSAGE_PACK)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void query_shouldRequestAndDecodeMessagePack() throws Exception {
+        // Given
+        server.enqueue(messagePackResponse(200, "query-response.msgpack"));
+
+        // When
+        Measurement measurement = client.query("SELECT * FROM cpu");
+
+        // Then
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader("Accept")).isEqualTo("application/x-msgpack");
+        assertThat(request.getRequestUrl().queryParameter("epoch")).isEqualTo("ns");
+
+        assertThat(measurement.getName()).isEqualTo("cpu");
+        List<Point> points = measurement.getPoints();
+        assertThat(points).extracting(Point::getTimestamp).containsExactly(
+                Instant.ofEpochSecond(1_500_000_000, 123_456_789),
+                Instant.ofEpochSecond(1_500_000_060));
+        assertThat(points.get(0).getTags()).containsOnlyKeys("host").containsValue("server01");
+        assertThat(points.get(0).getFields()).containsEntry("value", 0.64)
+                .containsEntry("count", 12)
+                .containsEntry("active", true);
+        assertThat(points.get(1).getFields()).containsEntry("count", -3)
+                .containsEntry("active", false);
+    }
+
+    @Test
+    public void query_shouldDecodeTimeExtension() throws IOException {
+        // Given
+        server.enqueue(messagePackResponse(200, "time-extension-response.msgpack"));
+
+        // When
+        Measurement measurement = client.query("SELECT value FROM cpu");
+
+        // Then
+        Point point = measurement.getPoints().get(0);
+        assertThat(point.getTimestamp())
+                .isEqualTo(Instant.ofEpochSecond(1_500_000_000, 123_456_789));
+        assertThat(point.getFields()).containsOnlyKeys("value").containsValue(1.5);
+    }
+
+    @Test
+    public void query_shouldThrowException_ifErrorResponse() {
+        // Given
+        server.enqueue(messagePackResponse(400, "error-response.msgpack"));
+
+        // When
+        assertThatExceptionOfType(InfluxClientException.class).isThrownBy(
+                () -> client.query("SELECT"))
+                .withMessage("error parsing query: found EOF, expected FROM at line 1, char 9");
+    }
+
+    @Test
+    public void queryStream_shouldDecodeAllChunks() throws Exception {
+        // Given
+        server.enqueue(messagePackResponse(200, "chunked-response.msgpack"));
+
+        // When
+        List<Point> points;
+        try (Stream<Point> stream = client.queryStream("SELECT * FROM cpu", 2)) {
+            points = stream.collect(Collectors.toList());
+        }
+
+        // Then
+        assertThat(server.takeRequest().getRequestUrl().queryParameter("chunk_size"))
+                .isEqualTo("2");
+        assertThat(points).extracting(point -> point.getFields().get("count"))
+                .containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void queryStream_shouldThrowException_ifChunkContainsError() throws IOException {
+        // Given
+        server.enqueue(messagePackResponse(200, "chunk-error-response.msgpack"));
+
+        // When
+        try (Stream<Point> stream = client.queryStream("SELECT * FROM cpu", 1)) {
+            assertThatExceptionOfType(InfluxClientException.class).isThrownBy(
+                    () -> stream.forEach(point -> { }))
+                    .withMessage("max-select-point limit exceeded: (1/0)");
+        }
+    }
+
+    private static MockResponse messagePackResponse(int statusCode, String payload) {
+        Buffer body = new Buffer();
+        try (InputStream inputStream =
+                JFluxHttpClientMessagePackTest.class.getResourceAsStream("/msgpack/" + payload)) {
+            body.readFrom(inputStream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read payload " + payload, e);
+        }
+        return new MockResponse().setResponseCode(statusCode)
+                .setHeader("Content-Type", "application/x-msgpack")
+                .setHeader("X-Influxdb-Build", "OSS")
+                .setHeader("X-Influxdb-Version", "1.7.9")
+                .setBody(body);
+    }
+}
@@ -3,9 +3,11 @@ package com.github.nickrm.jflux.api;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.github.nickrm.jflux.api.converter.ApiResponseConverter;
 import com.github.nickrm.jflux.api.exception.IllegalStatementException;
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
 import com.github.nickrm.jflux.api.response.ApiResponse;
 import com.github.nickrm.jflux.api.response.QueryResult;
 import com.github.nickrm.jflux.api.response.ResponseMetadata;
@@ -24,6 +26,7 @@ import retrofit2.Response;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -190,6 +193,54 @@ public class JFluxHttpClientTest {
                 () -> client.batchQuery(query));
     }
 
+
+    @Test
+    public void queryStream_shouldReturnPointsOfResponseBody() throws IOException {
+        // Given
+        String query = "SELECT * FROM measurement_1";
+
+        @SuppressWarnings("unchecked")
+        Call<ResponseBody> call = Mockito.mock(Call.class);
+        when(httpService.queryChunked(query, 100)).thenReturn(call);
+        ResponseBody responseBody = ResponseBody.create(MediaType.get("application/json"), "");
+        when(call.execute()).thenReturn(Response.success(responseBody));
+
+        Point point = new Point.Builder().field("field_1", 1).build();
+        when(responseConverter.convertToPoints(responseBody)).thenReturn(Stream.of(point));
+
+        // When
+        Stream<Point> points = client.queryStream(query, 100);
+
+        // Then
+        assertThat(points).containsExactly(point);
+    }
+
+    @Test
+    public void queryStream_shouldThrowException_ifResponseIsError() throws IOException {
+        // Given
+        String query = "SELECT * FROM measurement_1";
+
+        @SuppressWarnings("unchecked")
+        Call<ResponseBody> call = Mockito.mock(Call.class);
+        when(httpService.queryChunked(query, 100)).thenReturn(call);
+        Response<ResponseBody> responseWrapper = Response.error(400,
+                ResponseBody.create(MediaType.get("application/json"), ""));
+        when(call.execute()).thenReturn(responseWrapper);
+
+        ApiResponse response = new ApiResponse.Builder().errorMessage("some error").build();
+        when(responseConverter.convert(responseWrapper)).thenReturn(response);
+
+        // When
+        assertThatExceptionOfType(InfluxClientException.class).isThrownBy(
+                () -> client.queryStream(query, 100))
+                .withMessage("some error");
+    }
+
+    @Test
+    public void queryStream_shouldThrowException_ifChunkSizeIsNotPositive() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> client.queryStream("SELECT * FROM measurement_1", 0));
+    }
     private static ApiResponse createResponse() {
         List<Point> points = Collections.singletonList(new Point.Builder().build());
         Measurement measurement = new Measurement.Builder().name("series").points(points).build();
@@ -1,8 +1,12 @@
 package com.github.nickrm.jflux.api.converter;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import com.github.nickrm.jflux.api.response.ApiResponse;
+import com.github.nickrm.jflux.api.response.QueryResult;
+import okhttp3.MediaType;
 import okhttp3.ResponseBody;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +16,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import retrofit2.Response;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class ApiResponseConverterTest {
@@ -22,6 +28,9 @@ public class ApiResponseConverterTest {
     @Mock
     private ResponseBodyConverter responseBodyConverter;
 
+    @Mock
+    private CsvResponseBodyConverter csvResponseBodyConverter;
+
     @Mock
     private ErrorResponseConverter errorResponseConverter;
 
@@ -31,7 +40,7 @@ public class ApiResponseConverterTest {
     public void setup() {
         apiResponseConverter =
                 new ApiResponseConverter(responseHeaderConverter, responseBodyConverter,
-                        errorResponseConverter);
+                        csvResponseBodyConverter, errorResponseConverter);
     }
 
     @Test
@@ -46,4 +55,21 @@ public class ApiResponseConverterTest {
         assertThat(apiResponse.getResults()).isNotNull();
         assertThat(apiResponse.getResults()).isEmpty();
     }
+
+    @Test
+    public void convert_shouldConvertBodyAsCsv_ifContentTypeIsCsv() throws IOException {
+        // Given
+        ResponseBody body = ResponseBody.create(MediaType.get("text/csv"), "");
+        Response<ResponseBody> responseWrapper = Response.success(body);
+        List<QueryResult> results =
+                Collections.singletonList(new QueryResult.Builder().build());
+        when(csvResponseBodyConverter.convert(body)).thenReturn(results);
+
+        // When
+        ApiResponse apiResponse = apiResponseConverter.convert(responseWrapper);
+
+        // Then
+        assertThat(apiResponse.getResults()).isEqualTo(results);
+        verifyZeroInteractions(responseBodyConverter);
+    }
 }
@@ -0,0 +1,50 @@
+package com.github.nickrm.jflux.api.converter;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CsvReaderTest {
+
+    @Test
+    public void readRecord_shouldSplitValues_andReturnNullAtEnd() throws IOException {
+        // Given
+        CsvReader csvReader = new CsvReader(new StringReader("a,b,,c\n1,2,3,4"));
+
+        // When/Then
+        assertThat(csvReader.readRecord()).containsExactly("a", "b", "", "c");
+        assertThat(csvReader.readRecord()).containsExactly("1", "2", "3", "4");
+        assertThat(csvReader.readRecord()).isNull();
+    }
+
+    @Test
+    public void readRecord_shouldReadQuotedValues() throws IOException {
+        // Given
+        CsvReader csvReader = new CsvReader(
+                new StringReader("\"host=a,region=eu\",\"say \"\"hi\"\"\",\"line\nbreak\"\n"));
+
+        // When
+        String[] record = csvReader.readRecord();
+
+        // Then
+        assertThat(record).containsExactly("host=a,region=eu", "say \"hi\"", "line\nbreak");
+        assertThat(csvReader.readRecord()).isNull();
+    }
+
+    @Test
+    public void readRecord_shouldReturnEmptyRecord_forBlankLine() throws IOException {
+        // Given
+        CsvReader csvReader = new CsvReader(new StringReader("a,b\r\n\r\nc\n\nd"));
+
+        // When/Then
+        assertThat(csvReader.readRecord()).containsExactly("a", "b");
+        assertThat(csvReader.readRecord()).isEmpty();
+        assertThat(csvReader.readRecord()).containsExactly("c");
+        assertThat(csvReader.readRecord()).isEmpty();
+        assertThat(csvReader.readRecord()).containsExactly("d");
+        assertThat(csvReader.readRecord()).isNull();
+    }
+}
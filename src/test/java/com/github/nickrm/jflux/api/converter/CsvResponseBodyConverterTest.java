@@ -0,0 +1,117 @@
+package com.github.nickrm.jflux.api.converter;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
+import com.github.nickrm.jflux.api.response.QueryResult;
+import com.github.nickrm.jflux.domain.Measurement;
+import com.github.nickrm.jflux.domain.Point;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
+
+public class CsvResponseBodyConverterTest {
+
+    private final CsvResponseBodyConverter converter = new CsvResponseBodyConverter();
+
+    @Test
+    public void convert_shouldDecodeValues_byFormat() throws IOException {
+        // Given
+        String content = "name,tags,time,host,value,count,big,active,note\n"
+                + "cpu,,1500000000123456789,server01,0.64,12,18446744073709551615,true,\n";
+
+        // When
+        List<QueryResult> response = converter.convert(body(content));
+
+        // Then
+        assertThat(response).hasSize(1);
+        Measurement measurement = response.get(0).getResults().get(0);
+        assertThat(measurement.getName()).isEqualTo("cpu");
+
+        Point point = measurement.getPoints().get(0);
+        assertThat(point.getTimestamp())
+                .isEqualTo(Instant.ofEpochSecond(1_500_000_000, 123_456_789));
+        assertThat(point.getTags()).containsOnly(entry("host", "server01"), entry("note", "null"));
+        assertThat(point.getFields()).containsOnly(entry("value", 0.64), entry("count", 12),
+                entry("big", new BigInteger("18446744073709551615")), entry("active", true));
+    }
+
+    @Test
+    public void convert_shouldSplitSeries_byNameTagsAndHeader() throws IOException {
+        // Given
+        String content = "name,tags,time,value\n"
+                + "cpu,host=a,1,1\n"
+                + "cpu,host=a,2,2\n"
+                + "cpu,host=b,3,3\n"
+                + "\n"
+                + "name,tags,time,free\n"
+                + "mem,,4,4\n";
+
+        // When
+        List<QueryResult> response = converter.convert(body(content));
+
+        // Then
+        List<Measurement> measurements = response.get(0).getResults();
+        assertThat(measurements).extracting(Measurement::getName)
+                .containsExactly("cpu", "cpu", "mem");
+        assertThat(measurements).extracting(measurement -> measurement.getPoints().size())
+                .containsExactly(2, 1, 1);
+        assertThat(measurements.get(2).getPoints().get(0).getFields())
+                .containsOnly(entry("free", 4));
+    }
+
+    @Test
+    public void convert_shouldReturnEmptyResult_ifBodyIsEmpty() throws IOException {
+        // When
+        List<QueryResult> response = converter.convert(body(""));
+
+        // Then
+        assertThat(response).hasSize(1);
+        assertThat(response.get(0).getResults()).isEmpty();
+        assertThat(response.get(0).getError()).isNull();
+    }
+
+    @Test
+    public void convert_shouldSetError_ifBodyContainsError() throws IOException {
+        // Given
+        String content = "name,tags,time,value\ncpu,,1,1\n\nerror\n\"limit exceeded, (1/0)\"\n";
+
+        // When
+        List<QueryResult> response = converter.convert(body(content));
+
+        // Then
+        assertThat(response.get(0).getError()).isEqualTo("limit exceeded, (1/0)");
+        assertThat(response.get(0).getResults().get(0).getPoints()).hasSize(1);
+    }
+
+    @Test
+    public void convertToPoints_shouldStreamPoints_untilError() {
+        // Given
+        String content = "name,tags,time,value\ncpu,,1,1\ncpu,,2,2\n\nerror\nlimit exceeded\n";
+
+        // When
+        try (Stream<Point> points = converter.convertToPoints(body(content))) {
+            List<Point> read = new ArrayList<>();
+
+            // Then
+            assertThatExceptionOfType(InfluxClientException.class).isThrownBy(
+                    () -> points.forEach(read::add))
+                    .withMessage("limit exceeded");
+            assertThat(read).extracting(Point::getTimestamp)
+                    .containsExactly(Instant.ofEpochSecond(0, 1), Instant.ofEpochSecond(0, 2));
+        }
+    }
+
+    private static ResponseBody body(String content) {
+        return ResponseBody.create(MediaType.get("text/csv"), content);
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.nickrm.jflux.api.converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.nickrm.jflux.api.exception.InfluxClientException;
+import com.github.nickrm.jflux.domain.Point;
+import okio.Buffer;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class PointIteratorTest {
+
+    private static final String FIRST_CHUNK = "{\"results\":[{\"statement_id\":0,\"series\":[{"
+            + "\"name\":\"m\",\"columns\":[\"time\",\"f\"],"
+            + "\"values\":[[\"1970-01-01T00:00:01Z\",1],[\"1970-01-01T00:00:02Z\",2]],"
+            + "\"partial\":true}],\"partial\":true}]}\n";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    public void next_shouldReturnPointsOfAllChunks() throws IOException {
+        // Given
+        String secondChunk = "{\"results\":[{\"statement_id\":0,\"series\":[{"
+                + "\"name\":\"m\",\"columns\":[\"time\",\"f\"],"
+                + "\"values\":[[\"1970-01-01T00:00:03Z\",3]]}]}]}\n";
+        PointIterator iterator = iterator(new Buffer().writeUtf8(FIRST_CHUNK + secondChunk));
+
+        // When
+        List<Point> points = new ArrayList<>();
+        iterator.forEachRemaining(points::add);
+
+        // Then
+        assertThat(points).extracting(Point::getTimestamp).containsExactly(
+                Instant.ofEpochSecond(1), Instant.ofEpochSecond(2), Instant.ofEpochSecond(3));
+        assertThat(points).extracting(point -> point.getFields().get("f"))
+                .containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void next_shouldReadOnlyAsFarAsNeeded() throws IOException {
+        // Given
+        Buffer firstChunk = new Buffer().writeUtf8(FIRST_CHUNK);
+        Source connection = new Source() {
+
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                if (firstChunk.size() == 0) {
+                    throw new IOException("Connection lost");
+                }
+                return firstChunk.read(sink, byteCount);
+            }
+
+            @Override
+            public Timeout timeout() {
+                return Timeout.NONE;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        PointIterator iterator = iterator(connection);
+
+        // When
+        Point first = iterator.next();
+        Point second = iterator.next();
+
+        // Then
+        assertThat(first.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1));
+        assertThat(second.getTimestamp()).isEqualTo(Instant.ofEpochSecond(2));
+        assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(iterator::hasNext);
+    }
+
+    @Test
+    public void hasNext_shouldThrowException_ifChunkContainsError() throws IOException {
+        // Given
+        PointIterator iterator = iterator(new Buffer().writeUtf8(
+                FIRST_CHUNK + "{\"results\":[{\"statement_id\":0,\"error\":\"some error\"}]}\n"));
+        iterator.next();
+        iterator.next();
+
+        // When
+        assertThatExceptionOfType(InfluxClientException.class).isThrownBy(iterator::hasNext)
+                .withMessage("some error");
+    }
+
+    @Test
+    public void hasNext_shouldReturnFalse_ifNoSeries() throws IOException {
+        // Given
+        PointIterator iterator =
+                iterator(new Buffer().writeUtf8("{\"results\":[{\"statement_id\":0}]}\n"));
+
+        // When
+        boolean hasNext = iterator.hasNext();
+
+        // Then
+        assertThat(hasNext).isFalse();
+    }
+
+    private PointIterator iterator(Source source) throws IOException {
+        return new PointIterator(jsonFactory.createParser(Okio.buffer(source).inputStream()));
+    }
+}
@@ -12,6 +12,7 @@ import okhttp3.ResponseBody;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 public class ResponseBodyConverterTest {
 
@@ -64,4 +65,83 @@ public class ResponseBodyConverterTest {
         assertThat(point.getFields()).containsOnlyKeys(fieldName);
         assertThat(point.getFields().get(fieldName)).isEqualTo(fieldValue);
     }
+
+    @Test
+    public void convert_shouldReadEachResultAndSeries_skippingUnknownProperties()
+            throws IOException {
+        // Given
+        String content = "{\"results\":["
+                + "{\"statement_id\":0,\"series\":["
+                + "{\"name\":\"m1\",\"tags\":{\"host\":\"a\"},\"columns\":[\"time\",\"f\"],"
+                + "\"values\":[[\"1970-01-01T00:00:01Z\",1],[\"1970-01-01T00:00:02Z\",2.5]],"
+                + "\"partial\":true},"
+                + "{\"name\":\"m2\",\"columns\":[\"time\",\"f\"],\"values\":[]}]},"
+                + "{\"statement_id\":1,\"error\":\"some error\"}"
+                + "]}\n";
+
+        // When
+        List<QueryResult> response = converter.convert(body(content));
+
+        // Then
+        assertThat(response).hasSize(2);
+        assertThat(response.get(0).getStatementId()).isEqualTo(0);
+        assertThat(response.get(0).getResults()).extracting(Measurement::getName)
+                .containsExactly("m1", "m2");
+
+        List<Point> points = response.get(0).getResults().get(0).getPoints();
+        assertThat(points).extracting(Point::getTimestamp)
+                .containsExactly(Instant.ofEpochSecond(1), Instant.ofEpochSecond(2));
+        assertThat(points.get(0).getFields()).containsEntry("f", 1);
+        assertThat(points.get(1).getFields()).containsEntry("f", 2.5);
+        assertThat(response.get(0).getResults().get(1).getPoints()).isEmpty();
+
+        assertThat(response.get(1).getStatementId()).isEqualTo(1);
+        assertThat(response.get(1).getError()).isEqualTo("some error");
+        assertThat(response.get(1).getResults()).isEmpty();
+    }
+
+    @Test
+    public void convert_shouldReadEpochTimestamps_asNanoseconds() throws IOException {
+        // Given
+        String content = "{\"results\":[{\"series\":[{\"name\":\"m\","
+                + "\"columns\":[\"time\",\"f\"],\"values\":[[1500000000123456789,1]]}]}]}";
+
+        // When
+        List<QueryResult> response = converter.convert(body(content));
+
+        // Then
+        Point point = response.get(0).getResults().get(0).getPoints().get(0);
+        assertThat(point.getTimestamp())
+                .isEqualTo(Instant.ofEpochSecond(1_500_000_000, 123_456_789));
+    }
+
+    @Test
+    public void convert_shouldReadValues_ifBeforeColumns() throws IOException {
+        // Given
+        String content = "{\"results\":[{\"series\":[{\"name\":\"m\","
+                + "\"values\":[[1000000000,\"a\",true]],"
+                + "\"columns\":[\"time\",\"t\",\"f\"]}]}]}";
+
+        // When
+        List<QueryResult> response = converter.convert(body(content));
+
+        // Then
+        Point point = response.get(0).getResults().get(0).getPoints().get(0);
+        assertThat(point.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1));
+        assertThat(point.getTags()).containsOnly(entry("t", "a"));
+        assertThat(point.getFields()).containsOnly(entry("f", true));
+    }
+
+    @Test
+    public void convert_shouldReturnEmptyList_ifNoResults() throws IOException {
+        // When
+        List<QueryResult> response = converter.convert(body("{}"));
+
+        // Then
+        assertThat(response).isEmpty();
+    }
+
+    private static ResponseBody body(String content) {
+        return ResponseBody.create(MediaType.get("application/json"), content);
+    }
 }
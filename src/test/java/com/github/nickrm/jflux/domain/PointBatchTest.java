@@ -0,0 +1,107 @@
+package com.github.nickrm.jflux.domain;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class PointBatchTest {
+
+    @Test
+    public void build_shouldSortColumnsByKey() {
+        // Given
+        PointBatch.Builder builder = new PointBatch.Builder("some_measurement")
+                .tag("tag_b", new String[] {"b"})
+                .tag("tag_a", "a")
+                .longField("field_b", new long[] {1})
+                .booleanField("field_a", new boolean[] {true});
+
+        // When
+        PointBatch batch = builder.build();
+
+        // Then
+        assertThat(batch.size()).isEqualTo(1);
+        assertThat(batch.getTagKey(0)).isEqualTo("tag_a");
+        assertThat(batch.getTagValue(0, 0)).isEqualTo("a");
+        assertThat(batch.getTagKey(1)).isEqualTo("tag_b");
+        assertThat(batch.getFieldKey(0)).isEqualTo("field_a");
+        assertThat(batch.getFieldType(0)).isEqualTo(PointBatch.FieldType.BOOLEAN);
+        assertThat(batch.getFieldType(1)).isEqualTo(PointBatch.FieldType.LONG);
+        assertThat(batch.getLongValue(1, 0)).isEqualTo(1L);
+    }
+
+    @Test
+    public void getTagValue_shouldReturnConstantValue_forEveryPoint() {
+        // Given
+        PointBatch batch = new PointBatch.Builder("some_measurement")
+                .tag("constant", "a")
+                .tag("varying", new String[] {"b", "c"})
+                .longField("field", new long[] {1, 2})
+                .build();
+
+        // When/Then
+        assertThat(batch.isConstantTag(0)).isTrue();
+        assertThat(batch.isConstantTag(1)).isFalse();
+        assertThat(batch.getTagValue(0, 0)).isEqualTo("a");
+        assertThat(batch.getTagValue(0, 1)).isEqualTo("a");
+        assertThat(batch.getTagValue(1, 1)).isEqualTo("c");
+    }
+
+    @Test
+    public void getTimestamp_shouldConvertTimestamp() {
+        PointBatch batch = new PointBatch.Builder("some_measurement")
+                .timestamps(new long[] {1_500L}, TimeUnit.MILLISECONDS)
+                .doubleField("some_field", new double[] {1})
+                .build();
+        assertThat(batch.getTimestamp(0, TimeUnit.MICROSECONDS)).isEqualTo(1_500_000L);
+    }
+
+    @Test
+    public void getTimestamp_shouldThrowException_ifNoTimestamps() {
+        PointBatch batch = new PointBatch.Builder("some_measurement")
+                .doubleField("some_field", new double[] {1})
+                .build();
+        assertThat(batch.hasTimestamps()).isFalse();
+        assertThatIllegalStateException().isThrownBy(
+                () -> batch.getTimestamp(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void build_shouldThrowException_ifColumnLengthsDiffer() {
+        PointBatch.Builder builder = new PointBatch.Builder("some_measurement")
+                .doubleField("field_a", new double[] {1, 2})
+                .longField("field_b", new long[] {1});
+        assertThatIllegalStateException().isThrownBy(builder::build);
+    }
+
+    @Test
+    public void build_shouldThrowException_ifTimestampCountDiffers() {
+        PointBatch.Builder builder = new PointBatch.Builder("some_measurement")
+                .timestamps(new long[] {1}, TimeUnit.SECONDS)
+                .doubleField("some_field", new double[] {1, 2});
+        assertThatIllegalStateException().isThrownBy(builder::build);
+    }
+
+    @Test
+    public void build_shouldThrowException_ifNoFields() {
+        PointBatch.Builder builder = new PointBatch.Builder("some_measurement");
+        assertThatIllegalStateException().isThrownBy(builder::build);
+    }
+
+    @Test
+    public void build_shouldThrowException_ifMeasurementNameIsBlank() {
+        PointBatch.Builder builder = new PointBatch.Builder(" ")
+                .doubleField("some_field", new double[] {1});
+        assertThatIllegalStateException().isThrownBy(builder::build);
+    }
+
+    @Test
+    public void doubleField_shouldThrowException_ifValuesAreNull() {
+        PointBatch.Builder builder = new PointBatch.Builder("some_measurement");
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> builder.doubleField("some_field", null));
+    }
+}
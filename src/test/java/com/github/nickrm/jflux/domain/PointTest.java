@@ -0,0 +1,203 @@
+package com.github.nickrm.jflux.domain;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.entry;
+
+public class PointTest {
+
+    @Test
+    public void getTimestamp_shouldReturnInstant_ifSetAsInstant() {
+        Instant timestamp = Instant.ofEpochSecond(1_500_000_000, 123_456_789);
+        Point point = new Point.Builder().timestamp(timestamp).build();
+        assertThat(point.getTimestamp()).isEqualTo(timestamp);
+    }
+
+    @Test
+    public void getTimestamp_shouldReturnInstant_ifSetInMillis() {
+        Point point = new Point.Builder().timestamp(1_500_000_000_123L, TimeUnit.MILLISECONDS)
+                .build();
+        assertThat(point.getTimestamp()).isEqualTo(Instant.ofEpochMilli(1_500_000_000_123L));
+    }
+
+    @Test
+    public void getTimestamp_shouldReturnInstant_ifBeforeEpoch() {
+        Point point = new Point.Builder().timestamp(-1, TimeUnit.MICROSECONDS).build();
+        assertThat(point.getTimestamp()).isEqualTo(Instant.ofEpochSecond(-1, 999_999_000));
+    }
+
+    @Test
+    public void getTimestamp_shouldReturnInstant_ifSetInHours() {
+        Point point = new Point.Builder().timestamp(2, TimeUnit.HOURS).build();
+        assertThat(point.getTimestamp()).isEqualTo(Instant.ofEpochSecond(7200));
+    }
+
+    @Test
+    public void getTimestamp_shouldReturnNull_ifNotSet() {
+        assertThat(new Point.Builder().build().getTimestamp()).isNull();
+    }
+
+    @Test
+    public void getTimestampInUnit_shouldConvertTimestamp() {
+        Point point = new Point.Builder().timestamp(Instant.ofEpochMilli(1_500)).build();
+        assertThat(point.getTimestamp(TimeUnit.NANOSECONDS)).isEqualTo(1_500_000_000L);
+        assertThat(point.getTimestamp(TimeUnit.MILLISECONDS)).isEqualTo(1_500L);
+        assertThat(point.getTimestamp(TimeUnit.SECONDS)).isEqualTo(1L);
+    }
+
+    @Test
+    public void getTimestampInUnit_shouldThrowException_ifNotSet() {
+        Point point = new Point.Builder().build();
+        assertThat(point.hasTimestamp()).isFalse();
+        assertThatIllegalStateException().isThrownBy(
+                () -> point.getTimestamp(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void timestamp_shouldClearTimestamp_ifNull() {
+        Point point = new Point.Builder().timestamp(1, TimeUnit.SECONDS).timestamp(null).build();
+        assertThat(point.hasTimestamp()).isFalse();
+    }
+
+    @Test
+    public void timestamp_shouldThrowException_ifInstantOutOfRange() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new Point.Builder().timestamp(Instant.MAX));
+    }
+
+    @Test
+    public void timestamp_shouldThrowException_ifUnitIsNull() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new Point.Builder().timestamp(1, null));
+    }
+
+    @Test
+    public void getTags_shouldReturnTagsSortedByKey() {
+        // Given
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("tag_b", "2");
+        tags.put("tag_a", "1");
+
+        // When
+        Point point = new Point.Builder().tags(tags).build();
+
+        // Then
+        assertThat(point.getTags()).containsExactly(entry("tag_a", "1"), entry("tag_b", "2"));
+        assertThat(point.getTags()).isEqualTo(tags);
+        assertThat(point.getTags().hashCode()).isEqualTo(tags.hashCode());
+    }
+
+    @Test
+    public void getTags_shouldNotBeModifiable() {
+        Point point = new Point.Builder().tag("some_tag", "1").build();
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(
+                () -> point.getTags().put("other_tag", "2"));
+    }
+
+    @Test
+    public void getFields_shouldNotBeModifiable() {
+        Point point = new Point.Builder().field("some_field", 1).build();
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(
+                () -> point.getFields().clear());
+    }
+
+    @Test
+    public void build_shouldCopyTagsAndFields() {
+        // Given
+        Map<String, String> tags = new HashMap<>();
+        tags.put("some_tag", "1");
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("some_field", 1);
+        Point point = new Point.Builder().tags(tags).fields(fields).build();
+
+        // When
+        tags.put("other_tag", "2");
+        fields.put("other_field", 2);
+
+        // Then
+        assertThat(point.getTags()).containsOnlyKeys("some_tag");
+        assertThat(point.getFields()).containsOnlyKeys("some_field");
+    }
+
+    @Test
+    public void build_shouldThrowException_ifTagKeyIsNull() {
+        Point.Builder builder = new Point.Builder().tag(null, "1");
+        assertThatIllegalArgumentException().isThrownBy(builder::build);
+    }
+
+    @Test
+    public void build_shouldThrowException_ifFieldTypeIsUnsupported() {
+        Point.Builder builder = new Point.Builder().field("some_field", new Date());
+        assertThatIllegalArgumentException().isThrownBy(builder::build)
+                .withMessageContaining("some_field");
+    }
+
+    @Test
+    public void build_shouldThrowException_ifFieldValueIsNull() {
+        Point.Builder builder = new Point.Builder().fields(
+                Collections.singletonMap("some_field", null));
+        assertThatIllegalArgumentException().isThrownBy(builder::build);
+    }
+
+    @Test
+    public void build_shouldThrowException_ifFieldValueIsNotFinite() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new Point.Builder().field("some_field", Double.NaN).build());
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new Point.Builder().field("some_field", Float.NEGATIVE_INFINITY).build());
+    }
+
+    @Test
+    public void getTag_shouldReturnTagValue() {
+        Point point = new Point.Builder().tag("tag_a", "1").tag("tag_b", "2").build();
+        assertThat(point.getTag("tag_b")).isEqualTo("2");
+        assertThat(point.getTag("tag_c")).isNull();
+    }
+
+    @Test
+    public void getField_shouldReturnFieldValue() {
+        Point point = new Point.Builder().field("field_a", 1).field("field_b", "b").build();
+        assertThat(point.getField("field_b")).isEqualTo("b");
+        assertThat(point.getField("field_c")).isNull();
+    }
+
+    @Test
+    public void forEachTag_shouldVisitTagsInKeyOrder() {
+        // Given
+        Point point = new Point.Builder().tag("tag_b", "2").tag("tag_a", "1").build();
+        List<String> visited = new ArrayList<>();
+
+        // When
+        point.forEachTag((key, value) -> visited.add(key + "=" + value));
+
+        // Then
+        assertThat(visited).containsExactly("tag_a=1", "tag_b=2");
+    }
+
+    @Test
+    public void forEachField_shouldVisitFieldsInKeyOrder() {
+        // Given
+        Point point = new Point.Builder().field("field_b", 2).field("field_a", true).build();
+        List<String> visited = new ArrayList<>();
+
+        // When
+        point.forEachField((key, value) -> visited.add(key + "=" + value));
+
+        // Then
+        assertThat(visited).containsExactly("field_a=true", "field_b=2");
+    }
+}
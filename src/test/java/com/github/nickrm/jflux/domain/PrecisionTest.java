@@ -0,0 +1,27 @@
+package com.github.nickrm.jflux.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class PrecisionTest {
+
+    @Test
+    public void fromIdentifier_shouldReturnPrecision_forEachIdentifier() {
+        for (Precision precision : Precision.values()) {
+            assertThat(Precision.fromIdentifier(precision.getIdentifier())).isEqualTo(precision);
+        }
+    }
+
+    @Test
+    public void fromIdentifier_shouldAcceptAlternativeIdentifiers() {
+        assertThat(Precision.fromIdentifier("n")).isEqualTo(Precision.NANOSECONDS);
+        assertThat(Precision.fromIdentifier("us")).isEqualTo(Precision.MICROSECONDS);
+    }
+
+    @Test
+    public void fromIdentifier_shouldThrowException_ifIdentifierIsInvalid() {
+        assertThatIllegalArgumentException().isThrownBy(() -> Precision.fromIdentifier("d"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.nickrm.jflux.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class UnsignedLongTest {
+
+    @Test
+    public void toString_shouldReturnUnsignedValue_ifLongBitsAreNegative() {
+        assertThat(UnsignedLong.fromLongBits(-1).toString()).isEqualTo("18446744073709551615");
+    }
+
+    @Test
+    public void valueOf_shouldParseValuesGreaterThanLongMaxValue() {
+        UnsignedLong value = UnsignedLong.valueOf("9223372036854775808");
+        assertThat(value.longValue()).isEqualTo(Long.MIN_VALUE);
+        assertThat(value.doubleValue()).isEqualTo(9.223372036854775808E18);
+    }
+
+    @Test
+    public void valueOf_shouldThrowException_ifValueIsNegative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> UnsignedLong.valueOf(-1));
+    }
+
+    @Test
+    public void valueOf_shouldThrowException_ifStringIsNegative() {
+        assertThatExceptionOfType(NumberFormatException.class).isThrownBy(
+                () -> UnsignedLong.valueOf("-1"));
+    }
+
+    @Test
+    public void compareTo_shouldCompareAsUnsigned() {
+        assertThat(UnsignedLong.fromLongBits(-1)).isGreaterThan(UnsignedLong.valueOf(1));
+    }
+
+    @Test
+    public void equals_shouldReturnTrue_forSameValue() {
+        assertThat(UnsignedLong.valueOf(5)).isEqualTo(UnsignedLong.valueOf("5"))
+                .hasSameHashCodeAs(UnsignedLong.valueOf(5));
+    }
+}
@@ -0,0 +1,259 @@
+package com.github.nickrm.jflux.processor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.github.nickrm.jflux.codec.PointCodec;
+import com.github.nickrm.jflux.codec.PointWriter;
+import com.github.nickrm.jflux.domain.Point;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class PointCodecProcessorTest {
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    public void process_shouldGenerateCodecNamedAfterClass() throws Exception {
+        // Given
+        String source = "package some.pkg;\n"
+                + "import com.github.nickrm.jflux.annotation.*;\n"
+                + "@Measurement public class CpuLoad { @Field double value; }";
+
+        // When
+        List<Diagnostic<? extends JavaFileObject>> diagnostics =
+                compile("some.pkg.CpuLoad", source);
+
+        // Then
+        assertThat(diagnostics).isEmpty();
+        PointCodec<?> codec = loadCodec("some.pkg.CpuLoad");
+        assertThat(codec.getMeasurementName()).isEqualTo("cpu_load");
+    }
+
+    @Test
+    public void process_shouldGenerateCodecForNestedClass() throws Exception {
+        // Given
+        String source = "package some.pkg;\n"
+                + "import com.github.nickrm.jflux.annotation.*;\n"
+                + "public class Outer {\n"
+                + "    @Measurement(\"cpu\") static class Inner { @Field long value; }\n"
+                + "}";
+
+        // When
+        compile("some.pkg.Outer", source);
+
+        // Then
+        assertThat(loadCodec("some.pkg.Outer$Inner").getMeasurementName()).isEqualTo("cpu");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void codec_shouldEncodeAnnotatedMembers() throws Exception {
+        // Given
+        compile("some.pkg.Sample", sampleSource());
+        PointCodec<Object> codec = (PointCodec<Object>) loadCodec("some.pkg.Sample");
+        Object sample = codec.decode(new Point.Builder()
+                .timestamp(Instant.ofEpochSecond(1))
+                .tag("host_name", "server_1")
+                .field("usage", 0.5)
+                .field("cores", 4)
+                .field("total", 10L)
+                .field("up", true)
+                .field("note", "some note")
+                .build());
+        PointWriter writer = mock(PointWriter.class);
+
+        // When
+        codec.encode(sample, writer);
+
+        // Then
+        verify(writer).timestamp(Instant.ofEpochSecond(1));
+        verify(writer).tag("host_name", "server_1");
+        verify(writer).field("usage", 0.5);
+        verify(writer).field("cores", 4L);
+        verify(writer).field("total", (Object) 10L);
+        verify(writer).field("up", true);
+        verify(writer).field("note", (Object) "some note");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void codec_shouldDecodeNumbersOfAnyType() throws Exception {
+        // Given
+        compile("some.pkg.Sample", sampleSource());
+        PointCodec<Object> codec = (PointCodec<Object>) loadCodec("some.pkg.Sample");
+        Point point = new Point.Builder()
+                .field("usage", 1)
+                .field("cores", 4L)
+                .field("total", 10)
+                .build();
+        PointWriter writer = mock(PointWriter.class);
+
+        // When
+        codec.encode(codec.decode(point), writer);
+
+        // Then
+        verify(writer).field("usage", 1.0);
+        verify(writer).field("cores", 4L);
+        verify(writer).field("total", (Object) 10L);
+        verify(writer).field("up", false);
+        verify(writer).timestamp(null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void codec_shouldDecodeStringField_fromTag() throws Exception {
+        // Given
+        compile("some.pkg.Sample", sampleSource());
+        PointCodec<Object> codec = (PointCodec<Object>) loadCodec("some.pkg.Sample");
+        Point point = new Point.Builder()
+                .tag("note", "some note")
+                .field("usage", 0.5)
+                .build();
+        PointWriter writer = mock(PointWriter.class);
+
+        // When
+        codec.encode(codec.decode(point), writer);
+
+        // Then
+        verify(writer).field("note", (Object) "some note");
+    }
+
+    @Test
+    public void process_shouldWarn_ifAnnotatedMemberIsPrivate() throws IOException {
+        // Given
+        String source = "package some.pkg;\n"
+                + "import com.github.nickrm.jflux.annotation.*;\n"
+                + "@Measurement public class Hidden { @Field private double value; }";
+
+        // When
+        List<Diagnostic<? extends JavaFileObject>> diagnostics =
+                compile("some.pkg.Hidden", source);
+
+        // Then
+        assertThat(diagnostics).hasSize(1);
+        assertThat(diagnostics.get(0).getKind()).isEqualTo(Diagnostic.Kind.WARNING);
+        assertThat(diagnostics.get(0).getMessage(null)).contains("private member value");
+        assertThat(outputDirectory.resolve("some/pkg/Hidden_PointCodec.class")).doesNotExist();
+    }
+
+    @Test
+    public void process_shouldWarn_ifNoFields() throws IOException {
+        // Given
+        String source = "package some.pkg;\n"
+                + "import com.github.nickrm.jflux.annotation.*;\n"
+                + "@Measurement public class Empty { @Tag String tag; }";
+
+        // When
+        List<Diagnostic<? extends JavaFileObject>> diagnostics =
+                compile("some.pkg.Empty", source);
+
+        // Then
+        assertThat(diagnostics).extracting(diagnostic -> diagnostic.getMessage(null))
+                .anySatisfy(message -> assertThat(message).contains("no members annotated"));
+    }
+
+    @Test
+    public void process_shouldWarn_ifFieldTypeIsNotSupported() throws IOException {
+        // Given
+        String source = "package some.pkg;\n"
+                + "import com.github.nickrm.jflux.annotation.*;\n"
+                + "@Measurement public class Dated { @Field java.util.Date value; }";
+
+        // When
+        List<Diagnostic<? extends JavaFileObject>> diagnostics =
+                compile("some.pkg.Dated", source);
+
+        // Then
+        assertThat(diagnostics).extracting(diagnostic -> diagnostic.getMessage(null))
+                .anySatisfy(message -> assertThat(message).contains("unsupported type"));
+    }
+
+    @Test
+    public void process_shouldWarn_ifNoAccessibleConstructor() throws IOException {
+        // Given
+        String source = "package some.pkg;\n"
+                + "import com.github.nickrm.jflux.annotation.*;\n"
+                + "@Measurement public class Private {\n"
+                + "    @Field double value;\n"
+                + "    private Private() {}\n"
+                + "}";
+
+        // When
+        List<Diagnostic<? extends JavaFileObject>> diagnostics =
+                compile("some.pkg.Private", source);
+
+        // Then
+        assertThat(diagnostics).extracting(diagnostic -> diagnostic.getMessage(null))
+                .anySatisfy(message -> assertThat(message).contains("no-argument constructor"));
+    }
+
+    private String sampleSource() {
+        return "package some.pkg;\n"
+                + "import com.github.nickrm.jflux.annotation.*;\n"
+                + "@Measurement public class Sample {\n"
+                + "    @Timestamp java.time.Instant time;\n"
+                + "    @Tag String hostName;\n"
+                + "    @Field double usage;\n"
+                + "    @Field int cores;\n"
+                + "    @Field Long total;\n"
+                + "    @Field boolean up;\n"
+                + "    @Field String note;\n"
+                + "    String notAnnotated;\n"
+                + "}";
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String className, String source)
+            throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject sourceFile = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
+                null, null)) {
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", outputDirectory.toString(),
+                    "-s", outputDirectory.toString(),
+                    "-processor", PointCodecProcessor.class.getName());
+            compiler.getTask(null, fileManager, diagnostics, options, null,
+                    Collections.singletonList(sourceFile)).call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private PointCodec<?> loadCodec(String className) throws Exception {
+        ClassLoader classLoader = new URLClassLoader(
+                new URL[] {outputDirectory.toUri().toURL()}, getClass().getClassLoader());
+        return (PointCodec<?>) Class.forName(className + "_PointCodec", true, classLoader)
+                .getConstructor()
+                .newInstance();
+    }
+}